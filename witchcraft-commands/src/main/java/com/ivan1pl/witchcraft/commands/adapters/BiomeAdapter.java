@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.block.Biome;
 
 /**
  * Default type adapter for {@link Biome} type.
  */
 @Managed
+@Shared
+@Lazy
 public class BiomeAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public BiomeAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link Biome}.
      * @param arg value to convert
@@ -16,13 +34,6 @@ public class BiomeAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        if (arg.startsWith("minecraft:")) {
-            arg = arg.substring(10);
-        }
-        try {
-            return Biome.valueOf(arg.toUpperCase());
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getBiomes().get(arg);
     }
 }
@@ -1,29 +1,53 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
-import org.bukkit.plugin.java.JavaPlugin;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import org.bukkit.Server;
 
 /**
  * Default type adapter for {@link org.bukkit.block.data.BlockData} type.
  */
 @Managed
+@Shared
+@Lazy
 public class BlockDataAdapter implements TypeAdapter {
-    private final JavaPlugin javaPlugin;
+    /**
+     * Server instance.
+     */
+    private final Server server;
+
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
 
-    public BlockDataAdapter(JavaPlugin javaPlugin) {
-        this.javaPlugin = javaPlugin;
+    /**
+     * Constructor.
+     * @param server server instance
+     * @param registryIndexes registry indexes
+     */
+    public BlockDataAdapter(Server server, RegistryIndexes registryIndexes) {
+        this.server = server;
+        this.registryIndexes = registryIndexes;
     }
 
     /**
-     * Convert string to {@link org.bukkit.block.data.BlockData}.
+     * Convert string to {@link org.bukkit.block.data.BlockData}. Arguments not starting with a block name are rejected
+     * without asking the server to parse them.
      * @param arg value to convert
      * @return {@link org.bukkit.block.data.BlockData} representation of given argument
      */
     @Override
     public Object convert(String arg) {
+        int stateStart = arg.indexOf('[');
+        if (!registryIndexes.getBlocks().contains(stateStart < 0 ? arg : arg.substring(0, stateStart))) {
+            return null;
+        }
         try {
-            return javaPlugin.getServer().createBlockData(arg);
+            return server.createBlockData(arg);
         } catch (Exception e) {
             return null;
         }
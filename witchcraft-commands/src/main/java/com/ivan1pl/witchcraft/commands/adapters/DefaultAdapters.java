@@ -1,7 +1,9 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.context.LazyBean;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
 import org.bukkit.block.data.BlockData;
@@ -17,8 +19,12 @@ import java.util.Map;
  * Mapping from class to adapter responsible for converting to that class.
  */
 @Managed
+@Shared
 public class DefaultAdapters {
-    private final Map<Class<?>, TypeAdapter> adapters = new HashMap<>();
+    /**
+     * Holders of adapters, by type. Adapters are created on first use.
+     */
+    private final Map<Class<?>, LazyBean<? extends TypeAdapter>> adapters = new HashMap<>();
 
     /**
      * Create adapters mapping.
@@ -41,24 +47,24 @@ public class DefaultAdapters {
      * @param worldAdapter world adapter
      * @param worldTypeAdapter world type adapter
      */
-    public DefaultAdapters(BooleanAdapter booleanAdapter,
-                           IntegerAdapter integerAdapter,
-                           LongAdapter longAdapter,
-                           FloatAdapter floatAdapter,
-                           DoubleAdapter doubleAdapter,
-                           BiomeAdapter biomeAdapter,
-                           BlockDataAdapter blockDataAdapter,
-                           EntityEffectAdapter entityEffectAdapter,
-                           EntityTypeAdapter entityTypeAdapter,
-                           EquipmentSlotAdapter equipmentSlotAdapter,
-                           GameModeAdapter gameModeAdapter,
-                           InstrumentAdapter instrumentAdapter,
-                           MaterialAdapter materialAdapter,
-                           PlayerAdapter playerAdapter,
-                           PotionTypeAdapter potionTypeAdapter,
-                           WeatherTypeAdapter weatherTypeAdapter,
-                           WorldAdapter worldAdapter,
-                           WorldTypeAdapter worldTypeAdapter) {
+    public DefaultAdapters(LazyBean<BooleanAdapter> booleanAdapter,
+                           LazyBean<IntegerAdapter> integerAdapter,
+                           LazyBean<LongAdapter> longAdapter,
+                           LazyBean<FloatAdapter> floatAdapter,
+                           LazyBean<DoubleAdapter> doubleAdapter,
+                           LazyBean<BiomeAdapter> biomeAdapter,
+                           LazyBean<BlockDataAdapter> blockDataAdapter,
+                           LazyBean<EntityEffectAdapter> entityEffectAdapter,
+                           LazyBean<EntityTypeAdapter> entityTypeAdapter,
+                           LazyBean<EquipmentSlotAdapter> equipmentSlotAdapter,
+                           LazyBean<GameModeAdapter> gameModeAdapter,
+                           LazyBean<InstrumentAdapter> instrumentAdapter,
+                           LazyBean<MaterialAdapter> materialAdapter,
+                           LazyBean<PlayerAdapter> playerAdapter,
+                           LazyBean<PotionTypeAdapter> potionTypeAdapter,
+                           LazyBean<WeatherTypeAdapter> weatherTypeAdapter,
+                           LazyBean<WorldAdapter> worldAdapter,
+                           LazyBean<WorldTypeAdapter> worldTypeAdapter) {
         adapters.put(boolean.class, booleanAdapter);
         adapters.put(Boolean.class, booleanAdapter);
         adapters.put(int.class, integerAdapter);
@@ -91,6 +97,7 @@ public class DefaultAdapters {
      * @return adapter associated with requested type or {@code null}
      */
     public TypeAdapter get(Class<?> requestedType) {
-        return adapters.get(requestedType);
+        LazyBean<? extends TypeAdapter> holder = adapters.get(requestedType);
+        return holder == null ? null : holder.get();
     }
 }
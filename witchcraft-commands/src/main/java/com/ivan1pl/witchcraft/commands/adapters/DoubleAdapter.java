@@ -1,12 +1,16 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 
 /**
  * Default type adapter for {@code double} and {@link Double} types.
  */
 @Managed
+@Shared
+@Lazy
 public class DoubleAdapter implements TypeAdapter {
     /**
      * Convert string to double.
@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.EntityEffect;
 
 /**
  * Default type adapter for {@link EntityEffect} type.
  */
 @Managed
+@Shared
+@Lazy
 public class EntityEffectAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public EntityEffectAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link EntityEffect}.
      * @param arg value to convert
@@ -16,11 +34,6 @@ public class EntityEffectAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        arg = arg.toLowerCase();
-        try {
-            return EntityEffect.valueOf(arg.toUpperCase());
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getEntityEffects().get(arg);
     }
 }
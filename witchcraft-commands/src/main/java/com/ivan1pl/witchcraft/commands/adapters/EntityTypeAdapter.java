@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.entity.EntityType;
 
 /**
  * Default type adapter for {@link EntityType} type.
  */
 @Managed
+@Shared
+@Lazy
 public class EntityTypeAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public EntityTypeAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link EntityType}.
      * @param arg value to convert
@@ -16,13 +34,6 @@ public class EntityTypeAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        if (arg.startsWith("minecraft:")) {
-            arg = arg.substring(10);
-        }
-        try {
-            return EntityType.fromName(arg);
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getEntityTypes().get(arg);
     }
 }
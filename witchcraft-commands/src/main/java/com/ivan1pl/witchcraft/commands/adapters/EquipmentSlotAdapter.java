@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.inventory.EquipmentSlot;
 
 /**
  * Default type adapter for {@link EquipmentSlot} type.
  */
 @Managed
+@Shared
+@Lazy
 public class EquipmentSlotAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public EquipmentSlotAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link EquipmentSlot}.
      * @param arg value to convert
@@ -16,11 +34,6 @@ public class EquipmentSlotAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        arg = arg.toLowerCase();
-        try {
-            return EquipmentSlot.valueOf(arg.toUpperCase());
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getEquipmentSlots().get(arg);
     }
 }
@@ -1,30 +1,44 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import org.apache.commons.lang.StringUtils;
 import org.bukkit.GameMode;
 
 /**
  * Default type adapter for {@link GameMode} type.
  */
 @Managed
+@Shared
+@Lazy
 public class GameModeAdapter implements TypeAdapter {
     /**
-     * Convert string to {@link GameMode}.
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public GameModeAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
+    /**
+     * Convert string to {@link GameMode}. Game modes can be given by name or by numeric value.
      * @param arg value to convert
      * @return {@link GameMode} representation of given argument
      */
     @Override
     public Object convert(String arg) {
-        arg = arg.toLowerCase();
-        try {
-            return GameMode.valueOf(arg.toUpperCase());
-        } catch (Exception e) {
-            try {
-                return GameMode.getByValue(Integer.parseInt(arg));
-            } catch (Exception e1) {
-                return null;
-            }
+        GameMode gameMode = registryIndexes.getGameModes().get(arg);
+        if (gameMode == null && !arg.isEmpty() && arg.length() < 10 && StringUtils.isNumeric(arg)) {
+            gameMode = GameMode.getByValue(Integer.parseInt(arg));
         }
+        return gameMode;
     }
 }
@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.Instrument;
 
 /**
  * Default type adapter for {@link Instrument} type.
  */
 @Managed
+@Shared
+@Lazy
 public class InstrumentAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public InstrumentAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link Instrument}.
      * @param arg value to convert
@@ -16,11 +34,6 @@ public class InstrumentAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        arg = arg.toLowerCase();
-        try {
-            return Instrument.valueOf(arg.toUpperCase());
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getInstruments().get(arg);
     }
 }
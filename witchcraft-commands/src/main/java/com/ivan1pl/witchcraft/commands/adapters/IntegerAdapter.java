@@ -1,12 +1,16 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 
 /**
  * Default type adapter for {@code int} and {@link Integer} types.
  */
 @Managed
+@Shared
+@Lazy
 public class IntegerAdapter implements TypeAdapter {
     /**
      * Convert string to integer.
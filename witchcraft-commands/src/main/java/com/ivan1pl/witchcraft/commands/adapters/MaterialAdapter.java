@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.Material;
 
 /**
  * Default type adapter for {@link Material} type.
  */
 @Managed
+@Shared
+@Lazy
 public class MaterialAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public MaterialAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link Material}.
      * @param arg value to convert
@@ -16,13 +34,6 @@ public class MaterialAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        if (arg.startsWith("minecraft:")) {
-            arg = arg.substring(10);
-        }
-        try {
-            return Material.getMaterial(arg.toUpperCase(), false);
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getMaterials().get(arg);
     }
 }
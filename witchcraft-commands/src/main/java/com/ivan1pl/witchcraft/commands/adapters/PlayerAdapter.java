@@ -1,20 +1,24 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Default type adapter for {@link Player} type.
  */
 @Managed
+@Shared
+@Lazy
 public class PlayerAdapter implements TypeAdapter {
-    private final JavaPlugin javaPlugin;
+    private final Server server;
 
-    public PlayerAdapter(JavaPlugin javaPlugin) {
-        this.javaPlugin = javaPlugin;
+    public PlayerAdapter(Server server) {
+        this.server = server;
     }
 
     /**
@@ -24,11 +28,11 @@ public class PlayerAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        Player player = javaPlugin.getServer().getPlayer(arg);
+        Player player = server.getPlayer(arg);
         if (player != null) {
             return player;
         } else {
-            OfflinePlayer[] players = javaPlugin.getServer().getOfflinePlayers();
+            OfflinePlayer[] players = server.getOfflinePlayers();
             for (OfflinePlayer offlinePlayer : players) {
                 if (arg.equalsIgnoreCase(offlinePlayer.getName())) {
                     return offlinePlayer.getPlayer();
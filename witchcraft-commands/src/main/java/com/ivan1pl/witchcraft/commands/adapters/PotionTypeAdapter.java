@@ -1,14 +1,32 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.potion.PotionType;
 
 /**
  * Default type adapter for {@link PotionType} type.
  */
 @Managed
+@Shared
+@Lazy
 public class PotionTypeAdapter implements TypeAdapter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public PotionTypeAdapter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Convert string to {@link PotionType}.
      * @param arg value to convert
@@ -16,11 +34,6 @@ public class PotionTypeAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        arg = arg.toLowerCase();
-        try {
-            return PotionType.valueOf(arg.toUpperCase());
-        } catch (Exception e) {
-            return null;
-        }
+        return registryIndexes.getPotionTypes().get(arg);
     }
 }
@@ -1,9 +1,11 @@
 package com.ivan1pl.witchcraft.commands.adapters;
 
 import com.ivan1pl.witchcraft.commands.base.TypeAdapter;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import org.bukkit.Server;
 import org.bukkit.World;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
 
@@ -11,11 +13,13 @@ import java.util.List;
  * Default type adapter for {@link World} type.
  */
 @Managed
+@Shared
+@Lazy
 public class WorldAdapter implements TypeAdapter {
-    private final JavaPlugin javaPlugin;
+    private final Server server;
 
-    public WorldAdapter(JavaPlugin javaPlugin) {
-        this.javaPlugin = javaPlugin;
+    public WorldAdapter(Server server) {
+        this.server = server;
     }
 
     /**
@@ -25,7 +29,7 @@ public class WorldAdapter implements TypeAdapter {
      */
     @Override
     public Object convert(String arg) {
-        List<World> worlds = javaPlugin.getServer().getWorlds();
+        List<World> worlds = server.getWorlds();
         for (World world : worlds) {
             if (world.getName().equalsIgnoreCase(arg)) {
                 return world;
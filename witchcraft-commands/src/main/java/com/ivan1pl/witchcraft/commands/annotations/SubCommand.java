@@ -23,4 +23,12 @@ public @interface SubCommand {
      * Permission node required to execute this subcommand.
      */
     String permission() default "";
+
+    /**
+     * Whether the subcommand should be executed asynchronously. Arguments are still bound and permissions checked on
+     * the main thread, but the method is executed by a worker thread; the command sender passed to it sends
+     * messages and calls Bukkit API on the main thread. Subcommands returning {@code CompletableFuture} are always
+     * executed asynchronously.
+     */
+    boolean async() default false;
 }
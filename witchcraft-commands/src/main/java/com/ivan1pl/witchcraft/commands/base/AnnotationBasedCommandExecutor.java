@@ -9,7 +9,6 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.TabExecutor;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.reflections.Reflections;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
@@ -37,9 +36,9 @@ public class AnnotationBasedCommandExecutor implements TabExecutor {
         if (plugin != null && !plugin.basePackage().isEmpty()) {
             basePackage = plugin.basePackage();
         }
-        javaPlugin.getLogger().info(String.format("Starting command scan for package: %s", basePackage));
-        Set<Class<?>> commands = new Reflections(basePackage)
-                .getTypesAnnotatedWith(com.ivan1pl.witchcraft.commands.annotations.Command.class);
+        javaPlugin.getLogger().info(String.format("Looking up commands in package: %s", basePackage));
+        Set<Class<?>> commands = witchCraftContext.getScanResult().getTypesAnnotatedWith(
+                com.ivan1pl.witchcraft.commands.annotations.Command.class, basePackage);
         for (Class<?> commandClass : commands) {
             com.ivan1pl.witchcraft.commands.annotations.Command command =
                     commandClass.getAnnotation(com.ivan1pl.witchcraft.commands.annotations.Command.class);
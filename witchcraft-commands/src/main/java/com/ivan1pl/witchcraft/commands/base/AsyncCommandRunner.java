@@ -0,0 +1,153 @@
+package com.ivan1pl.witchcraft.commands.base;
+
+import com.ivan1pl.witchcraft.commands.annotations.SubCommand;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pool executing asynchronous subcommands (see {@link SubCommand#async()}). Subcommands executed by the same
+ * sender run one after another, in the order in which they were issued. The number of pending subcommands is limited,
+ * so that a burst of slow commands cannot pile up without bounds.
+ */
+@Managed
+public class AsyncCommandRunner implements AutoCloseable {
+    /**
+     * Configuration key containing the number of worker threads.
+     */
+    private static final String THREADS_KEY = "witchcraft.commands.async.threads";
+
+    /**
+     * Configuration key containing the maximum number of pending subcommands.
+     */
+    private static final String MAX_PENDING_KEY = "witchcraft.commands.async.maxPending";
+
+    /**
+     * Default maximum number of pending subcommands.
+     */
+    private static final int DEFAULT_MAX_PENDING = 100;
+
+    /**
+     * Time in seconds to wait for running subcommands when the plugin is disabled.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
+    /**
+     * Worker threads.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Permits of pending subcommands, acquired when a subcommand is submitted and released when it completes.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Last pending subcommand of each sender.
+     */
+    private final Map<Object, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * @param javaPlugin plugin instance
+     */
+    public AsyncCommandRunner(JavaPlugin javaPlugin) {
+        this.javaPlugin = javaPlugin;
+        int threads = Math.max(1, javaPlugin.getConfig().getInt(
+                THREADS_KEY, Runtime.getRuntime().availableProcessors()));
+        int maxPending = Math.max(1, javaPlugin.getConfig().getInt(MAX_PENDING_KEY, DEFAULT_MAX_PENDING));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, javaPlugin.getName() + "-command-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.permits = new Semaphore(maxPending);
+    }
+
+    /**
+     * Submit subcommand for execution. It starts after all subcommands previously submitted by the same sender
+     * complete.
+     * @param commandSender command sender
+     * @param task subcommand invocation; if it returns a {@link CompletionStage}, the subcommand completes when the
+     *             stage completes
+     * @return future completed with the subcommand result, or {@code null} if there are too many pending subcommands
+     */
+    public CompletableFuture<Object> submit(CommandSender commandSender, Callable<?> task) {
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+        Object key = commandSender instanceof Entity ? ((Entity) commandSender).getUniqueId() : commandSender.getName();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<?> tail = tails.compute(key, (k, previous) ->
+                (previous == null ? CompletableFuture.completedFuture(null) : previous)
+                        .handle((r, e) -> null)
+                        .thenComposeAsync(ignored -> execute(task, result), executor));
+        tail.whenComplete((r, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+            }
+            permits.release();
+            tails.remove(key, tail);
+        });
+        return result;
+    }
+
+    /**
+     * Execute subcommand.
+     * @param task subcommand invocation
+     * @param result future to complete with the subcommand result
+     * @return future completed when the subcommand completes, successfully or not
+     */
+    private CompletableFuture<?> execute(Callable<?> task, CompletableFuture<Object> result) {
+        try {
+            Object value = task.call();
+            if (value instanceof CompletionStage) {
+                ((CompletionStage<?>) value).whenComplete((r, e) -> {
+                    if (e != null) {
+                        result.completeExceptionally(e);
+                    } else {
+                        result.complete(r);
+                    }
+                });
+            } else {
+                result.complete(value);
+            }
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+        return result.handle((r, e) -> null);
+    }
+
+    /**
+     * Stop worker threads, waiting a limited time for running subcommands to complete. Waiting is limited because
+     * subcommands may be waiting for the main thread, which is the one closing this runner.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                List<Runnable> dropped = executor.shutdownNow();
+                javaPlugin.getLogger().warning(String.format(
+                        "Interrupted running subcommands and dropped %d pending subcommands", dropped.size()));
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
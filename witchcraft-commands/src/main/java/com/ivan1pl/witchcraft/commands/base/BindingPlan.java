@@ -0,0 +1,670 @@
+package com.ivan1pl.witchcraft.commands.base;
+
+import com.google.common.primitives.Primitives;
+import com.ivan1pl.witchcraft.commands.adapters.DefaultAdapters;
+import com.ivan1pl.witchcraft.commands.annotations.Adapter;
+import com.ivan1pl.witchcraft.commands.annotations.Option;
+import com.ivan1pl.witchcraft.commands.annotations.Optional;
+import com.ivan1pl.witchcraft.commands.annotations.Sender;
+import com.ivan1pl.witchcraft.context.WitchCraftContext;
+import com.ivan1pl.witchcraft.context.annotations.ConfigurationValue;
+import com.ivan1pl.witchcraft.context.config.ConfigurationAccessor;
+import com.ivan1pl.witchcraft.context.config.ConfigurationBinding;
+import org.bukkit.command.CommandSender;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+
+/**
+ * Plan of binding command arguments to the parameters of a subcommand method, compiled when the subcommand is
+ * registered. Each parameter is assigned a binder specialized for its kind (sender, option, configuration value,
+ * positional or varargs parameter) with its type adapter already resolved, so that binding arguments does not use
+ * reflection. Plans also describe how many arguments their subcommand accepts, which is used to rank subcommands
+ * matching the same command.
+ */
+final class BindingPlan {
+    /**
+     * Value returned by binders when arguments do not match the parameter.
+     */
+    private static final Object FAILURE = new Object();
+
+    /**
+     * Value returned by binders when the command sender does not match the parameter.
+     */
+    private static final Object CANNOT_EXECUTE = new Object();
+
+    /**
+     * Parameter binders, by parameter index.
+     */
+    private final ParameterBinder[] binders;
+
+    /**
+     * Option schema, {@code null} if the method does not accept options.
+     */
+    private final OptionSchema optionSchema;
+
+    /**
+     * Whether parameters are primitive, by parameter index.
+     */
+    private final boolean[] primitive;
+
+    /**
+     * Parameter names, by parameter index.
+     */
+    private final String[] parameterNames;
+
+    /**
+     * Number of positional parameters, including optional ones.
+     */
+    private final int positionalCount;
+
+    /**
+     * Number of positional parameters without default value.
+     */
+    private final int requiredCount;
+
+    /**
+     * Whether the last parameter receives all remaining arguments.
+     */
+    private final boolean varargs;
+
+    /**
+     * Constructor.
+     * @param binders parameter binders
+     * @param optionSchema option schema
+     * @param parameters method parameters
+     */
+    private BindingPlan(ParameterBinder[] binders, OptionSchema optionSchema, Parameter[] parameters) {
+        this.binders = binders;
+        this.optionSchema = optionSchema;
+        this.primitive = new boolean[parameters.length];
+        this.parameterNames = new String[parameters.length];
+        int positional = 0;
+        int required = 0;
+        boolean hasVarargs = false;
+        for (int i = 0; i < parameters.length; ++i) {
+            primitive[i] = parameters[i].getType().isPrimitive();
+            parameterNames[i] = parameters[i].getName();
+            if (binders[i] instanceof PositionalBinder) {
+                PositionalBinder binder = (PositionalBinder) binders[i];
+                positional++;
+                required += binder.defaultValue == null ? 1 : 0;
+            } else if (binders[i] instanceof VarargsBinder) {
+                hasVarargs = true;
+            }
+        }
+        this.positionalCount = positional;
+        this.requiredCount = required;
+        this.varargs = hasVarargs;
+    }
+
+    /**
+     * Compile binding plan of a subcommand method.
+     * @param method subcommand method
+     * @param configuration configuration binding used to compile accessors of configuration value parameters
+     * @param witchCraftContext dependency injection context, used to resolve adapters declared with {@link Adapter}
+     * @param defaultAdapters default type adapters
+     * @return binding plan
+     * @throws IllegalArgumentException when there are several options with the same name
+     */
+    static BindingPlan compile(Method method, ConfigurationBinding configuration, WitchCraftContext witchCraftContext,
+                               DefaultAdapters defaultAdapters) {
+        Parameter[] parameters = method.getParameters();
+        OptionSchema optionSchema = OptionSchema.compile(parameters);
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; ++i) {
+            Parameter parameter = parameters[i];
+            Class<?> type = parameter.getType();
+            Adapter adapter = parameter.getAnnotation(Adapter.class);
+            Option option = parameter.getAnnotation(Option.class);
+            ConfigurationValue configurationValue = parameter.getAnnotation(ConfigurationValue.class);
+            if (parameter.getAnnotation(Sender.class) != null) {
+                binders[i] = new SenderBinder(type);
+            } else if (option != null) {
+                int slot = optionSchema.slotOf(option);
+                Class<?> elementType = type.isArray() ? type.getComponentType() : type;
+                ArgumentConverter converter = new ArgumentConverter(
+                        elementType, adapter, witchCraftContext, defaultAdapters);
+                binders[i] = type.isArray() ? new ArrayOptionBinder(slot, elementType, converter) :
+                        new OptionBinder(slot, slot >= 0 && !optionSchema.hasParameter(slot), converter);
+            } else if (configurationValue != null) {
+                binders[i] = new ConfigurationBinder(
+                        configuration.accessor(configurationValue.value(), Primitives.wrap(type)));
+            } else if (i == parameters.length - 1 && type.isArray()) {
+                binders[i] = new VarargsBinder(type.getComponentType(), parameter.getName(), new ArgumentConverter(
+                        type.getComponentType(), adapter, witchCraftContext, defaultAdapters));
+            } else {
+                Optional optional = parameter.getAnnotation(Optional.class);
+                binders[i] = new PositionalBinder(optional == null ? null : optional.value(), parameter.getName(),
+                        new ArgumentConverter(type, adapter, witchCraftContext, defaultAdapters));
+            }
+        }
+        return new BindingPlan(binders, optionSchema, parameters);
+    }
+
+    /**
+     * Rank how well the number of arguments matches the subcommand parameters.
+     * @param argumentCount number of arguments following the subcommand name
+     * @return 0 if there are not enough arguments for the required parameters, 2 if each positional parameter
+     *         receives exactly one argument, 1 otherwise
+     */
+    int rankArity(int argumentCount) {
+        if (argumentCount < requiredCount) {
+            return 0;
+        }
+        return optionSchema == null && !varargs && argumentCount == positionalCount ? 2 : 1;
+    }
+
+    /**
+     * Bind command arguments to method parameters.
+     * @param commandSender command sender
+     * @param args command arguments
+     * @param argsIndex index of the first argument
+     * @param resolution state of the current dispatch, used to reuse conversions done for other subcommands
+     * @param params array to which parameter values are written
+     * @return {@link CommandHolder.ExecutionStatus#SUCCESS} if all parameters are bound,
+     *         {@link CommandHolder.ExecutionStatus#CANNOT_EXECUTE} if the sender does not match the method,
+     *         {@link CommandHolder.ExecutionStatus#FAILURE} if arguments do not match the method
+     */
+    CommandHolder.ExecutionStatus bind(CommandSender commandSender, String[] args, int argsIndex,
+                                       Resolution resolution, Object[] params) {
+        OptionSchema.Values optionValues = null;
+        if (optionSchema != null) {
+            optionValues = optionSchema.newValues();
+            argsIndex = optionSchema.parse(args, argsIndex, optionValues);
+            if (argsIndex < 0) {
+                return CommandHolder.ExecutionStatus.FAILURE;
+            }
+        }
+        BindingContext context = new BindingContext(commandSender, args, argsIndex, optionValues, resolution);
+        for (int i = 0; i < binders.length; ++i) {
+            Object value = binders[i].bind(context);
+            if (value == FAILURE) {
+                return CommandHolder.ExecutionStatus.FAILURE;
+            } else if (value == CANNOT_EXECUTE) {
+                return CommandHolder.ExecutionStatus.CANNOT_EXECUTE;
+            }
+            params[i] = value;
+        }
+        return CommandHolder.ExecutionStatus.SUCCESS;
+    }
+
+    /**
+     * Get number of method parameters.
+     * @return number of parameters
+     */
+    int getParameterCount() {
+        return binders.length;
+    }
+
+    /**
+     * Find primitive parameter without value.
+     * @param params parameter values
+     * @return name of the first primitive parameter whose value is {@code null}, {@code null} if there is none
+     */
+    String findMissingPrimitive(Object[] params) {
+        for (int i = 0; i < params.length; ++i) {
+            if (params[i] == null && primitive[i]) {
+                return parameterNames[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * State of binding arguments in a single invocation.
+     */
+    private static final class BindingContext {
+        /**
+         * Command sender.
+         */
+        private final CommandSender commandSender;
+
+        /**
+         * Command arguments.
+         */
+        private final String[] args;
+
+        /**
+         * Index of the next argument to bind.
+         */
+        private int argsIndex;
+
+        /**
+         * Option values, {@code null} if the method does not accept options.
+         */
+        private final OptionSchema.Values optionValues;
+
+        /**
+         * State of the current dispatch.
+         */
+        private final Resolution resolution;
+
+        /**
+         * Constructor.
+         * @param commandSender command sender
+         * @param args command arguments
+         * @param argsIndex index of the first argument to bind
+         * @param optionValues option values
+         * @param resolution state of the current dispatch
+         */
+        private BindingContext(CommandSender commandSender, String[] args, int argsIndex,
+                               OptionSchema.Values optionValues, Resolution resolution) {
+            this.commandSender = commandSender;
+            this.args = args;
+            this.argsIndex = argsIndex;
+            this.optionValues = optionValues;
+            this.resolution = resolution;
+        }
+    }
+
+    /**
+     * Binder of a single parameter.
+     */
+    private interface ParameterBinder {
+        /**
+         * Get parameter value.
+         * @param context binding state
+         * @return parameter value, {@link #FAILURE} or {@link #CANNOT_EXECUTE}
+         */
+        Object bind(BindingContext context);
+    }
+
+    /**
+     * Binder of parameters annotated with {@link Sender}.
+     */
+    private static final class SenderBinder implements ParameterBinder {
+        /**
+         * Parameter type.
+         */
+        private final Class<?> type;
+
+        /**
+         * Constructor.
+         * @param type parameter type
+         */
+        private SenderBinder(Class<?> type) {
+            this.type = type;
+        }
+
+        /**
+         * Get command sender if it matches parameter type.
+         * @param context binding state
+         * @return command sender, or {@link #CANNOT_EXECUTE} if it does not match parameter type
+         */
+        @Override
+        public Object bind(BindingContext context) {
+            return type.isInstance(context.commandSender) ? context.commandSender : CANNOT_EXECUTE;
+        }
+    }
+
+    /**
+     * Binder of parameters annotated with {@link Option}.
+     */
+    private static final class OptionBinder implements ParameterBinder {
+        /**
+         * Option slot, -1 if the option has neither short nor long name.
+         */
+        private final int slot;
+
+        /**
+         * Whether the option is a flag, which is {@code false} when it is not set.
+         */
+        private final boolean flag;
+
+        /**
+         * Option value converter.
+         */
+        private final ArgumentConverter converter;
+
+        /**
+         * Constructor.
+         * @param slot option slot
+         * @param flag whether the option is a flag
+         * @param converter option value converter
+         */
+        private OptionBinder(int slot, boolean flag, ArgumentConverter converter) {
+            this.slot = slot;
+            this.flag = flag;
+            this.converter = converter;
+        }
+
+        /**
+         * Get option value.
+         * @param context binding state
+         * @return option value, {@code null} if it is not set, or {@code false} if the option is a flag that is not
+         *         set
+         */
+        @Override
+        public Object bind(BindingContext context) {
+            if (slot < 0) {
+                return null;
+            }
+            String value = context.optionValues.poll(slot);
+            Object result = value == null ? null : converter.convert(value, context.resolution);
+            return flag && result == null ? Boolean.FALSE : result;
+        }
+    }
+
+    /**
+     * Binder of array parameters annotated with {@link Option}.
+     */
+    private static final class ArrayOptionBinder implements ParameterBinder {
+        /**
+         * Option slot, -1 if the option has neither short nor long name.
+         */
+        private final int slot;
+
+        /**
+         * Array element type.
+         */
+        private final Class<?> elementType;
+
+        /**
+         * Option value converter.
+         */
+        private final ArgumentConverter converter;
+
+        /**
+         * Constructor.
+         * @param slot option slot
+         * @param elementType array element type
+         * @param converter option value converter
+         */
+        private ArrayOptionBinder(int slot, Class<?> elementType, ArgumentConverter converter) {
+            this.slot = slot;
+            this.elementType = elementType;
+            this.converter = converter;
+        }
+
+        /**
+         * Get all values of the option, up to the first value that cannot be converted.
+         * @param context binding state
+         * @return array of option values
+         */
+        @Override
+        public Object bind(BindingContext context) {
+            int size = slot < 0 ? 0 : context.optionValues.remaining(slot);
+            Object array = Array.newInstance(elementType, size);
+            for (int i = 0; i < size; ++i) {
+                Object element = converter.convert(context.optionValues.poll(slot), context.resolution);
+                if (element == null) {
+                    return copyOf(array, i);
+                }
+                set(array, i, element);
+            }
+            return array;
+        }
+    }
+
+    /**
+     * Binder of parameters annotated with {@link ConfigurationValue}.
+     */
+    private static final class ConfigurationBinder implements ParameterBinder {
+        /**
+         * Configuration value accessor.
+         */
+        private final ConfigurationAccessor<?> accessor;
+
+        /**
+         * Constructor.
+         * @param accessor configuration value accessor
+         */
+        private ConfigurationBinder(ConfigurationAccessor<?> accessor) {
+            this.accessor = accessor;
+        }
+
+        /**
+         * Get configuration value.
+         * @param context binding state
+         * @return configuration value
+         */
+        @Override
+        public Object bind(BindingContext context) {
+            return accessor.get();
+        }
+    }
+
+    /**
+     * Binder of the last parameter of a method when it is an array, which receives all remaining arguments.
+     */
+    private static final class VarargsBinder implements ParameterBinder {
+        /**
+         * Array element type.
+         */
+        private final Class<?> elementType;
+
+        /**
+         * Parameter name.
+         */
+        private final String name;
+
+        /**
+         * Argument converter.
+         */
+        private final ArgumentConverter converter;
+
+        /**
+         * Constructor.
+         * @param elementType array element type
+         * @param name parameter name
+         * @param converter argument converter
+         */
+        private VarargsBinder(Class<?> elementType, String name, ArgumentConverter converter) {
+            this.elementType = elementType;
+            this.name = name;
+            this.converter = converter;
+        }
+
+        /**
+         * Convert all remaining arguments.
+         * @param context binding state
+         * @return array of converted arguments, or {@link #FAILURE} if any argument cannot be converted
+         */
+        @Override
+        public Object bind(BindingContext context) {
+            int size = Math.max(0, context.args.length - context.argsIndex);
+            Object array = Array.newInstance(elementType, size);
+            for (int i = 0; i < size; ++i) {
+                String token = context.args[context.argsIndex];
+                Object element = converter.convert(token, context.resolution);
+                if (element == null) {
+                    context.resolution.reject(context.argsIndex, token, name);
+                    return FAILURE;
+                }
+                context.argsIndex++;
+                set(array, i, element);
+            }
+            return array;
+        }
+    }
+
+    /**
+     * Binder of positional parameters.
+     */
+    private static final class PositionalBinder implements ParameterBinder {
+        /**
+         * Default value used when there are no more arguments, {@code null} if the parameter is not optional.
+         */
+        private final String defaultValue;
+
+        /**
+         * Parameter name.
+         */
+        private final String name;
+
+        /**
+         * Argument converter.
+         */
+        private final ArgumentConverter converter;
+
+        /**
+         * Constructor.
+         * @param defaultValue default value
+         * @param name parameter name
+         * @param converter argument converter
+         */
+        private PositionalBinder(String defaultValue, String name, ArgumentConverter converter) {
+            this.defaultValue = defaultValue;
+            this.name = name;
+            this.converter = converter;
+        }
+
+        /**
+         * Convert next argument, or the default value if there are no more arguments.
+         * @param context binding state
+         * @return converted argument, or {@link #FAILURE} if there is no argument or it cannot be converted
+         */
+        @Override
+        public Object bind(BindingContext context) {
+            String value;
+            if (context.argsIndex < context.args.length) {
+                value = context.args[context.argsIndex];
+            } else if (defaultValue != null) {
+                value = defaultValue;
+            } else {
+                return FAILURE;
+            }
+            Object result = converter.convert(value, context.resolution);
+            if (result == null) {
+                context.resolution.reject(context.argsIndex, value, name);
+                return FAILURE;
+            }
+            context.argsIndex++;
+            return result;
+        }
+    }
+
+    /**
+     * Store element in an array, without reflection for arrays of objects.
+     * @param array array
+     * @param index element index
+     * @param element element to store
+     */
+    private static void set(Object array, int index, Object element) {
+        if (array instanceof Object[]) {
+            ((Object[]) array)[index] = element;
+        } else {
+            Array.set(array, index, element);
+        }
+    }
+
+    /**
+     * Copy the beginning of an array.
+     * @param array array to copy
+     * @param length number of elements to copy
+     * @return copy of the array
+     */
+    private static Object copyOf(Object array, int length) {
+        if (array instanceof Object[]) {
+            return Arrays.copyOf((Object[]) array, length);
+        }
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Converter of string arguments to parameter type. Type adapters are resolved on first use, since they may be
+     * lazily initialized managed objects. Adapter results are remembered for the duration of a dispatch, keyed by
+     * the adapter class, or by expected type for default adapters.
+     */
+    private static final class ArgumentConverter {
+        /**
+         * Expected type.
+         */
+        private final Class<?> expectedType;
+
+        /**
+         * Adapter annotation, {@code null} if the default adapter of expected type is used.
+         */
+        private final Adapter adapterAnnotation;
+
+        /**
+         * Dependency injection context.
+         */
+        private final WitchCraftContext witchCraftContext;
+
+        /**
+         * Default type adapters.
+         */
+        private final DefaultAdapters defaultAdapters;
+
+        /**
+         * Conversion target identifying equivalent conversions within a dispatch.
+         */
+        private final Object target;
+
+        /**
+         * Resolved type adapter, {@code null} until first use.
+         */
+        private volatile TypeAdapter typeAdapter;
+
+        /**
+         * Constructor.
+         * @param expectedType expected type
+         * @param adapterAnnotation adapter annotation
+         * @param witchCraftContext dependency injection context
+         * @param defaultAdapters default type adapters
+         */
+        private ArgumentConverter(Class<?> expectedType, Adapter adapterAnnotation,
+                                  WitchCraftContext witchCraftContext, DefaultAdapters defaultAdapters) {
+            this.expectedType = expectedType;
+            this.adapterAnnotation = adapterAnnotation;
+            this.witchCraftContext = witchCraftContext;
+            this.defaultAdapters = defaultAdapters;
+            this.target = adapterAnnotation == null ? expectedType : adapterAnnotation.value();
+        }
+
+        /**
+         * Check if the converter uses a type adapter.
+         * @return {@code false} if arguments are passed as strings
+         */
+        private boolean isTyped() {
+            return !expectedType.isAssignableFrom(String.class);
+        }
+
+        /**
+         * Convert argument to expected type.
+         * @param value argument
+         * @param resolution state of the current dispatch
+         * @return converted value, {@code null} if it cannot be converted
+         */
+        private Object convert(String value, Resolution resolution) {
+            if (!isTyped()) {
+                return value;
+            }
+            Object result = resolution.lookup(value, target);
+            if (result == null) {
+                result = adapt(value);
+                resolution.remember(value, target, result);
+            } else if (Resolution.isRejected(result)) {
+                result = null;
+            }
+            if (adapterAnnotation != null && result != null && !Primitives.wrap(expectedType).isInstance(result)) {
+                return null;
+            }
+            return result;
+        }
+
+        /**
+         * Convert argument using type adapter.
+         * @param value argument
+         * @return adapter result, {@code null} if the argument cannot be converted or there is no adapter
+         */
+        private Object adapt(String value) {
+            TypeAdapter adapter = typeAdapter;
+            if (adapter == null) {
+                adapter = adapterAnnotation == null ? defaultAdapters.get(expectedType) :
+                        witchCraftContext.get(adapterAnnotation.value());
+                if (adapter == null) {
+                    return null;
+                }
+                typeAdapter = adapter;
+            }
+            return adapter.convert(value);
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.ivan1pl.witchcraft.commands.base;
 
-import com.google.common.primitives.Primitives;
 import com.ivan1pl.witchcraft.commands.adapters.DefaultAdapters;
 import com.ivan1pl.witchcraft.commands.annotations.*;
-import com.ivan1pl.witchcraft.commands.annotations.Optional;
 import com.ivan1pl.witchcraft.commands.completers.DefaultCompleters;
 import com.ivan1pl.witchcraft.commands.exceptions.CommandAlreadyExistsException;
 import com.ivan1pl.witchcraft.context.WitchCraftContext;
@@ -14,11 +12,11 @@ import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -30,10 +28,15 @@ class CommandHolder {
     private final String commandName;
     private final String commandDescription;
     private final Object commandObject;
+    private final Command command;
     private final DefaultAdapters defaultAdapters;
     private final DefaultCompleters defaultCompleters;
     private final WitchCraftContext witchCraftContext;
+    private final CompletableFuture<Void> readiness;
+    private final AsyncCommandRunner asyncCommandRunner;
     private final Map<String, MethodHolder> subcommands = new HashMap<>();
+    private final String commandPermission;
+    private final DispatchNode dispatchRoot;
 
     /**
      * Create new instance.
@@ -53,14 +56,20 @@ class CommandHolder {
         this.commandName = commandName;
         this.commandDescription = commandDescription;
         this.commandObject = witchCraftContext.get(commandClass);
+        this.command = commandClass.getAnnotation(Command.class);
         this.defaultAdapters = witchCraftContext.get(DefaultAdapters.class);
         this.defaultCompleters = witchCraftContext.get(DefaultCompleters.class);
         this.witchCraftContext = witchCraftContext;
+        this.readiness = witchCraftContext.getReadiness(commandClass);
+        this.asyncCommandRunner = witchCraftContext.get(AsyncCommandRunner.class);
+        this.commandPermission = command == null || command.permission().isEmpty() ? null : command.permission();
         initSubcommands(commandClass);
+        this.dispatchRoot = DispatchNode.compile(subcommands);
     }
 
     /**
-     * Scan command class for methods annotated with {@link SubCommand} annotation.
+     * Scan command class for methods annotated with {@link SubCommand} annotation. Subcommand names may consist of
+     * several words separated by spaces, which creates nested subcommands.
      * @param commandClass command class
      * @throws CommandAlreadyExistsException when there are two subcommands with the same name
      * @throws NoSuchMethodException when an object is actually a malformed proxy which does not contain a method from
@@ -70,60 +79,94 @@ class CommandHolder {
         for (Method m : commandClass.getMethods()) {
             SubCommand subCommand = m.getAnnotation(SubCommand.class);
             if (subCommand != null) {
-                javaPlugin.getLogger().info(String.format("Processing subcommand: %s", subCommand.value()));
-                MethodHolder methodHolder = subcommands.get(subCommand.value());
+                String subCommandName = String.join(" ", DispatchNode.split(subCommand.value()));
+                javaPlugin.getLogger().info(String.format("Processing subcommand: %s", subCommandName));
+                MethodHolder methodHolder = subcommands.get(subCommandName);
                 if (methodHolder != null) {
                     throw new CommandAlreadyExistsException(String.format(
-                            "Subcommand \"%s\" already exists within command %s", subCommand.value(), commandName));
+                            "Subcommand \"%s\" already exists within command %s", subCommandName, commandName));
                 }
-                subcommands.put(subCommand.value(), new MethodHolder(
-                        commandObject.getClass().getMethod(m.getName(), m.getParameterTypes()), m));
-                javaPlugin.getLogger().info(String.format("Registered subcommand: %s", subCommand.value()));
+                subcommands.put(subCommandName, new MethodHolder(
+                        commandObject.getClass().getMethod(m.getName(), m.getParameterTypes()), m,
+                        BindingPlan.compile(m, witchCraftContext.getConfiguration(), witchCraftContext,
+                                defaultAdapters)));
+                javaPlugin.getLogger().info(String.format("Registered subcommand: %s", subCommandName));
             }
         }
         if (!subcommands.containsKey("help")) {
-            subcommands.put("help", new MethodHolder(null, null));
+            subcommands.put("help", new MethodHolder(null, null, null));
         }
     }
 
     /**
-     * Try to execute a command.
+     * Try to execute a command. Arguments are matched against the dispatch trie as deep as possible, then subcommands
+     * found along the matched path are ranked and tried until one of them accepts the arguments. Subcommands whose
+     * positional parameters match the number of arguments exactly are tried first, then the remaining ones; within
+     * each group, more specific subcommands are tried before less specific ones. Subcommands that the sender is not
+     * allowed to execute, or that require more arguments than given, are not tried at all. All attempts share
+     * argument conversions, so each argument is converted to each type at most once.
      * @param commandSender command sender
      * @param args command arguments
      * @return {@code true} if matching method found, {@code false} otherwise
      */
     boolean match(CommandSender commandSender, String[] args) {
-        String first = args.length == 0 ? null : args[0];
         ExecutionStatus executionStatus = null;
-        Command command =
-                commandObject.getClass().getAnnotation(Command.class);
-        if (command != null && !command.permission().isEmpty()) {
-            if (!commandSender.hasPermission(command.permission())) {
-                executionStatus = ExecutionStatus.INSUFFICIENT_PERMISSION;
-            }
+        Resolution resolution = new Resolution();
+        if (commandPermission != null && !commandSender.hasPermission(commandPermission)) {
+            executionStatus = ExecutionStatus.INSUFFICIENT_PERMISSION;
         }
         if (executionStatus == null) {
-            for (String subCommandName : subcommands.keySet()) {
-                int argsIndex = subCommandName.isEmpty() ? 0 : 1;
-                if (subCommandName.equals(first) || subCommandName.isEmpty()) {
-                    if ("help".equalsIgnoreCase(first) && subcommands.get("help").getOriginalMethod() == null) {
-                        Help.help(commandSender, commandName, commandDescription, args.length > 1 ? args[1] : null,
-                                args.length > 2 ? args[2] : null, subcommands);
+            DispatchNode[] path = dispatchRoot.walk(args, args.length);
+            DispatchNode[] candidates = new DispatchNode[path.length];
+            int[] ranks = new int[path.length];
+            int candidateCount = 0;
+            for (int depth = path.length - 1; depth >= 0; --depth) {
+                MethodHolder handler = path[depth].getHandler();
+                if (handler == null) {
+                    continue;
+                }
+                if (handler.getOriginalMethod() == null) {
+                    help(commandSender, args);
+                    return true;
+                }
+                if (handler.getPermission() != null && !commandSender.hasPermission(handler.getPermission())) {
+                    executionStatus = ExecutionStatus.max(executionStatus, ExecutionStatus.CANNOT_EXECUTE);
+                    continue;
+                }
+                int rank = handler.getBindingPlan().rankArity(args.length - depth);
+                if (rank == 0) {
+                    executionStatus = ExecutionStatus.max(executionStatus, ExecutionStatus.FAILURE);
+                    continue;
+                }
+                candidates[candidateCount] = path[depth];
+                ranks[candidateCount++] = rank;
+            }
+            if (candidateCount > 0 && !readiness.isDone()) {
+                commandSender.sendMessage(new MessageBuilder()
+                        .color(ChatColor.YELLOW)
+                        .append("This command is warming up, please try again in a moment")
+                        .resetColor()
+                        .build());
+                return true;
+            }
+            for (int rank = 2; rank > 0; --rank) {
+                for (int i = 0; i < candidateCount; ++i) {
+                    if (ranks[i] != rank) {
+                        continue;
+                    }
+                    executionStatus = readiness.isCompletedExceptionally() ? ExecutionStatus.ERROR :
+                            ExecutionStatus.max(executionStatus, match(candidates[i].getHandler(), commandSender,
+                                    args, candidates[i].getDepth(), resolution));
+                    if (executionStatus == ExecutionStatus.ERROR) {
+                        commandSender.sendMessage(new MessageBuilder()
+                                .color(ChatColor.DARK_RED)
+                                .append("Internal server error")
+                                .resetColor()
+                                .build());
+                    }
+                    if (executionStatus == ExecutionStatus.SUCCESS ||
+                            executionStatus == ExecutionStatus.ERROR) {
                         return true;
-                    } else {
-                        executionStatus = ExecutionStatus.max(executionStatus,
-                                match(subcommands.get(subCommandName), commandSender, args, argsIndex));
-                        if (executionStatus == ExecutionStatus.ERROR) {
-                            commandSender.sendMessage(new MessageBuilder()
-                                    .color(ChatColor.DARK_RED)
-                                    .append("Internal server error")
-                                    .resetColor()
-                                    .build());
-                        }
-                        if (executionStatus == ExecutionStatus.SUCCESS ||
-                                executionStatus == ExecutionStatus.ERROR) {
-                            return true;
-                        }
                     }
                 }
             }
@@ -144,199 +187,133 @@ class CommandHolder {
                     .build());
             return true;
         }
+        if (resolution.hasRejection()) {
+            commandSender.sendMessage(new MessageBuilder()
+                    .color(ChatColor.RED)
+                    .append("Invalid value '").append(resolution.getRejectedToken())
+                    .append("' of parameter ").append(resolution.getRejectedParameter())
+                    .resetColor()
+                    .build());
+        }
         Help.help(commandSender, commandName, commandDescription, null, null, subcommands);
         return true;
     }
 
+    /**
+     * Display default help message. Arguments following {@code help} are the subcommand path, optionally followed by
+     * a page number.
+     * @param commandSender command sender
+     * @param args command arguments
+     */
+    private void help(CommandSender commandSender, String[] args) {
+        String firstArg = null;
+        String secondArg = null;
+        if (args.length > 2 && isNumber(args[args.length - 1])) {
+            firstArg = String.join(" ", Arrays.copyOfRange(args, 1, args.length - 1));
+            secondArg = args[args.length - 1];
+        } else if (args.length > 1) {
+            firstArg = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        }
+        Help.help(commandSender, commandName, commandDescription, firstArg, secondArg, subcommands);
+    }
+
+    /**
+     * Check if given string is an integer.
+     * @param value string to check
+     * @return {@code true} if the string is an integer, {@code false} otherwise
+     */
+    private static boolean isNumber(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Try to execute specific method with given arguments.
      * @param m method to execute
      * @param commandSender command sender
      * @param args command arguments
      * @param argsIndex index of the first parameter
+     * @param resolution state of the current dispatch
      * @return {@code true} if arguments match with method parameters, {@code false} otherwise
      */
-    private ExecutionStatus match(MethodHolder m, CommandSender commandSender, String[] args, int argsIndex) {
-        Object[] params = new Object[m.getOriginalMethod().getParameterCount()];
-        Parameter[] methodParameters = m.getOriginalMethod().getParameters();
-        SubCommand subCommand = m.getOriginalMethod().getAnnotation(SubCommand.class);
-        if (subCommand != null && !subCommand.permission().isEmpty()) {
-            if (!commandSender.hasPermission(subCommand.permission())) {
-                return ExecutionStatus.CANNOT_EXECUTE;
-            }
-        }
-        OptionValues optionValues = new OptionValues();
-        boolean optionsSupported = false;
-        for (Parameter parameter : methodParameters) {
-            Option option = parameter.getAnnotation(Option.class);
-            if (option != null) {
-                optionValues.addOption(option, parameter.getType());
-                optionsSupported = true;
-            }
+    private ExecutionStatus match(MethodHolder m, CommandSender commandSender, String[] args, int argsIndex,
+                                  Resolution resolution) {
+        BindingPlan bindingPlan = m.getBindingPlan();
+        Object[] params = new Object[bindingPlan.getParameterCount()];
+        ExecutionStatus bindingStatus = bindingPlan.bind(commandSender, args, argsIndex, resolution, params);
+        if (bindingStatus != ExecutionStatus.SUCCESS) {
+            return bindingStatus;
         }
-        if (optionsSupported) {
-            while (argsIndex < args.length && args[argsIndex].startsWith("-")) {
-                List<OptionValue> optionValueList = new LinkedList<>();
-                if (args[argsIndex].startsWith("--")) {
-                    String longName = args[argsIndex].substring(2);
-                    OptionValue optionValue = optionValues.getOption(longName);
-                    if (optionValue != null) {
-                        optionValueList.add(optionValue);
-                    } else {
-                        return ExecutionStatus.FAILURE;
-                    }
-                } else {
-                    String shortNames = args[argsIndex].substring(1);
-                    char[] chars = shortNames.toCharArray();
-                    for (char c : chars) {
-                        OptionValue optionValue = optionValues.getOption(c);
-                        if (optionValue != null) {
-                            optionValueList.add(optionValue);
-                        } else {
-                            return ExecutionStatus.FAILURE;
-                        }
-                    }
-                }
-                boolean paramsEnabled = optionValueList.size() == 1;
-                for (OptionValue optionValue : optionValueList) {
-                    if (optionValue.isHasParameter() && !paramsEnabled) {
-                        return ExecutionStatus.FAILURE;
-                    }
-                    if (optionValue.isHasParameter()) {
-                        if (++argsIndex >= args.length) {
-                            return ExecutionStatus.FAILURE;
-                        }
-                        optionValue.addValue(args[argsIndex]);
-                    } else {
-                        optionValue.addValue("true");
-                    }
-                }
-                argsIndex++;
-            }
+        String missingPrimitive = bindingPlan.findMissingPrimitive(params);
+        if (missingPrimitive != null) {
+            javaPlugin.getLogger().severe(String.format("An exception occured while executing subcommand " +
+                    "method\nMissing value of primitive parameter %s", missingPrimitive));
+            return ExecutionStatus.ERROR;
         }
-        for (int i = 0; i < methodParameters.length; ++i) {
-            Parameter parameter = methodParameters[i];
-
-            if (parameter.getAnnotation(Sender.class) != null) {
-                if (parameter.getType().isAssignableFrom(commandSender.getClass())) {
-                    params[i] = commandSender;
-                } else {
-                    return ExecutionStatus.CANNOT_EXECUTE;
-                }
-            } else if (parameter.getAnnotation(Option.class) != null) {
-                params[i] = getOptionValue(parameter.getAnnotation(Option.class), parameter.getType(), optionValues,
-                        parameter.getAnnotation(Adapter.class));
-            } else {
-                ConfigurationValue configurationValue = parameter.getAnnotation(ConfigurationValue.class);
-                if (configurationValue != null) {
-                    params[i] = javaPlugin.getConfig().getObject(
-                            configurationValue.value(), Primitives.wrap(parameter.getType()), null);
-                } else if (i == methodParameters.length - 1 && parameter.getType().isArray()) {
-                    List<String> values = new LinkedList<>();
-                    while (argsIndex < args.length) {
-                        values.add(args[argsIndex++]);
-                    }
-                    Class<?> elementType = parameter.getType().getComponentType();
-                    Object array = Array.newInstance(elementType, values.size());
-                    int index = 0;
-                    for (String value : values) {
-                        Object valueToSet = assignValue(
-                                value, elementType, parameter.getAnnotation(Adapter.class));
-                        if (valueToSet == null) {
-                            return ExecutionStatus.FAILURE;
-                        } else {
-                            Array.set(array, index++, valueToSet);
-                        }
-                    }
-                    params[i] = array;
-                } else {
-                    String value;
-                    if (argsIndex < args.length) {
-                        value = args[argsIndex];
-                    } else {
-                        Optional optional = parameter.getAnnotation(Optional.class);
-                        if (optional != null) {
-                            value = optional.value();
-                        } else {
-                            return ExecutionStatus.FAILURE;
-                        }
-                    }
-                    Object valueToSet = assignValue(
-                            value, parameter.getType(), parameter.getAnnotation(Adapter.class));
-                    if (valueToSet == null) {
-                        return ExecutionStatus.FAILURE;
-                    } else {
-                        params[i] = valueToSet;
-                    }
-                    argsIndex++;
-                }
-            }
+        if (m.isAsync()) {
+            return executeAsync(m, commandSender, params);
         }
         try {
-            m.getProxyMethod().invoke(commandObject, params);
+            m.getInvoker().invoke(commandObject, params);
             return ExecutionStatus.SUCCESS;
-        } catch (IllegalAccessException | InvocationTargetException e) {
+        } catch (Throwable t) {
             javaPlugin.getLogger().severe(
-                    "Failed to execute subcommand method\n" + ExceptionUtils.getFullStackTrace(e));
+                    "Failed to execute subcommand method\n" + ExceptionUtils.getFullStackTrace(t));
             return ExecutionStatus.FAILURE;
-        } catch (Exception e) {
-            javaPlugin.getLogger().severe("An exception occured while executing subcommand method\n" +
-                    ExceptionUtils.getFullStackTrace(e));
-            return ExecutionStatus.ERROR;
         }
     }
 
     /**
-     * Get option's value.
-     * @param option option definition
-     * @param expectedType expected type
-     * @param optionValues option values
-     * @param adapter type adapter
-     * @return option value
+     * Submit subcommand for asynchronous execution. Command senders among the parameters are replaced with proxies
+     * which execute their methods on the main thread.
+     * @param m method to execute
+     * @param commandSender command sender
+     * @param params bound method parameters
+     * @return {@link ExecutionStatus#SUCCESS}, since the subcommand has been either submitted or rejected with a
+     *         message to the sender
      */
-    private Object getOptionValue(Option option, Class<?> expectedType, OptionValues optionValues, Adapter adapter) {
-        if (expectedType.isArray()) {
-            List<Object> elements = new LinkedList<>();
-            Object element;
-            while ((element = getOptionValue(option, expectedType.getComponentType(), optionValues, adapter)) != null) {
-                elements.add(element);
+    private ExecutionStatus executeAsync(MethodHolder m, CommandSender commandSender, Object[] params) {
+        CommandSender mainThreadSender = MainThreadSender.wrap(javaPlugin, commandSender);
+        for (int i = 0; i < params.length; ++i) {
+            if (params[i] == commandSender) {
+                params[i] = mainThreadSender;
+            } else if (params[i] instanceof CommandSender) {
+                params[i] = MainThreadSender.wrap(javaPlugin, (CommandSender) params[i]);
             }
-            Object array = Array.newInstance(expectedType.getComponentType(), elements.size());
-            int i = 0;
-            for (Object object : elements) {
-                Array.set(array, i++, object);
-            }
-            return array;
-        } else {
-            OptionValue optionValue = optionValues.getOption(option);
-            String stringValue = optionValue == null ? null : optionValue.getValue();
-            Object retval = stringValue == null ? null : assignValue(stringValue, expectedType, adapter);
-            return optionValue != null && !optionValue.isHasParameter() && retval == null ? false : retval;
         }
-    }
-
-    /**
-     * Get parameter value from string.
-     * @param stringValue string value
-     * @param expectedType expected type
-     * @param adapter type adapter annotation
-     * @return computed parameter value
-     */
-    private Object assignValue(String stringValue, Class<?> expectedType, Adapter adapter) {
-        if (expectedType.isAssignableFrom(stringValue.getClass())) {
-            return stringValue;
-        } else if (adapter != null) {
-            TypeAdapter typeAdapter = witchCraftContext.get(adapter.value());
-            Object value = typeAdapter.convert(stringValue);
-            if (value != null && expectedType.isAssignableFrom(value.getClass())) {
-                return value;
-            } else {
-                return null;
+        CompletableFuture<Object> result = asyncCommandRunner.submit(commandSender, () -> {
+            try {
+                return m.getInvoker().invoke(commandObject, params);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new ExecutionException(t);
             }
+        });
+        if (result == null) {
+            commandSender.sendMessage(new MessageBuilder()
+                    .color(ChatColor.YELLOW)
+                    .append("The server is busy, please try again in a moment")
+                    .resetColor()
+                    .build());
         } else {
-            TypeAdapter typeAdapter = defaultAdapters.get(expectedType);
-            return typeAdapter == null ? null : typeAdapter.convert(stringValue);
+            result.whenComplete((value, t) -> {
+                if (t != null) {
+                    javaPlugin.getLogger().severe(
+                            "Failed to execute subcommand method\n" + ExceptionUtils.getFullStackTrace(t));
+                    mainThreadSender.sendMessage(new MessageBuilder()
+                            .color(ChatColor.DARK_RED)
+                            .append("Internal server error")
+                            .resetColor()
+                            .build());
+                }
+            });
         }
+        return ExecutionStatus.SUCCESS;
     }
 
     /**
@@ -346,59 +323,62 @@ class CommandHolder {
      * @return set of tab complete suggestions
      */
     Set<String> getTabCompletions(CommandSender commandSender, String[] args) {
-        String first = args.length == 0 ? null : args[0];
         Set<String> suggestions = new HashSet<>();
-        for (String subCommandName : subcommands.keySet()) {
-            int argsIndex = subCommandName.isEmpty() ? 0 : 1;
-            if (subCommandName.equals(first) && args.length > 1 || subCommandName.isEmpty()) {
-                if ("help".equalsIgnoreCase(first) && subcommands.get("help") == null && args.length == 2) {
-                    for (Map.Entry<String, MethodHolder> methodEntry : subcommands.entrySet()) {
-                        if (methodEntry.getKey().startsWith(args[1]) && !methodEntry.getKey().isEmpty()) {
-                            Method m = methodEntry.getValue().getOriginalMethod();
-                            SubCommand subCommand = m == null ? null : m.getAnnotation(SubCommand.class);
-                            if (subCommand == null || subCommand.permission().isEmpty() ||
-                                    commandSender.hasPermission(subCommand.permission())) {
-                                suggestions.add(methodEntry.getKey());
-                            }
-                        }
-                    }
-                } else {
-                    suggestions.addAll(getTabCompletions(commandSender,
-                            subcommands.get(subCommandName).getOriginalMethod(), args, argsIndex));
-                }
-            } else if (args.length == 1 && subCommandName.toLowerCase().startsWith(args[0].toLowerCase())) {
-                Method m = subcommands.get(subCommandName).getOriginalMethod();
-                if ("help".equals(subCommandName) && m == null) {
-                    suggestions.add("help");
-                } else {
-                    SubCommand subCommand = m.getAnnotation(SubCommand.class);
-                    if (subCommand == null || subCommand.permission().isEmpty() ||
-                            commandSender.hasPermission(subCommand.permission())) {
-                        suggestions.add(subCommandName);
-                    }
-                }
+        if (args.length == 0) {
+            return suggestions;
+        }
+        DispatchNode[] path = dispatchRoot.walk(args, args.length - 1);
+        if (path.length > 1 && path[1].getHandler() != null && path[1].getHandler().getOriginalMethod() == null) {
+            String[] helpArgs = Arrays.copyOfRange(args, 1, args.length);
+            addSubcommandCompletions(commandSender, dispatchRoot.walk(helpArgs, helpArgs.length - 1), helpArgs,
+                    suggestions);
+            return suggestions;
+        }
+        addSubcommandCompletions(commandSender, path, args, suggestions);
+        for (DispatchNode node : path) {
+            if (node.getHandler() != null) {
+                suggestions.addAll(getTabCompletions(commandSender, node.getHandler(), args, node.getDepth()));
             }
         }
         return suggestions;
     }
 
+    /**
+     * Add names of subcommands matching the last argument to tab complete suggestions.
+     * @param commandSender command sender
+     * @param path dispatch trie nodes matched by the preceding arguments
+     * @param args command arguments
+     * @param suggestions tab complete suggestions
+     */
+    private void addSubcommandCompletions(CommandSender commandSender, DispatchNode[] path, String[] args,
+                                          Set<String> suggestions) {
+        if (path.length != args.length) {
+            return;
+        }
+        String prefix = args[args.length - 1].toLowerCase();
+        for (DispatchNode child : path[path.length - 1].getChildren()) {
+            if (child.getName().toLowerCase().startsWith(prefix) && child.isVisibleTo(commandSender)) {
+                suggestions.add(child.getName());
+            }
+        }
+    }
+
     /**
      * Get tab completions for a method with given arguments.
      * @param commandSender command sender
-     * @param m method to check
+     * @param methodHolder subcommand to check
      * @param args command arguments
      * @param argsIndex index of the first parameter
      * @return set of tab complete suggestions
      */
-    private Set<String> getTabCompletions(CommandSender commandSender, Method m, String[] args, int argsIndex) {
+    private Set<String> getTabCompletions(CommandSender commandSender, MethodHolder methodHolder, String[] args,
+                                          int argsIndex) {
+        Method m = methodHolder.getOriginalMethod();
         if (m == null) {
             return new HashSet<>();
         }
-        SubCommand subCommand = m.getAnnotation(SubCommand.class);
-        if (subCommand != null && !subCommand.permission().isEmpty()) {
-            if (!commandSender.hasPermission(subCommand.permission())) {
-                return new HashSet<>();
-            }
+        if (methodHolder.getPermission() != null && !commandSender.hasPermission(methodHolder.getPermission())) {
+            return new HashSet<>();
         }
         Parameter[] methodParameters = m.getParameters();
         OptionValues optionValues = new OptionValues();
@@ -488,7 +468,7 @@ class CommandHolder {
     /**
      * Command execution status.
      */
-    private enum ExecutionStatus {
+    enum ExecutionStatus {
         /**
          * Failed to match any command.
          */
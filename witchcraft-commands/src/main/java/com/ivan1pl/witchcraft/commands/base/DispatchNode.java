@@ -0,0 +1,180 @@
+package com.ivan1pl.witchcraft.commands.base;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.*;
+
+/**
+ * Immutable node of the subcommand dispatch trie. Each node corresponds to one word of a subcommand path (e.g.
+ * {@code account} and {@code set} in {@code /eco account set}); the root node corresponds to the command itself.
+ * A node holds the subcommand registered at its path, if any, and its child nodes by name.
+ */
+final class DispatchNode {
+    /**
+     * Full subcommand path of this node, empty for the root node.
+     */
+    private final String path;
+
+    /**
+     * Number of words in the path of this node.
+     */
+    private final int depth;
+
+    /**
+     * Subcommand registered at the path of this node, {@code null} if there is none.
+     */
+    private final MethodHolder handler;
+
+    /**
+     * Child nodes by name.
+     */
+    private final Map<String, DispatchNode> children;
+
+    /**
+     * Constructor.
+     * @param path full subcommand path
+     * @param depth number of words in the path
+     * @param handler subcommand registered at the path
+     * @param children child nodes by name
+     */
+    private DispatchNode(String path, int depth, MethodHolder handler, Map<String, DispatchNode> children) {
+        this.path = path;
+        this.depth = depth;
+        this.handler = handler;
+        this.children = children;
+    }
+
+    /**
+     * Build dispatch trie.
+     * @param subcommands subcommands by path, with path words separated by spaces
+     * @return root node
+     */
+    static DispatchNode compile(Map<String, MethodHolder> subcommands) {
+        Map<List<String>, MethodHolder> handlers = new HashMap<>();
+        for (Map.Entry<String, MethodHolder> entry : subcommands.entrySet()) {
+            handlers.put(split(entry.getKey()), entry.getValue());
+        }
+        return compile(Collections.emptyList(), handlers);
+    }
+
+    /**
+     * Build dispatch trie node.
+     * @param path path words of the node
+     * @param handlers subcommands by path words
+     * @return node
+     */
+    private static DispatchNode compile(List<String> path, Map<List<String>, MethodHolder> handlers) {
+        Set<String> childNames = new TreeSet<>();
+        for (List<String> handlerPath : handlers.keySet()) {
+            if (handlerPath.size() > path.size() && handlerPath.subList(0, path.size()).equals(path)) {
+                childNames.add(handlerPath.get(path.size()));
+            }
+        }
+        Map<String, DispatchNode> children = new HashMap<>();
+        for (String childName : childNames) {
+            List<String> childPath = new ArrayList<>(path);
+            childPath.add(childName);
+            children.put(childName, compile(childPath, handlers));
+        }
+        return new DispatchNode(String.join(" ", path), path.size(), handlers.get(path),
+                Collections.unmodifiableMap(children));
+    }
+
+    /**
+     * Split subcommand path into words.
+     * @param path subcommand path
+     * @return path words
+     */
+    static List<String> split(String path) {
+        String trimmed = path.trim();
+        return trimmed.isEmpty() ? Collections.emptyList() : Arrays.asList(trimmed.split("\\s+"));
+    }
+
+    /**
+     * Get full subcommand path of this node.
+     * @return subcommand path, empty for the root node
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Get number of words in the path of this node.
+     * @return node depth
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get subcommand registered at the path of this node.
+     * @return subcommand, {@code null} if there is none
+     */
+    MethodHolder getHandler() {
+        return handler;
+    }
+
+    /**
+     * Get child node with given name.
+     * @param name child name
+     * @return child node, {@code null} if there is none
+     */
+    DispatchNode getChild(String name) {
+        return children.get(name);
+    }
+
+    /**
+     * Follow the dispatch trie from this node along command arguments.
+     * @param args command arguments
+     * @param limit maximum number of arguments to follow
+     * @return matched nodes, starting with this node; the node at index {@code i} is reached after {@code i}
+     *         arguments
+     */
+    DispatchNode[] walk(String[] args, int limit) {
+        DispatchNode node = this;
+        int matched = 0;
+        DispatchNode[] path = new DispatchNode[limit + 1];
+        path[0] = node;
+        while (matched < limit && (node = node.getChild(args[matched])) != null) {
+            path[++matched] = node;
+        }
+        return matched == limit ? path : Arrays.copyOf(path, matched + 1);
+    }
+
+    /**
+     * Get all child nodes.
+     * @return child nodes
+     */
+    Collection<DispatchNode> getChildren() {
+        return children.values();
+    }
+
+    /**
+     * Get the name of this node, which is the last word of its path.
+     * @return node name, empty for the root node
+     */
+    String getName() {
+        return path.substring(path.lastIndexOf(' ') + 1);
+    }
+
+    /**
+     * Check if given sender is allowed to execute the subcommand registered at the path of this node or any of its
+     * descendants.
+     * @param commandSender command sender
+     * @return {@code true} if the sender is allowed to execute any subcommand at or below this node
+     */
+    boolean isVisibleTo(CommandSender commandSender) {
+        if (handler != null) {
+            String permission = handler.getPermission();
+            if (permission == null || commandSender.hasPermission(permission)) {
+                return true;
+            }
+        }
+        for (DispatchNode child : children.values()) {
+            if (child.isVisibleTo(commandSender)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
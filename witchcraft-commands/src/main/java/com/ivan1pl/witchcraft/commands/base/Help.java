@@ -43,9 +43,8 @@ class Help {
             if (m == null) {
                 availableSubcommands.put(methodEntry.getKey(), null);
             } else {
-                SubCommand subCommand = m.getAnnotation(SubCommand.class);
-                if (subCommand == null || subCommand.permission().isEmpty() ||
-                        commandSender.hasPermission(subCommand.permission())) {
+                String permission = methodEntry.getValue().getPermission();
+                if (permission == null || commandSender.hasPermission(permission)) {
                     availableSubcommands.put(methodEntry.getKey(), m);
                 }
             }
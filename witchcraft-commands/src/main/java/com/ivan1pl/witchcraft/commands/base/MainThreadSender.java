@@ -0,0 +1,121 @@
+package com.ivan1pl.witchcraft.commands.base;
+
+import org.apache.commons.lang.ClassUtils;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Invocation handler of command sender proxies passed to asynchronous subcommands. Calls made on the main thread are
+ * forwarded directly. Calls made on other threads are executed on the main thread: methods returning {@code void}
+ * (e.g. {@code sendMessage}) are scheduled without waiting, other methods wait for their result.
+ */
+final class MainThreadSender implements InvocationHandler {
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
+    /**
+     * Wrapped command sender.
+     */
+    private final CommandSender commandSender;
+
+    /**
+     * Constructor.
+     * @param javaPlugin plugin instance
+     * @param commandSender wrapped command sender
+     */
+    private MainThreadSender(JavaPlugin javaPlugin, CommandSender commandSender) {
+        this.javaPlugin = javaPlugin;
+        this.commandSender = commandSender;
+    }
+
+    /**
+     * Create proxy of given command sender, implementing all its public interfaces.
+     * @param javaPlugin plugin instance
+     * @param commandSender command sender to wrap
+     * @return command sender proxy
+     */
+    @SuppressWarnings("unchecked")
+    static CommandSender wrap(JavaPlugin javaPlugin, CommandSender commandSender) {
+        if (Proxy.isProxyClass(commandSender.getClass()) &&
+                Proxy.getInvocationHandler(commandSender) instanceof MainThreadSender) {
+            return commandSender;
+        }
+        List<Class<?>> interfaces = ClassUtils.getAllInterfaces(commandSender.getClass());
+        interfaces.removeIf(i -> !Modifier.isPublic(i.getModifiers()));
+        return (CommandSender) Proxy.newProxyInstance(commandSender.getClass().getClassLoader(),
+                interfaces.toArray(new Class<?>[0]), new MainThreadSender(javaPlugin, commandSender));
+    }
+
+    /**
+     * Forward call to the wrapped command sender, on the main thread.
+     * @param proxy proxy instance
+     * @param method invoked method
+     * @param args method arguments
+     * @return method result
+     * @throws Throwable when the method throws an exception
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            if ("equals".equals(method.getName())) {
+                Object other = args[0];
+                if (other != null && Proxy.isProxyClass(other.getClass()) &&
+                        Proxy.getInvocationHandler(other) instanceof MainThreadSender) {
+                    other = ((MainThreadSender) Proxy.getInvocationHandler(other)).commandSender;
+                }
+                return commandSender.equals(other);
+            }
+            return invokeDirectly(method, args);
+        }
+        if (javaPlugin.getServer().isPrimaryThread()) {
+            return invokeDirectly(method, args);
+        }
+        if (method.getReturnType() == void.class) {
+            javaPlugin.getServer().getScheduler().runTask(javaPlugin, () -> {
+                try {
+                    invokeDirectly(method, args);
+                } catch (Throwable t) {
+                    javaPlugin.getLogger().warning(String.format("Failed to call %s on command sender %s: %s",
+                            method.getName(), commandSender.getName(), t));
+                }
+            });
+            return null;
+        }
+        try {
+            return javaPlugin.getServer().getScheduler().callSyncMethod(javaPlugin, () -> {
+                try {
+                    return invokeDirectly(method, args);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            }).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof InvocationTargetException ? e.getCause().getCause() : e.getCause();
+        }
+    }
+
+    /**
+     * Call method of the wrapped command sender on the current thread.
+     * @param method invoked method
+     * @param args method arguments
+     * @return method result
+     * @throws Throwable when the method throws an exception
+     */
+    private Object invokeDirectly(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(commandSender, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
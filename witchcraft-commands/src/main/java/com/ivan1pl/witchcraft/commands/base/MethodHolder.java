@@ -1,6 +1,11 @@
 package com.ivan1pl.witchcraft.commands.base;
 
+import com.ivan1pl.witchcraft.commands.annotations.SubCommand;
+import com.ivan1pl.witchcraft.context.invoke.MethodInvoker;
+import com.ivan1pl.witchcraft.context.invoke.MethodInvokerFactory;
+
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class used to hold subcommand methods and their proxy versions.
@@ -16,14 +21,41 @@ class MethodHolder {
      */
     private final Method originalMethod;
 
+    /**
+     * Invoker of the proxy method.
+     */
+    private final MethodInvoker invoker;
+
+    /**
+     * Plan of binding command arguments to method parameters, {@code null} for the default help subcommand.
+     */
+    private final BindingPlan bindingPlan;
+
+    /**
+     * Permission node required to execute the subcommand, {@code null} if no permission is required.
+     */
+    private final String permission;
+
+    /**
+     * Whether the subcommand is executed asynchronously.
+     */
+    private final boolean async;
+
     /**
      * Constructor.
      * @param proxyMethod proxy method
      * @param originalMethod original method
+     * @param bindingPlan plan of binding command arguments to method parameters
      */
-    MethodHolder(Method proxyMethod, Method originalMethod) {
+    MethodHolder(Method proxyMethod, Method originalMethod, BindingPlan bindingPlan) {
         this.proxyMethod = proxyMethod;
         this.originalMethod = originalMethod;
+        this.invoker = proxyMethod == null ? null : MethodInvokerFactory.create(proxyMethod);
+        this.bindingPlan = bindingPlan;
+        SubCommand subCommand = originalMethod == null ? null : originalMethod.getAnnotation(SubCommand.class);
+        this.permission = subCommand == null || subCommand.permission().isEmpty() ? null : subCommand.permission();
+        this.async = subCommand != null && (subCommand.async() ||
+                CompletableFuture.class.isAssignableFrom(originalMethod.getReturnType()));
     }
 
     /**
@@ -34,6 +66,39 @@ class MethodHolder {
         return proxyMethod;
     }
 
+    /**
+     * Get invoker of the proxy method.
+     * @return proxy method invoker
+     */
+    public MethodInvoker getInvoker() {
+        return invoker;
+    }
+
+    /**
+     * Get plan of binding command arguments to method parameters.
+     * @return binding plan, {@code null} for the default help subcommand
+     */
+    public BindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
+    /**
+     * Get permission node required to execute the subcommand.
+     * @return permission node, or {@code null} if no permission is required
+     */
+    public String getPermission() {
+        return permission;
+    }
+
+    /**
+     * Check if the subcommand is executed asynchronously, which is the case when it is marked with
+     * {@link SubCommand#async()} or returns {@link CompletableFuture}.
+     * @return whether the subcommand is executed asynchronously
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
     /**
      * Get original method.
      * @return original method
@@ -0,0 +1,297 @@
+package com.ivan1pl.witchcraft.commands.base;
+
+import com.ivan1pl.witchcraft.commands.annotations.Option;
+
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Options accepted by a subcommand method, compiled when the subcommand is registered. Each option is assigned a slot
+ * index, and option values passed to the command are stored in per-invocation {@link Values} indexed by slot.
+ */
+final class OptionSchema {
+    /**
+     * Number of characters for which short name slots are stored in an array.
+     */
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * Short names of options by slot, {@code '\0'} for options without short name.
+     */
+    private final char[] shortNames;
+
+    /**
+     * Long names of options by slot, empty for options without long name.
+     */
+    private final String[] longNames;
+
+    /**
+     * Whether options accept parameters, by slot.
+     */
+    private final boolean[] hasParameter;
+
+    /**
+     * Maximum number of values of options, by slot; 0 or less means there is no limit.
+     */
+    private final int[] maxValues;
+
+    /**
+     * Slots of options by ASCII short name, -1 for unused names.
+     */
+    private final int[] asciiSlots = new int[ASCII_SIZE];
+
+    /**
+     * Constructor.
+     * @param options options
+     * @param types option parameter types
+     */
+    private OptionSchema(List<Option> options, List<Class<?>> types) {
+        int size = options.size();
+        this.shortNames = new char[size];
+        this.longNames = new String[size];
+        this.hasParameter = new boolean[size];
+        this.maxValues = new int[size];
+        Arrays.fill(asciiSlots, -1);
+        for (int slot = 0; slot < size; ++slot) {
+            Option option = options.get(slot);
+            Class<?> type = types.get(slot);
+            if (Character.isLetterOrDigit(option.shortName())) {
+                if (slotOf(option.shortName()) >= 0) {
+                    throw new IllegalArgumentException(
+                            "Option: " + option.shortName() + " was already defined for this command");
+                }
+                shortNames[slot] = option.shortName();
+                if (option.shortName() < ASCII_SIZE) {
+                    asciiSlots[option.shortName()] = slot;
+                }
+            }
+            if (!option.longName().isEmpty() && slotOf(option.longName(), 0) >= 0) {
+                throw new IllegalArgumentException(
+                        "Option: " + option.longName() + " was already defined for this command");
+            }
+            longNames[slot] = option.longName();
+            hasParameter[slot] = type != Boolean.class && type != boolean.class;
+            maxValues[slot] = option.max();
+        }
+    }
+
+    /**
+     * Compile options of a subcommand method.
+     * @param parameters method parameters
+     * @return option schema, {@code null} if the method does not accept options
+     * @throws IllegalArgumentException when there are several options with the same name
+     */
+    static OptionSchema compile(Parameter[] parameters) {
+        List<Option> options = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        for (Parameter parameter : parameters) {
+            Option option = parameter.getAnnotation(Option.class);
+            if (option != null) {
+                options.add(option);
+                types.add(parameter.getType());
+            }
+        }
+        return options.isEmpty() ? null : new OptionSchema(options, types);
+    }
+
+    /**
+     * Get slot of given option.
+     * @param option option definition
+     * @return option slot, -1 if the option has neither short nor long name
+     */
+    int slotOf(Option option) {
+        if (Character.isLetterOrDigit(option.shortName())) {
+            return slotOf(option.shortName());
+        }
+        if (!option.longName().isEmpty()) {
+            return slotOf(option.longName(), 0);
+        }
+        return -1;
+    }
+
+    /**
+     * Check if the option in given slot accepts parameters.
+     * @param slot option slot
+     * @return whether the option accepts parameters
+     */
+    boolean hasParameter(int slot) {
+        return hasParameter[slot];
+    }
+
+    /**
+     * Create empty option values for a single invocation.
+     * @return option values
+     */
+    Values newValues() {
+        return new Values(shortNames.length);
+    }
+
+    /**
+     * Read options from command arguments, starting at given index, until the first argument that does not start
+     * with {@code -}.
+     * @param args command arguments
+     * @param argsIndex index of the first argument to read
+     * @param values option values to fill
+     * @return index of the first argument after the options, or -1 if the options are invalid
+     */
+    int parse(String[] args, int argsIndex, Values values) {
+        while (argsIndex < args.length && args[argsIndex].startsWith("-")) {
+            String arg = args[argsIndex];
+            if (arg.startsWith("--")) {
+                int slot = slotOf(arg, 2);
+                if (slot < 0) {
+                    return -1;
+                }
+                argsIndex = addValue(slot, args, argsIndex, values);
+                if (argsIndex < 0) {
+                    return -1;
+                }
+            } else {
+                boolean paramsEnabled = arg.length() == 2;
+                for (int i = 1; i < arg.length(); ++i) {
+                    int slot = slotOf(arg.charAt(i));
+                    if (slot < 0 || hasParameter[slot] && !paramsEnabled) {
+                        return -1;
+                    }
+                }
+                for (int i = 1; i < arg.length(); ++i) {
+                    argsIndex = addValue(slotOf(arg.charAt(i)), args, argsIndex, values);
+                    if (argsIndex < 0) {
+                        return -1;
+                    }
+                }
+            }
+            argsIndex++;
+        }
+        return argsIndex;
+    }
+
+    /**
+     * Add value of an option: the next argument for options accepting parameters, {@code "true"} for flags.
+     * @param slot option slot
+     * @param args command arguments
+     * @param argsIndex index of the argument containing option name
+     * @param values option values
+     * @return index of the last argument consumed by the option, or -1 if the value is missing or the option is used
+     *         too many times
+     */
+    private int addValue(int slot, String[] args, int argsIndex, Values values) {
+        String value;
+        if (hasParameter[slot]) {
+            if (++argsIndex >= args.length) {
+                return -1;
+            }
+            value = args[argsIndex];
+        } else {
+            value = "true";
+        }
+        return values.add(slot, value, maxValues[slot]) ? argsIndex : -1;
+    }
+
+    /**
+     * Get slot of the option with given short name.
+     * @param shortName short name
+     * @return option slot, -1 if there is no such option
+     */
+    private int slotOf(char shortName) {
+        if (shortName < ASCII_SIZE) {
+            return asciiSlots[shortName];
+        }
+        for (int slot = 0; slot < shortNames.length; ++slot) {
+            if (shortNames[slot] == shortName) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get slot of the option whose long name is the suffix of given string.
+     * @param name string containing long name
+     * @param offset index at which the long name starts
+     * @return option slot, -1 if there is no such option
+     */
+    private int slotOf(String name, int offset) {
+        for (int slot = 0; slot < longNames.length; ++slot) {
+            String longName = longNames[slot];
+            if (longName != null && !longName.isEmpty() && name.length() - offset == longName.length() &&
+                    name.startsWith(longName, offset)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Option values passed in a single invocation.
+     */
+    static final class Values {
+        /**
+         * Values by slot, allocated when the first value of an option is added.
+         */
+        private final String[][] values;
+
+        /**
+         * Number of values by slot.
+         */
+        private final int[] counts;
+
+        /**
+         * Number of consumed values by slot.
+         */
+        private final int[] consumed;
+
+        /**
+         * Constructor.
+         * @param size number of slots
+         */
+        private Values(int size) {
+            this.values = new String[size][];
+            this.counts = new int[size];
+            this.consumed = new int[size];
+        }
+
+        /**
+         * Add option value.
+         * @param slot option slot
+         * @param value value to add
+         * @param maxValues maximum number of values; 0 or less means there is no limit
+         * @return {@code true} if the value has been added, {@code false} if there are too many values
+         */
+        private boolean add(int slot, String value, int maxValues) {
+            if (maxValues > 0 && counts[slot] >= maxValues) {
+                return false;
+            }
+            String[] slotValues = values[slot];
+            if (slotValues == null) {
+                slotValues = new String[maxValues > 0 ? maxValues : 1];
+                values[slot] = slotValues;
+            } else if (counts[slot] == slotValues.length) {
+                slotValues = Arrays.copyOf(slotValues, slotValues.length * 2);
+                values[slot] = slotValues;
+            }
+            slotValues[counts[slot]++] = value;
+            return true;
+        }
+
+        /**
+         * Get first of option's unconsumed values.
+         * @param slot option slot
+         * @return first unconsumed value, {@code null} if there is none
+         */
+        String poll(int slot) {
+            return consumed[slot] < counts[slot] ? values[slot][consumed[slot]++] : null;
+        }
+
+        /**
+         * Get number of option's unconsumed values.
+         * @param slot option slot
+         * @return number of unconsumed values
+         */
+        int remaining(int slot) {
+            return counts[slot] - consumed[slot];
+        }
+    }
+}
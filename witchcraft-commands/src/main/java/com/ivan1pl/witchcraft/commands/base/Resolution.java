@@ -0,0 +1,136 @@
+package com.ivan1pl.witchcraft.commands.base;
+
+import java.util.Arrays;
+
+/**
+ * State shared by all subcommands tried in a single command dispatch. It remembers the results of argument
+ * conversions, so that each argument is converted to each type at most once no matter how many subcommands accept
+ * it, and the most relevant reason why arguments were rejected.
+ */
+final class Resolution {
+    /**
+     * Value remembered in place of failed conversions.
+     */
+    private static final Object REJECTED = new Object();
+
+    /**
+     * Converted arguments.
+     */
+    private String[] tokens;
+
+    /**
+     * Conversion targets of converted arguments.
+     */
+    private Object[] targets;
+
+    /**
+     * Conversion results.
+     */
+    private Object[] results;
+
+    /**
+     * Number of remembered conversions.
+     */
+    private int size;
+
+    /**
+     * Index of the rejected argument that was reached by the subcommand which matched most arguments, -1 if no
+     * argument was rejected.
+     */
+    private int rejectedIndex = -1;
+
+    /**
+     * Value of the rejected argument.
+     */
+    private String rejectedToken;
+
+    /**
+     * Name of the parameter to which the rejected argument was assigned.
+     */
+    private String rejectedParameter;
+
+    /**
+     * Get remembered result of converting given argument.
+     * @param token argument
+     * @param target conversion target
+     * @return conversion result, {@link #REJECTED} if the conversion failed, {@code null} if the argument has not
+     *         been converted to given target yet
+     */
+    Object lookup(String token, Object target) {
+        for (int i = 0; i < size; ++i) {
+            if (tokens[i] == token && targets[i] == target) {
+                return results[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remember result of converting given argument.
+     * @param token argument
+     * @param target conversion target
+     * @param result conversion result, {@code null} if the conversion failed
+     */
+    void remember(String token, Object target, Object result) {
+        if (tokens == null) {
+            tokens = new String[4];
+            targets = new Object[4];
+            results = new Object[4];
+        } else if (size == tokens.length) {
+            tokens = Arrays.copyOf(tokens, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            results = Arrays.copyOf(results, size * 2);
+        }
+        tokens[size] = token;
+        targets[size] = target;
+        results[size++] = result == null ? REJECTED : result;
+    }
+
+    /**
+     * Check if a remembered result denotes a failed conversion.
+     * @param result remembered result
+     * @return {@code true} if the conversion failed
+     */
+    static boolean isRejected(Object result) {
+        return result == REJECTED;
+    }
+
+    /**
+     * Record that an argument could not be converted to parameter type. Only the argument furthest into the
+     * command is kept, since it comes from the subcommand that matched the most arguments.
+     * @param index argument index
+     * @param token argument
+     * @param parameter parameter name
+     */
+    void reject(int index, String token, String parameter) {
+        if (index > rejectedIndex) {
+            rejectedIndex = index;
+            rejectedToken = token;
+            rejectedParameter = parameter;
+        }
+    }
+
+    /**
+     * Check if any argument was rejected.
+     * @return {@code true} if an argument could not be converted
+     */
+    boolean hasRejection() {
+        return rejectedIndex >= 0;
+    }
+
+    /**
+     * Get the rejected argument.
+     * @return rejected argument
+     */
+    String getRejectedToken() {
+        return rejectedToken;
+    }
+
+    /**
+     * Get name of the parameter to which the rejected argument was assigned.
+     * @return parameter name
+     */
+    String getRejectedParameter() {
+        return rejectedParameter;
+    }
+}
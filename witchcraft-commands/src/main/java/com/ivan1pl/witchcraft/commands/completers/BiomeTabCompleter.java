@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.block.Biome;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link Biome} type.
  */
 @Managed
+@Shared
+@Lazy
 public class BiomeTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public BiomeTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial biome name.
      * @param partial partial parameter value
@@ -19,14 +36,6 @@ public class BiomeTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (Biome biome : Biome.values()) {
-            if (biome.name().toLowerCase().startsWith(partial) ||
-                    ("minecraft:" + biome.name().toLowerCase()).startsWith(partial)) {
-                result.add("minecraft:" + biome.name().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getBiomes().complete(partial);
     }
 }
@@ -1,17 +1,33 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
-import org.bukkit.Material;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link org.bukkit.block.data.BlockData} type.
  */
 @Managed
+@Shared
+@Lazy
 public class BlockDataTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public BlockDataTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial block data name.
      * @param partial partial parameter value
@@ -19,18 +35,6 @@ public class BlockDataTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (Material material : Material.values()) {
-            try {
-                if (material.isBlock() && (material.getKey().getKey().toLowerCase().startsWith(partial) ||
-                        ("minecraft:" + material.getKey().getKey().toLowerCase()).startsWith(partial))) {
-                    result.add("minecraft:" + material.getKey().getKey().toLowerCase());
-                }
-            } catch (IllegalArgumentException e) {
-                //nop
-            }
-        }
-        return result;
+        return registryIndexes.getBlocks().complete(partial);
     }
 }
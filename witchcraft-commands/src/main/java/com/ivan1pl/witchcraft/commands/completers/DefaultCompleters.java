@@ -1,7 +1,9 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.context.LazyBean;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
 import org.bukkit.block.data.BlockData;
@@ -17,8 +19,12 @@ import java.util.Map;
  * Mapping from class to tab completer responsible for completing parameters of that class.
  */
 @Managed
+@Shared
 public class DefaultCompleters {
-    private final Map<Class<?>, TabCompleter> completers = new HashMap<>();
+    /**
+     * Holders of completers, by type. Completers are created on first use.
+     */
+    private final Map<Class<?>, LazyBean<? extends TabCompleter>> completers = new HashMap<>();
 
     /**
      * Create completers mapping.
@@ -36,19 +42,19 @@ public class DefaultCompleters {
      * @param worldTabCompleter world tab completer
      * @param worldTypeTabCompleter world type tab completer
      */
-    public DefaultCompleters(BiomeTabCompleter biomeTabCompleter,
-                             BlockDataTabCompleter blockDataTabCompleter,
-                             EntityEffectTabCompleter entityEffectTabCompleter,
-                             EntityTypeTabCompleter entityTypeTabCompleter,
-                             EquipmentSlotTabCompleter equipmentSlotTabCompleter,
-                             GameModeTabCompleter gameModeTabCompleter,
-                             InstrumentTabCompleter instrumentTabCompleter,
-                             MaterialTabCompleter materialTabCompleter,
-                             PlayerTabCompleter playerTabCompleter,
-                             PotionTypeTabCompleter potionTypeTabCompleter,
-                             WeatherTypeTabCompleter weatherTypeTabCompleter,
-                             WorldTabCompleter worldTabCompleter,
-                             WorldTypeTabCompleter worldTypeTabCompleter) {
+    public DefaultCompleters(LazyBean<BiomeTabCompleter> biomeTabCompleter,
+                             LazyBean<BlockDataTabCompleter> blockDataTabCompleter,
+                             LazyBean<EntityEffectTabCompleter> entityEffectTabCompleter,
+                             LazyBean<EntityTypeTabCompleter> entityTypeTabCompleter,
+                             LazyBean<EquipmentSlotTabCompleter> equipmentSlotTabCompleter,
+                             LazyBean<GameModeTabCompleter> gameModeTabCompleter,
+                             LazyBean<InstrumentTabCompleter> instrumentTabCompleter,
+                             LazyBean<MaterialTabCompleter> materialTabCompleter,
+                             LazyBean<PlayerTabCompleter> playerTabCompleter,
+                             LazyBean<PotionTypeTabCompleter> potionTypeTabCompleter,
+                             LazyBean<WeatherTypeTabCompleter> weatherTypeTabCompleter,
+                             LazyBean<WorldTabCompleter> worldTabCompleter,
+                             LazyBean<WorldTypeTabCompleter> worldTypeTabCompleter) {
         completers.put(Biome.class, biomeTabCompleter);
         completers.put(BlockData.class, blockDataTabCompleter);
         completers.put(EntityEffect.class, entityEffectTabCompleter);
@@ -70,6 +76,7 @@ public class DefaultCompleters {
      * @return tab completer associated with requested type or {@code null}
      */
     public TabCompleter get(Class<?> requestedType) {
-        return completers.get(requestedType);
+        LazyBean<? extends TabCompleter> holder = completers.get(requestedType);
+        return holder == null ? null : holder.get();
     }
 }
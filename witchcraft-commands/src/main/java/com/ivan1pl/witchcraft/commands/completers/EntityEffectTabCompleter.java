@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.EntityEffect;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link EntityEffect} type.
  */
 @Managed
+@Shared
+@Lazy
 public class EntityEffectTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public EntityEffectTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial entity effect name.
      * @param partial partial parameter value
@@ -19,13 +36,6 @@ public class EntityEffectTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (EntityEffect entityEffect : EntityEffect.values()) {
-            if (entityEffect.name().toLowerCase().startsWith(partial)) {
-                result.add(entityEffect.name().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getEntityEffects().complete(partial);
     }
 }
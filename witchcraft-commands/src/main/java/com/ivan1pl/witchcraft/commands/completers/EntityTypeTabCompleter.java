@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.entity.EntityType;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link EntityType} type.
  */
 @Managed
+@Shared
+@Lazy
 public class EntityTypeTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public EntityTypeTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial entity type name.
      * @param partial partial parameter value
@@ -19,14 +36,6 @@ public class EntityTypeTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (EntityType entityType : EntityType.values()) {
-            if (entityType.getName() != null && (entityType.getName().toLowerCase().startsWith(partial) ||
-                    ("minecraft:" + entityType.getName().toLowerCase()).startsWith(partial))) {
-                result.add("minecraft:" + entityType.getName().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getEntityTypes().complete(partial);
     }
 }
@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.GameMode;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link GameMode} type.
  */
 @Managed
+@Shared
+@Lazy
 public class GameModeTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public GameModeTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial game mode name.
      * @param partial partial parameter value
@@ -19,13 +36,6 @@ public class GameModeTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (GameMode gameMode : GameMode.values()) {
-            if (gameMode.name().toLowerCase().startsWith(partial)) {
-                result.add(gameMode.name().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getGameModes().complete(partial);
     }
 }
@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.Material;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link Material} type.
  */
 @Managed
+@Shared
+@Lazy
 public class MaterialTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public MaterialTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial material name.
      * @param partial partial parameter value
@@ -19,18 +36,6 @@ public class MaterialTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (Material material : Material.values()) {
-            try {
-                if (material.getKey().getKey().toLowerCase().startsWith(partial) ||
-                        ("minecraft:" + material.getKey().getKey().toLowerCase()).startsWith(partial)) {
-                    result.add("minecraft:" + material.getKey().getKey().toLowerCase());
-                }
-            } catch (IllegalArgumentException e) {
-                //nop
-            }
-        }
-        return result;
+        return registryIndexes.getMaterials().complete(partial);
     }
 }
@@ -1,10 +1,12 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import org.bukkit.Server;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -13,11 +15,13 @@ import java.util.stream.Collectors;
  * Default tab completer for {@link Player} type.
  */
 @Managed
+@Shared
+@Lazy
 public class PlayerTabCompleter implements TabCompleter {
-    private final JavaPlugin javaPlugin;
+    private final Server server;
 
-    public PlayerTabCompleter(JavaPlugin javaPlugin) {
-        this.javaPlugin = javaPlugin;
+    public PlayerTabCompleter(Server server) {
+        this.server = server;
     }
 
     /**
@@ -27,7 +31,7 @@ public class PlayerTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        return javaPlugin.getServer().matchPlayer(partial).stream()
+        return server.matchPlayer(partial).stream()
                 .map(HumanEntity::getName)
                 .collect(Collectors.toSet());
     }
@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.potion.PotionType;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link PotionType} type.
  */
 @Managed
+@Shared
+@Lazy
 public class PotionTypeTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public PotionTypeTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial potion type name.
      * @param partial partial parameter value
@@ -19,13 +36,6 @@ public class PotionTypeTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (PotionType potionType : PotionType.values()) {
-            if (potionType.name().toLowerCase().startsWith(partial)) {
-                result.add(potionType.name().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getPotionTypes().complete(partial);
     }
 }
@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.WeatherType;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link WeatherType} type.
  */
 @Managed
+@Shared
+@Lazy
 public class WeatherTypeTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public WeatherTypeTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial weather type name.
      * @param partial partial parameter value
@@ -19,13 +36,6 @@ public class WeatherTypeTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (WeatherType weatherType : WeatherType.values()) {
-            if (weatherType.name().toLowerCase().startsWith(partial)) {
-                result.add(weatherType.name().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getWeatherTypes().complete(partial);
     }
 }
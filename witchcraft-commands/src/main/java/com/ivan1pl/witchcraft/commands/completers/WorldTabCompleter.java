@@ -1,9 +1,11 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import org.bukkit.Server;
 import org.bukkit.World;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.HashSet;
 import java.util.List;
@@ -13,11 +15,13 @@ import java.util.Set;
  * Default tab completer for {@link World} type.
  */
 @Managed
+@Shared
+@Lazy
 public class WorldTabCompleter implements TabCompleter {
-    private final JavaPlugin javaPlugin;
+    private final Server server;
 
-    public WorldTabCompleter(JavaPlugin javaPlugin) {
-        this.javaPlugin = javaPlugin;
+    public WorldTabCompleter(Server server) {
+        this.server = server;
     }
 
     /**
@@ -27,7 +31,7 @@ public class WorldTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        List<World> worlds = javaPlugin.getServer().getWorlds();
+        List<World> worlds = server.getWorlds();
         Set<String> result = new HashSet<>();
         for (World world : worlds) {
             if (world.getName().toLowerCase().startsWith(partial.toLowerCase())) {
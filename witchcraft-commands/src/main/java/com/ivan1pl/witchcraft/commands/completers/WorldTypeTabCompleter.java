@@ -1,17 +1,34 @@
 package com.ivan1pl.witchcraft.commands.completers;
 
 import com.ivan1pl.witchcraft.commands.base.TabCompleter;
+import com.ivan1pl.witchcraft.commands.index.RegistryIndexes;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
 import org.bukkit.WorldType;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Default tab completer for {@link WorldType} type.
  */
 @Managed
+@Shared
+@Lazy
 public class WorldTypeTabCompleter implements TabCompleter {
+    /**
+     * Registry indexes.
+     */
+    private final RegistryIndexes registryIndexes;
+
+    /**
+     * Constructor.
+     * @param registryIndexes registry indexes
+     */
+    public WorldTypeTabCompleter(RegistryIndexes registryIndexes) {
+        this.registryIndexes = registryIndexes;
+    }
+
     /**
      * Get suggestions based on partial world type name.
      * @param partial partial parameter value
@@ -19,13 +36,6 @@ public class WorldTypeTabCompleter implements TabCompleter {
      */
     @Override
     public Set<String> getSuggestions(String partial) {
-        Set<String> result = new HashSet<>();
-        partial = partial.toLowerCase();
-        for (WorldType worldType : WorldType.values()) {
-            if (worldType.getName().toLowerCase().startsWith(partial)) {
-                result.add(worldType.getName().toLowerCase());
-            }
-        }
-        return result;
+        return registryIndexes.getWorldTypes().complete(partial);
     }
 }
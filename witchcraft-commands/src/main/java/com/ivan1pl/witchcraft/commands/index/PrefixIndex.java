@@ -0,0 +1,144 @@
+package com.ivan1pl.witchcraft.commands.index;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable index of named values, supporting case insensitive lookup by name and by name prefix. Names are kept in
+ * a sorted array, so that values whose names start with a given prefix form a contiguous range found with binary
+ * search. Lookup by prefix takes {@code O(log n + k)} time, where {@code k} is the number of results.
+ * @param <T> type of indexed values
+ */
+public final class PrefixIndex<T> {
+    /**
+     * Namespace of Minecraft registry keys.
+     */
+    private static final String MINECRAFT_NAMESPACE = "minecraft:";
+
+    /**
+     * Lowercase names, sorted.
+     */
+    private final String[] keys;
+
+    /**
+     * Completion suggestions, by key index.
+     */
+    private final String[] suggestions;
+
+    /**
+     * Values, by key index.
+     */
+    private final Object[] values;
+
+    /**
+     * Constructor.
+     * @param entries index entries, by key
+     */
+    private PrefixIndex(SortedMap<String, Map.Entry<String, T>> entries) {
+        this.keys = new String[entries.size()];
+        this.suggestions = new String[entries.size()];
+        this.values = new Object[entries.size()];
+        int i = 0;
+        for (Map.Entry<String, Map.Entry<String, T>> entry : entries.entrySet()) {
+            keys[i] = entry.getKey();
+            suggestions[i] = entry.getValue().getKey();
+            values[i++] = entry.getValue().getValue();
+        }
+    }
+
+    /**
+     * Build index of given values.
+     * @param values values to index
+     * @param nameFunction function returning name of a value; values for which it returns {@code null} or throws
+     *                     {@link IllegalArgumentException} are not indexed
+     * @param namespaced whether names belong to the {@code minecraft} namespace; if they do, values can be looked
+     *                   up with and without namespace, and suggestions include namespace
+     * @param <T> type of indexed values
+     * @return index
+     */
+    public static <T> PrefixIndex<T> of(T[] values, Function<? super T, String> nameFunction, boolean namespaced) {
+        SortedMap<String, Map.Entry<String, T>> entries = new TreeMap<>();
+        for (T value : values) {
+            String name;
+            try {
+                name = nameFunction.apply(value);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (name == null) {
+                continue;
+            }
+            name = name.toLowerCase().intern();
+            if (namespaced) {
+                String namespacedName = (MINECRAFT_NAMESPACE + name).intern();
+                Map.Entry<String, T> entry = new AbstractMap.SimpleImmutableEntry<>(namespacedName, value);
+                entries.putIfAbsent(name, entry);
+                entries.putIfAbsent(namespacedName, entry);
+            } else {
+                entries.putIfAbsent(name, new AbstractMap.SimpleImmutableEntry<>(name, value));
+            }
+        }
+        return new PrefixIndex<>(entries);
+    }
+
+    /**
+     * Get value with given name.
+     * @param name name, case insensitive
+     * @return value with given name, {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String name) {
+        int index = Arrays.binarySearch(keys, name.toLowerCase());
+        return index < 0 ? null : (T) values[index];
+    }
+
+    /**
+     * Check if there is a value with given name.
+     * @param name name, case insensitive
+     * @return {@code true} if there is a value with given name
+     */
+    public boolean contains(String name) {
+        return Arrays.binarySearch(keys, name.toLowerCase()) >= 0;
+    }
+
+    /**
+     * Get suggestions of names starting with given prefix.
+     * @param partial prefix, case insensitive
+     * @return set of names starting with given prefix
+     */
+    public Set<String> complete(String partial) {
+        String prefix = partial.toLowerCase();
+        Set<String> result = new HashSet<>();
+        for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); ++i) {
+            result.add(suggestions[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Get number of indexed names.
+     * @return number of names
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Find index of the first key that is not less than given prefix.
+     * @param prefix prefix
+     * @return index of the first key not less than the prefix, {@code keys.length} if there is none
+     */
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
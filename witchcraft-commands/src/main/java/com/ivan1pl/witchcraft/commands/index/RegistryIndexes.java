@@ -0,0 +1,174 @@
+package com.ivan1pl.witchcraft.commands.index;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import org.bukkit.*;
+import org.bukkit.block.Biome;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.potion.PotionType;
+
+/**
+ * Name indexes of game registries, shared by default tab completers and type adapters. Each index is built on first
+ * use and never changes afterwards.
+ */
+@Managed
+@Shared
+public class RegistryIndexes {
+    /**
+     * Index of materials, by namespaced key. Legacy materials are not indexed.
+     */
+    private final Supplier<PrefixIndex<Material>> materials = Suppliers.memoize(() ->
+            PrefixIndex.of(Material.values(), material -> material.getKey().getKey(), true));
+
+    /**
+     * Index of block materials, by namespaced key. Legacy materials are not indexed.
+     */
+    private final Supplier<PrefixIndex<Material>> blocks = Suppliers.memoize(() ->
+            PrefixIndex.of(Material.values(),
+                    material -> material.isBlock() ? material.getKey().getKey() : null, true));
+
+    /**
+     * Index of biomes, by namespaced name.
+     */
+    private final Supplier<PrefixIndex<Biome>> biomes = Suppliers.memoize(() ->
+            PrefixIndex.of(Biome.values(), Biome::name, true));
+
+    /**
+     * Index of entity types, by namespaced name. Entity types without a name are not indexed.
+     */
+    private final Supplier<PrefixIndex<EntityType>> entityTypes = Suppliers.memoize(() ->
+            PrefixIndex.of(EntityType.values(), EntityType::getName, true));
+
+    /**
+     * Index of game modes, by name.
+     */
+    private final Supplier<PrefixIndex<GameMode>> gameModes = Suppliers.memoize(() ->
+            PrefixIndex.of(GameMode.values(), GameMode::name, false));
+
+    /**
+     * Index of entity effects, by name.
+     */
+    private final Supplier<PrefixIndex<EntityEffect>> entityEffects = Suppliers.memoize(() ->
+            PrefixIndex.of(EntityEffect.values(), EntityEffect::name, false));
+
+    /**
+     * Index of equipment slots, by name.
+     */
+    private final Supplier<PrefixIndex<EquipmentSlot>> equipmentSlots = Suppliers.memoize(() ->
+            PrefixIndex.of(EquipmentSlot.values(), EquipmentSlot::name, false));
+
+    /**
+     * Index of instruments, by name.
+     */
+    private final Supplier<PrefixIndex<Instrument>> instruments = Suppliers.memoize(() ->
+            PrefixIndex.of(Instrument.values(), Instrument::name, false));
+
+    /**
+     * Index of potion types, by name.
+     */
+    private final Supplier<PrefixIndex<PotionType>> potionTypes = Suppliers.memoize(() ->
+            PrefixIndex.of(PotionType.values(), PotionType::name, false));
+
+    /**
+     * Index of weather types, by name.
+     */
+    private final Supplier<PrefixIndex<WeatherType>> weatherTypes = Suppliers.memoize(() ->
+            PrefixIndex.of(WeatherType.values(), WeatherType::name, false));
+
+    /**
+     * Index of world types, by name.
+     */
+    private final Supplier<PrefixIndex<WorldType>> worldTypes = Suppliers.memoize(() ->
+            PrefixIndex.of(WorldType.values(), WorldType::getName, false));
+
+    /**
+     * Get index of materials.
+     * @return materials index
+     */
+    public PrefixIndex<Material> getMaterials() {
+        return materials.get();
+    }
+
+    /**
+     * Get index of block materials.
+     * @return block materials index
+     */
+    public PrefixIndex<Material> getBlocks() {
+        return blocks.get();
+    }
+
+    /**
+     * Get index of biomes.
+     * @return biomes index
+     */
+    public PrefixIndex<Biome> getBiomes() {
+        return biomes.get();
+    }
+
+    /**
+     * Get index of entity types.
+     * @return entity types index
+     */
+    public PrefixIndex<EntityType> getEntityTypes() {
+        return entityTypes.get();
+    }
+
+    /**
+     * Get index of game modes.
+     * @return game modes index
+     */
+    public PrefixIndex<GameMode> getGameModes() {
+        return gameModes.get();
+    }
+
+    /**
+     * Get index of entity effects.
+     * @return entity effects index
+     */
+    public PrefixIndex<EntityEffect> getEntityEffects() {
+        return entityEffects.get();
+    }
+
+    /**
+     * Get index of equipment slots.
+     * @return equipment slots index
+     */
+    public PrefixIndex<EquipmentSlot> getEquipmentSlots() {
+        return equipmentSlots.get();
+    }
+
+    /**
+     * Get index of instruments.
+     * @return instruments index
+     */
+    public PrefixIndex<Instrument> getInstruments() {
+        return instruments.get();
+    }
+
+    /**
+     * Get index of potion types.
+     * @return potion types index
+     */
+    public PrefixIndex<PotionType> getPotionTypes() {
+        return potionTypes.get();
+    }
+
+    /**
+     * Get index of weather types.
+     * @return weather types index
+     */
+    public PrefixIndex<WeatherType> getWeatherTypes() {
+        return weatherTypes.get();
+    }
+
+    /**
+     * Get index of world types.
+     * @return world types index
+     */
+    public PrefixIndex<WorldType> getWorldTypes() {
+        return worldTypes.get();
+    }
+}
@@ -0,0 +1,16 @@
+package com.ivan1pl.witchcraft.context;
+
+/**
+ * Managed classes implementing this interface have an asynchronous initialization phase, executed on a worker thread
+ * after the context has been initialized. The initialization of a managed object starts when all managed objects it
+ * depends on are ready. Use {@link WitchCraftContext#getReadiness(Class)} to wait until a managed object is ready.
+ * Only managed classes that are neither lazy nor player scoped are initialized asynchronously.
+ */
+public interface AsyncInitializing {
+    /**
+     * Perform asynchronous initialization, e.g. warm up caches or load reference data. This method is not executed on
+     * the server main thread, so it must not use Bukkit API that is not thread safe.
+     * @throws Exception when the initialization fails
+     */
+    void initAsync() throws Exception;
+}
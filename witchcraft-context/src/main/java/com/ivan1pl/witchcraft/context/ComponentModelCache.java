@@ -0,0 +1,205 @@
+package com.ivan1pl.witchcraft.context;
+
+import com.ivan1pl.witchcraft.context.scan.ScanResult;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.*;
+import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Persistent cache of the component model: the scan result and the resolved dependency graph. The cache is stored in
+ * the plugin data folder and keyed by SHA-256 hash of the jars containing the plugin and WitchCraft, together with the
+ * scanned packages and annotations. When any of them changes, the cache is discarded and rebuilt.
+ */
+final class ComponentModelCache {
+    /**
+     * Name of the cache file in the plugin data folder.
+     */
+    private static final String FILE_NAME = "witchcraft-context.cache";
+
+    /**
+     * Cache file format identifier.
+     */
+    private static final int MAGIC = 0x57434331;
+
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
+    /**
+     * Cache file.
+     */
+    private final File file;
+
+    /**
+     * Cache key, {@code null} if it could not be computed.
+     */
+    private final byte[] key;
+
+    /**
+     * Create cache for given plugin.
+     * @param javaPlugin plugin instance
+     * @param basePackages scanned packages
+     * @param annotations scanned annotations
+     */
+    ComponentModelCache(JavaPlugin javaPlugin, String[] basePackages, List<Class<? extends Annotation>> annotations) {
+        this.javaPlugin = javaPlugin;
+        this.file = new File(javaPlugin.getDataFolder(), FILE_NAME);
+        this.key = computeKey(basePackages, annotations);
+    }
+
+    /**
+     * Compute cache key.
+     * @param basePackages scanned packages
+     * @param annotations scanned annotations
+     * @return cache key or {@code null} if it cannot be computed
+     */
+    private byte[] computeKey(String[] basePackages, List<Class<? extends Annotation>> annotations) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Set<File> jars = new LinkedHashSet<>();
+            for (Class<?> clazz : Arrays.asList(javaPlugin.getClass(), WitchCraftContext.class)) {
+                CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+                if (codeSource == null || codeSource.getLocation() == null) {
+                    return null;
+                }
+                File jar = new File(codeSource.getLocation().toURI());
+                if (!jar.isFile()) {
+                    return null;
+                }
+                jars.add(jar);
+            }
+            byte[] buffer = new byte[8192];
+            for (File jar : jars) {
+                try (InputStream in = new DigestInputStream(new FileInputStream(jar), digest)) {
+                    while (in.read(buffer) != -1) {
+                        // digest is updated while reading
+                    }
+                }
+            }
+            for (String basePackage : basePackages) {
+                digest.update(("package:" + basePackage + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            for (Class<? extends Annotation> annotation : annotations) {
+                digest.update(("annotation:" + annotation.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | URISyntaxException | IllegalArgumentException | IOException |
+                SecurityException e) {
+            javaPlugin.getLogger().warning("Unable to compute component model cache key: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Load cached scan result.
+     * @return cached component model, or {@code null} if there is no valid cache
+     */
+    Model load() {
+        if (key == null || !file.isFile()) {
+            return null;
+        }
+        ClassLoader classLoader = javaPlugin.getClass().getClassLoader();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            byte[] cachedKey = new byte[in.readInt()];
+            in.readFully(cachedKey);
+            if (!Arrays.equals(key, cachedKey)) {
+                javaPlugin.getLogger().info("Component model cache is out of date, it will be rebuilt");
+                return null;
+            }
+            ScanResult scanResult = ScanResult.read(in, classLoader);
+            DependencyGraph dependencyGraph = in.readBoolean() ? DependencyGraph.read(in, classLoader) : null;
+            return new Model(scanResult, dependencyGraph);
+        } catch (IOException | ClassNotFoundException | LinkageError e) {
+            javaPlugin.getLogger().warning("Unable to read component model cache, it will be rebuilt: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Save component model.
+     * @param scanResult scan result
+     * @param dependencyGraph resolved dependency graph
+     */
+    void save(ScanResult scanResult, DependencyGraph dependencyGraph) {
+        if (key == null) {
+            return;
+        }
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            javaPlugin.getLogger().warning("Unable to create plugin data folder, component model will not be cached");
+            return;
+        }
+        File temporaryFile = new File(parent, FILE_NAME + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(key.length);
+                out.write(key);
+                scanResult.write(out);
+                out.writeBoolean(dependencyGraph != null);
+                if (dependencyGraph != null) {
+                    dependencyGraph.write(out);
+                }
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            javaPlugin.getLogger().warning("Unable to write component model cache: " + e);
+        }
+    }
+
+    /**
+     * Cached component model.
+     */
+    static final class Model {
+        /**
+         * Scan result.
+         */
+        private final ScanResult scanResult;
+
+        /**
+         * Resolved dependency graph, {@code null} if it was not cached.
+         */
+        private final DependencyGraph dependencyGraph;
+
+        /**
+         * Constructor.
+         * @param scanResult scan result
+         * @param dependencyGraph resolved dependency graph
+         */
+        private Model(ScanResult scanResult, DependencyGraph dependencyGraph) {
+            this.scanResult = scanResult;
+            this.dependencyGraph = dependencyGraph;
+        }
+
+        /**
+         * Get scan result.
+         * @return scan result
+         */
+        ScanResult getScanResult() {
+            return scanResult;
+        }
+
+        /**
+         * Get resolved dependency graph.
+         * @return dependency graph, {@code null} if it was not cached
+         */
+        DependencyGraph getDependencyGraph() {
+            return dependencyGraph;
+        }
+    }
+}
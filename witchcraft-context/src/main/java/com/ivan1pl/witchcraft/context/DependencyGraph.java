@@ -0,0 +1,363 @@
+package com.ivan1pl.witchcraft.context;
+
+import com.ivan1pl.witchcraft.context.annotations.ConfigurationValue;
+import com.ivan1pl.witchcraft.context.annotations.ConfigurationValues;
+import com.ivan1pl.witchcraft.context.annotations.PlayerScoped;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import com.ivan1pl.witchcraft.context.config.ConfigurationBinding;
+import com.ivan1pl.witchcraft.context.exception.DependencyCycleException;
+import com.ivan1pl.witchcraft.context.exception.InitializationFailedException;
+import com.ivan1pl.witchcraft.context.exception.UnsatisfiedDependencyException;
+import org.bukkit.Server;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Dependency graph of managed classes. Dependencies are resolved through an index mapping each type to all managed
+ * classes assignable to it, and the instantiation order is computed with Kahn's algorithm.
+ */
+final class DependencyGraph {
+    /**
+     * Managed classes, graph nodes are indices in this list.
+     */
+    private final List<Class<?>> classes;
+
+    /**
+     * Dependencies of each node.
+     */
+    private final int[][] dependencies;
+
+    /**
+     * Dependents of each node.
+     */
+    private final int[][] dependents;
+
+    /**
+     * Graph nodes, by managed class.
+     */
+    private final Map<Class<?>, Integer> nodes = new HashMap<>();
+
+    /**
+     * Create dependency graph.
+     * @param pluginClass plugin class
+     * @param classes managed classes
+     * @throws InitializationFailedException when some class cannot be managed
+     * @throws UnsatisfiedDependencyException when it is impossible to determine unique dependency for some class
+     */
+    DependencyGraph(Class<? extends JavaPlugin> pluginClass, Collection<Class<?>> classes)
+            throws InitializationFailedException, UnsatisfiedDependencyException {
+        this.classes = new ArrayList<>(classes);
+        Map<Class<?>, List<Integer>> implementations = createTypeIndex(this.classes);
+        int size = this.classes.size();
+        dependencies = new int[size][];
+        List<List<Integer>> dependentLists = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            dependentLists.add(new ArrayList<>());
+            nodes.put(this.classes.get(i), i);
+        }
+        for (int i = 0; i < size; ++i) {
+            Class<?> clazz = this.classes.get(i);
+            Constructor<?>[] constructors = clazz.getConstructors();
+            if (constructors.length != 1) {
+                throw new InitializationFailedException("Unable to instantiate class: " + clazz.getCanonicalName() +
+                        ". Invalid number of constructors (required exactly 1)");
+            }
+            boolean shared = clazz.isAnnotationPresent(Shared.class);
+            if (shared && clazz.isAnnotationPresent(PlayerScoped.class)) {
+                throw new InitializationFailedException("Unable to instantiate class: " + clazz.getCanonicalName() +
+                        ". Player scoped classes cannot be shared");
+            }
+            List<Integer> nodeDependencies = new ArrayList<>();
+            for (Parameter parameter : constructors[0].getParameters()) {
+                if (parameter.getType() == Server.class) {
+                    continue;
+                }
+                if (shared && (parameter.getType().isAssignableFrom(pluginClass) ||
+                        parameter.getType().isAssignableFrom(WitchCraftContext.class) ||
+                        parameter.getType().isAssignableFrom(ConfigurationBinding.class) ||
+                        parameter.getAnnotation(ConfigurationValue.class) != null ||
+                        parameter.getAnnotation(ConfigurationValues.class) != null)) {
+                    throw new InitializationFailedException("Unable to instantiate class: " +
+                            clazz.getCanonicalName() + ". Shared classes cannot depend on plugin specific objects " +
+                            "(parameter " + parameter.getName() + ")");
+                }
+                if (!parameter.getType().isAssignableFrom(pluginClass) &&
+                        !parameter.getType().isAssignableFrom(WitchCraftContext.class) &&
+                        !parameter.getType().isAssignableFrom(ConfigurationBinding.class) &&
+                        parameter.getAnnotation(ConfigurationValue.class) == null &&
+                        parameter.getAnnotation(ConfigurationValues.class) == null &&
+                        !(parameter.getType() == UUID.class && clazz.isAnnotationPresent(PlayerScoped.class))) {
+                    Class<?> type = parameter.getType();
+                    if (type == LazyBean.class || type == PlayerScope.class) {
+                        type = LazyBean.getBeanType(parameter);
+                        if (type == null) {
+                            throw new InitializationFailedException("Unable to determine type of parameter " +
+                                    parameter.getName() + " of class " + clazz.getCanonicalName());
+                        }
+                    }
+                    List<Integer> candidates = implementations.getOrDefault(type, Collections.emptyList());
+                    if (candidates.isEmpty()) {
+                        throw new UnsatisfiedDependencyException("Could not instantiate parameter of type " +
+                                type.getCanonicalName() + " while attempting to build an object of type " +
+                                clazz.getCanonicalName() + ": no candidates found");
+                    }
+                    if (candidates.size() > 1) {
+                        throw new UnsatisfiedDependencyException("Could not instantiate parameter of type " +
+                                type.getCanonicalName() + " while attempting to build an object of type " +
+                                clazz.getCanonicalName() + ": multiple candidates found");
+                    }
+                    int dependency = candidates.get(0);
+                    boolean playerScoped = this.classes.get(dependency).isAnnotationPresent(PlayerScoped.class);
+                    if (playerScoped != (parameter.getType() == PlayerScope.class)) {
+                        throw new UnsatisfiedDependencyException("Could not instantiate parameter of type " +
+                                type.getCanonicalName() + " while attempting to build an object of type " +
+                                clazz.getCanonicalName() + (playerScoped ?
+                                ": player scoped classes can only be injected through PlayerScope" :
+                                ": only player scoped classes can be injected through PlayerScope"));
+                    }
+                    if (shared && !this.classes.get(dependency).isAnnotationPresent(Shared.class)) {
+                        throw new UnsatisfiedDependencyException("Could not instantiate parameter of type " +
+                                type.getCanonicalName() + " while attempting to build an object of type " +
+                                clazz.getCanonicalName() + ": shared classes can only depend on other shared classes");
+                    }
+                    if (!nodeDependencies.contains(dependency)) {
+                        nodeDependencies.add(dependency);
+                        dependentLists.get(dependency).add(i);
+                    }
+                }
+            }
+            dependencies[i] = toArray(nodeDependencies);
+        }
+        dependents = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            dependents[i] = toArray(dependentLists.get(i));
+        }
+    }
+
+    /**
+     * Create dependency graph from previously resolved dependencies.
+     * @param classes managed classes
+     * @param dependencies dependencies of each node
+     */
+    private DependencyGraph(List<Class<?>> classes, int[][] dependencies) {
+        this.classes = classes;
+        this.dependencies = dependencies;
+        int size = classes.size();
+        List<List<Integer>> dependentLists = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            dependentLists.add(new ArrayList<>());
+            nodes.put(classes.get(i), i);
+        }
+        for (int i = 0; i < size; ++i) {
+            for (int dependency : dependencies[i]) {
+                dependentLists.get(dependency).add(i);
+            }
+        }
+        dependents = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            dependents[i] = toArray(dependentLists.get(i));
+        }
+    }
+
+    /**
+     * Read dependency graph written with {@link #write(DataOutput)}.
+     * @param in input
+     * @param classLoader class loader used to load managed classes
+     * @return dependency graph
+     * @throws IOException when the graph cannot be read
+     * @throws ClassNotFoundException when some managed class cannot be loaded
+     */
+    static DependencyGraph read(DataInput in, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        List<Class<?>> classes = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            classes.add(Class.forName(in.readUTF(), false, classLoader));
+        }
+        int[][] dependencies = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            dependencies[i] = new int[in.readInt()];
+            for (int j = 0; j < dependencies[i].length; ++j) {
+                dependencies[i][j] = in.readInt();
+                if (dependencies[i][j] < 0 || dependencies[i][j] >= size) {
+                    throw new IOException("Invalid dependency graph node: " + dependencies[i][j]);
+                }
+            }
+        }
+        return new DependencyGraph(classes, dependencies);
+    }
+
+    /**
+     * Write dependency graph, so that it can be restored with {@link #read(DataInput, ClassLoader)}.
+     * @param out output
+     * @throws IOException when the graph cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(classes.size());
+        for (Class<?> clazz : classes) {
+            out.writeUTF(clazz.getName());
+        }
+        for (int[] nodeDependencies : dependencies) {
+            out.writeInt(nodeDependencies.length);
+            for (int dependency : nodeDependencies) {
+                out.writeInt(dependency);
+            }
+        }
+    }
+
+    /**
+     * Get managed classes, in order they were passed to the graph.
+     * @return managed classes
+     */
+    List<Class<?>> getClasses() {
+        return Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Create index mapping each type to all managed classes assignable to it.
+     * @param classes managed classes
+     * @return type index
+     */
+    private static Map<Class<?>, List<Integer>> createTypeIndex(List<Class<?>> classes) {
+        Map<Class<?>, List<Integer>> implementations = new HashMap<>();
+        for (int i = 0; i < classes.size(); ++i) {
+            Set<Class<?>> visited = new HashSet<>();
+            Deque<Class<?>> types = new ArrayDeque<>();
+            types.add(classes.get(i));
+            while (!types.isEmpty()) {
+                Class<?> type = types.poll();
+                if (visited.add(type)) {
+                    implementations.computeIfAbsent(type, t -> new ArrayList<>(1)).add(i);
+                    types.addAll(Arrays.asList(type.getInterfaces()));
+                    if (type.getSuperclass() != null) {
+                        types.add(type.getSuperclass());
+                    }
+                }
+            }
+        }
+        return implementations;
+    }
+
+    /**
+     * Convert list of node indices to an array.
+     * @param list node indices
+     * @return array of node indices
+     */
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Get managed classes given class directly depends on.
+     * @param clazz managed class
+     * @return direct dependencies, empty if the class is not part of the graph
+     */
+    List<Class<?>> getDependencies(Class<?> clazz) {
+        Integer node = nodes.get(clazz);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<Class<?>> result = new ArrayList<>(dependencies[node].length);
+        for (int dependency : dependencies[node]) {
+            result.add(classes.get(dependency));
+        }
+        return result;
+    }
+
+    /**
+     * Get managed classes that directly depend on given class.
+     * @param clazz managed class
+     * @return direct dependents, empty if the class is not part of the graph
+     */
+    List<Class<?>> getDependents(Class<?> clazz) {
+        Integer node = nodes.get(clazz);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<Class<?>> result = new ArrayList<>(dependents[node].length);
+        for (int dependent : dependents[node]) {
+            result.add(classes.get(dependent));
+        }
+        return result;
+    }
+
+    /**
+     * Split classes into layers. Classes in each layer depend only on classes from previous layers, so all classes
+     * within a single layer can be instantiated independently of each other. Classes within each layer preserve the
+     * order in which they were passed to the graph.
+     * @return layers, in order they should be instantiated
+     * @throws DependencyCycleException when there is a dependency cycle
+     */
+    List<List<Class<?>>> createLayers() throws DependencyCycleException {
+        int size = classes.size();
+        int[] unsatisfied = new int[size];
+        List<Integer> layer = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            unsatisfied[i] = dependencies[i].length;
+            if (unsatisfied[i] == 0) {
+                layer.add(i);
+            }
+        }
+        List<List<Class<?>>> result = new ArrayList<>();
+        int ordered = 0;
+        while (!layer.isEmpty()) {
+            List<Class<?>> layerClasses = new ArrayList<>(layer.size());
+            List<Integer> nextLayer = new ArrayList<>();
+            for (int node : layer) {
+                layerClasses.add(classes.get(node));
+                for (int dependent : dependents[node]) {
+                    if (--unsatisfied[dependent] == 0) {
+                        nextLayer.add(dependent);
+                    }
+                }
+            }
+            Collections.sort(nextLayer);
+            result.add(layerClasses);
+            ordered += layer.size();
+            layer = nextLayer;
+        }
+        if (ordered < size) {
+            List<Class<?>> cycle = findCycle(unsatisfied);
+            throw new DependencyCycleException("Detected cycle in dependency graph, unable to instantiate: " +
+                    cycle.stream().map(Class::getCanonicalName).collect(Collectors.joining(" -> ")), cycle);
+        }
+        return result;
+    }
+
+    /**
+     * Find a dependency cycle among nodes that could not be ordered. Each such node has at least one dependency that
+     * could not be ordered either, so following these dependencies must eventually lead to an already visited node.
+     * @param unsatisfied number of unsatisfied dependencies of each node
+     * @return classes forming the cycle, with the first class repeated at the end
+     */
+    private List<Class<?>> findCycle(int[] unsatisfied) {
+        int node = 0;
+        while (unsatisfied[node] == 0) {
+            node++;
+        }
+        Map<Integer, Integer> position = new HashMap<>();
+        List<Integer> path = new ArrayList<>();
+        while (!position.containsKey(node)) {
+            position.put(node, path.size());
+            path.add(node);
+            for (int dependency : dependencies[node]) {
+                if (unsatisfied[dependency] > 0) {
+                    node = dependency;
+                    break;
+                }
+            }
+        }
+        List<Class<?>> cycle = new ArrayList<>();
+        for (int i = position.get(node); i < path.size(); ++i) {
+            cycle.add(classes.get(path.get(i)));
+        }
+        cycle.add(classes.get(node));
+        return cycle;
+    }
+}
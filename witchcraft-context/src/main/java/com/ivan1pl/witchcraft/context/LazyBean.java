@@ -0,0 +1,114 @@
+package com.ivan1pl.witchcraft.context;
+
+import com.ivan1pl.witchcraft.context.exception.LazyInitializationException;
+
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Callable;
+
+/**
+ * Holder of a managed object that is created on first use. Managed classes may declare constructor parameters of type
+ * {@code LazyBean<T>} to depend on another managed class without forcing its instantiation.
+ * @param <T> managed object type
+ */
+public final class LazyBean<T> {
+    /**
+     * Managed object type.
+     */
+    private final Class<T> type;
+
+    /**
+     * Logic creating the managed object, {@code null} once the object is created.
+     */
+    private Callable<?> creator;
+
+    /**
+     * Managed object, {@code null} until it is created.
+     */
+    private volatile T instance;
+
+    /**
+     * Constructor.
+     * @param type managed object type
+     * @param creator logic creating the managed object
+     */
+    LazyBean(Class<T> type, Callable<?> creator) {
+        this.type = type;
+        this.creator = creator;
+    }
+
+    /**
+     * Create holder of an already existing managed object.
+     * @param type managed object type
+     * @param instance managed object
+     * @param <T> managed object type
+     * @return holder containing given object
+     */
+    static <T> LazyBean<T> of(Class<T> type, Object instance) {
+        LazyBean<T> lazyBean = new LazyBean<>(type, null);
+        lazyBean.instance = type.cast(instance);
+        return lazyBean;
+    }
+
+    /**
+     * Get managed object type.
+     * @return managed object type
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Check whether the managed object has already been created.
+     * @return {@code true} if the object exists, {@code false} otherwise
+     */
+    public boolean isCreated() {
+        return instance != null;
+    }
+
+    /**
+     * Get managed object, creating it if necessary. The object is created exactly once, even if this method is
+     * invoked concurrently.
+     * @return managed object
+     * @throws LazyInitializationException when the object cannot be created
+     */
+    public T get() {
+        T result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    try {
+                        result = type.cast(creator.call());
+                    } catch (Exception e) {
+                        throw new LazyInitializationException(
+                                "Failed to create lazy object of type " + type.getCanonicalName(), e);
+                    }
+                    instance = result;
+                    creator = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get type of the managed object held by a {@code LazyBean} (or {@link PlayerScope}) constructor parameter.
+     * @param parameter constructor parameter of type {@link LazyBean} or {@link PlayerScope}
+     * @return managed object type, or {@code null} if the parameter does not declare a class as its type argument
+     */
+    static Class<?> getBeanType(Parameter parameter) {
+        Type type = parameter.getParameterizedType();
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+            if (argument instanceof ParameterizedType && ((ParameterizedType) argument).getRawType() instanceof Class) {
+                return (Class<?>) ((ParameterizedType) argument).getRawType();
+            }
+        }
+        return null;
+    }
+}
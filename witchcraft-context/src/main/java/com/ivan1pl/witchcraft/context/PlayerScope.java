@@ -0,0 +1,342 @@
+package com.ivan1pl.witchcraft.context;
+
+import com.ivan1pl.witchcraft.context.exception.LazyInitializationException;
+import org.bukkit.OfflinePlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Holder of instances of a {@link com.ivan1pl.witchcraft.context.annotations.PlayerScoped} managed class, one for each
+ * player. Instances are created on first use and evicted when the player leaves the server, optionally after a grace
+ * period.
+ * @param <T> managed object type
+ */
+public final class PlayerScope<T> {
+    /**
+     * Managed object type.
+     */
+    private final Class<T> type;
+
+    /**
+     * Time after the player leaves the server before the instance is evicted, in nanoseconds.
+     */
+    private final long gracePeriodNanos;
+
+    /**
+     * Logic creating the managed object for given player.
+     */
+    private final Creator creator;
+
+    /**
+     * Instances, by player unique id.
+     */
+    private final Map<UUID, Instance<T>> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Number of created instances.
+     */
+    private final AtomicLong created = new AtomicLong();
+
+    /**
+     * Number of evicted instances.
+     */
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+     * Constructor.
+     * @param type managed object type
+     * @param gracePeriodSeconds time after the player leaves the server before the instance is evicted, in seconds
+     * @param creator logic creating the managed object for given player
+     */
+    PlayerScope(Class<T> type, long gracePeriodSeconds, Creator creator) {
+        this.type = type;
+        this.gracePeriodNanos = TimeUnit.SECONDS.toNanos(gracePeriodSeconds);
+        this.creator = creator;
+    }
+
+    /**
+     * Get managed object type.
+     * @return managed object type
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Get instance for given player, creating it if necessary.
+     * @param player player
+     * @return instance for given player
+     * @throws LazyInitializationException when the instance cannot be created
+     */
+    public T get(OfflinePlayer player) {
+        return get(player.getUniqueId());
+    }
+
+    /**
+     * Get instance for given player, creating it if necessary. The instance is created exactly once, even if this
+     * method is invoked concurrently.
+     * @param playerId player unique id
+     * @return instance for given player
+     * @throws LazyInitializationException when the instance cannot be created
+     */
+    public T get(UUID playerId) {
+        Instance<T> instance = instances.get(playerId);
+        if (instance == null) {
+            instance = instances.computeIfAbsent(playerId, this::create);
+        }
+        return instance.value;
+    }
+
+    /**
+     * Get instance for given player if it exists.
+     * @param playerId player unique id
+     * @return instance for given player or {@code null} if there is none
+     */
+    public T getIfPresent(UUID playerId) {
+        Instance<T> instance = instances.get(playerId);
+        return instance == null ? null : instance.value;
+    }
+
+    /**
+     * Perform given action for each existing instance.
+     * @param action action to perform
+     */
+    public void forEach(BiConsumer<UUID, ? super T> action) {
+        instances.forEach((playerId, instance) -> action.accept(playerId, instance.value));
+    }
+
+    /**
+     * Evict instance of given player immediately.
+     * @param playerId player unique id
+     */
+    public void evict(UUID playerId) {
+        if (instances.remove(playerId) != null) {
+            evicted.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get statistics of this scope.
+     * @return current statistics
+     */
+    public Statistics getStatistics() {
+        int pending = 0;
+        for (Instance<T> instance : instances.values()) {
+            if (instance.quitTime != 0) {
+                pending++;
+            }
+        }
+        return new Statistics(type, instances.size(), pending, created.get(), evicted.get());
+    }
+
+    /**
+     * Check whether instances are evicted after a grace period.
+     * @return {@code true} if there is a grace period, {@code false} otherwise
+     */
+    boolean hasGracePeriod() {
+        return gracePeriodNanos > 0;
+    }
+
+    /**
+     * Handle player joining the server, cancelling pending eviction of their instance.
+     * @param playerId player unique id
+     */
+    void onJoin(UUID playerId) {
+        Instance<T> instance = instances.get(playerId);
+        if (instance != null) {
+            instance.quitTime = 0;
+        }
+    }
+
+    /**
+     * Handle player leaving the server, evicting their instance or scheduling its eviction.
+     * @param playerId player unique id
+     */
+    void onQuit(UUID playerId) {
+        if (gracePeriodNanos > 0) {
+            Instance<T> instance = instances.get(playerId);
+            if (instance != null) {
+                instance.quitTime = System.nanoTime();
+            }
+        } else {
+            evict(playerId);
+        }
+    }
+
+    /**
+     * Evict instances of players who left the server longer than the grace period ago.
+     */
+    void evictExpired() {
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, Instance<T>> entry : instances.entrySet()) {
+            long quitTime = entry.getValue().quitTime;
+            if (quitTime != 0 && now - quitTime >= gracePeriodNanos &&
+                    instances.remove(entry.getKey(), entry.getValue())) {
+                evicted.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Evict all instances.
+     */
+    void clear() {
+        evicted.addAndGet(instances.size());
+        instances.clear();
+    }
+
+    /**
+     * Create instance for given player.
+     * @param playerId player unique id
+     * @return created instance
+     */
+    private Instance<T> create(UUID playerId) {
+        try {
+            Instance<T> instance = new Instance<>(type.cast(creator.create(playerId)));
+            created.incrementAndGet();
+            return instance;
+        } catch (Exception e) {
+            throw new LazyInitializationException("Failed to create object of type " + type.getCanonicalName() +
+                    " for player " + playerId, e);
+        }
+    }
+
+    /**
+     * Logic creating managed objects for players.
+     */
+    @FunctionalInterface
+    interface Creator {
+        /**
+         * Create managed object for given player.
+         * @param playerId player unique id
+         * @return created object
+         * @throws Exception when the object cannot be created
+         */
+        Object create(UUID playerId) throws Exception;
+    }
+
+    /**
+     * Instance created for a single player.
+     * @param <T> managed object type
+     */
+    private static final class Instance<T> {
+        /**
+         * Managed object.
+         */
+        private final T value;
+
+        /**
+         * Time when the player left the server ({@link System#nanoTime()}), or {@code 0} if the player is online.
+         */
+        private volatile long quitTime;
+
+        /**
+         * Constructor.
+         * @param value managed object
+         */
+        private Instance(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Statistics of a player scope.
+     */
+    public static final class Statistics {
+        /**
+         * Managed object type.
+         */
+        private final Class<?> type;
+
+        /**
+         * Number of existing instances.
+         */
+        private final int size;
+
+        /**
+         * Number of instances of players who left the server, waiting for eviction.
+         */
+        private final int pendingEviction;
+
+        /**
+         * Total number of created instances.
+         */
+        private final long created;
+
+        /**
+         * Total number of evicted instances.
+         */
+        private final long evicted;
+
+        /**
+         * Constructor.
+         * @param type managed object type
+         * @param size number of existing instances
+         * @param pendingEviction number of instances waiting for eviction
+         * @param created total number of created instances
+         * @param evicted total number of evicted instances
+         */
+        private Statistics(Class<?> type, int size, int pendingEviction, long created, long evicted) {
+            this.type = type;
+            this.size = size;
+            this.pendingEviction = pendingEviction;
+            this.created = created;
+            this.evicted = evicted;
+        }
+
+        /**
+         * Get managed object type.
+         * @return managed object type
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Get number of existing instances.
+         * @return number of existing instances
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Get number of instances of players who left the server, waiting for eviction.
+         * @return number of instances waiting for eviction
+         */
+        public int getPendingEviction() {
+            return pendingEviction;
+        }
+
+        /**
+         * Get total number of created instances.
+         * @return total number of created instances
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * Get total number of evicted instances.
+         * @return total number of evicted instances
+         */
+        public long getEvicted() {
+            return evicted;
+        }
+
+        /**
+         * Get string representation of the statistics.
+         * @return string representation
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: %d instances (%d pending eviction), %d created, %d evicted",
+                    type.getName(), size, pendingEviction, created, evicted);
+        }
+    }
+}
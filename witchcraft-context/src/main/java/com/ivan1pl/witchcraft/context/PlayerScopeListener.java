@@ -0,0 +1,49 @@
+package com.ivan1pl.witchcraft.context;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Collection;
+
+/**
+ * Listener evicting player scoped instances when players leave the server.
+ */
+final class PlayerScopeListener implements Listener {
+    /**
+     * Player scopes.
+     */
+    private final Collection<PlayerScope<?>> playerScopes;
+
+    /**
+     * Constructor.
+     * @param playerScopes player scopes
+     */
+    PlayerScopeListener(Collection<PlayerScope<?>> playerScopes) {
+        this.playerScopes = playerScopes;
+    }
+
+    /**
+     * Cancel pending eviction of instances of the player who joined the server.
+     * @param event player join event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        for (PlayerScope<?> playerScope : playerScopes) {
+            playerScope.onJoin(event.getPlayer().getUniqueId());
+        }
+    }
+
+    /**
+     * Evict instances of the player who left the server, or schedule their eviction.
+     * @param event player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        for (PlayerScope<?> playerScope : playerScopes) {
+            playerScope.onQuit(event.getPlayer().getUniqueId());
+        }
+    }
+}
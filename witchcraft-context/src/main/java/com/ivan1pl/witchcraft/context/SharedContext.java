@@ -0,0 +1,225 @@
+package com.ivan1pl.witchcraft.context;
+
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import com.ivan1pl.witchcraft.context.exception.InitializationFailedException;
+import com.ivan1pl.witchcraft.context.proxy.ComponentFactory;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+
+/**
+ * Server-wide parent context holding a single instance of each {@link Shared} managed class. It is registered in
+ * Bukkit's {@link ServicesManager} and used by contexts of all plugins that use the same WitchCraft classes, so that
+ * stateless framework objects are created only once per server.
+ * <p>
+ * The shared context is registered on behalf of one of the plugins using it (the owner). When the owner is disabled,
+ * the registration is transferred to another plugin still using the shared context, so that shared objects remain
+ * available to the other plugins. When the last plugin is disabled, the registration is removed and shared objects
+ * implementing {@link AutoCloseable} are closed.
+ */
+public final class SharedContext {
+    /**
+     * Server instance, injected into shared classes.
+     */
+    private final Server server;
+
+    /**
+     * Shared objects or their {@link LazyBean} holders, by managed class.
+     */
+    private final Map<Class<?>, Object> objects = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Plugins using this context, by name.
+     */
+    private final Map<String, Plugin> users = new LinkedHashMap<>();
+
+    /**
+     * Plugin on whose behalf this context is registered in the services manager.
+     */
+    private Plugin owner;
+
+    /**
+     * Constructor.
+     * @param server server instance
+     */
+    private SharedContext(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * Get the shared context registered in the services manager, registering a new one if there is none, and record
+     * given plugin as its user.
+     * @param javaPlugin plugin instance
+     * @return shared context
+     */
+    static synchronized SharedContext acquire(JavaPlugin javaPlugin) {
+        ServicesManager servicesManager = javaPlugin.getServer().getServicesManager();
+        SharedContext sharedContext = servicesManager.load(SharedContext.class);
+        if (sharedContext == null) {
+            sharedContext = new SharedContext(javaPlugin.getServer());
+            sharedContext.owner = javaPlugin;
+            servicesManager.register(SharedContext.class, sharedContext, javaPlugin, ServicePriority.Normal);
+            javaPlugin.getLogger().info("Registered shared WitchCraft context");
+        }
+        synchronized (sharedContext) {
+            sharedContext.users.put(javaPlugin.getName(), javaPlugin);
+        }
+        return sharedContext;
+    }
+
+    /**
+     * Remove given plugin from users of this context. If the plugin owns the registration in the services manager,
+     * the registration is transferred to another user. When there are no users left, the registration is removed and
+     * shared objects are closed.
+     * @param javaPlugin plugin instance
+     */
+    void release(JavaPlugin javaPlugin) {
+        synchronized (SharedContext.class) {
+            synchronized (this) {
+                if (users.remove(javaPlugin.getName()) == null) {
+                    return;
+                }
+                ServicesManager servicesManager = server.getServicesManager();
+                if (users.isEmpty()) {
+                    servicesManager.unregister(SharedContext.class, this);
+                    owner = null;
+                    close(javaPlugin);
+                    javaPlugin.getLogger().info("Unregistered shared WitchCraft context");
+                } else if (owner == javaPlugin) {
+                    servicesManager.unregister(SharedContext.class, this);
+                    owner = users.values().iterator().next();
+                    servicesManager.register(SharedContext.class, this, owner, ServicePriority.Normal);
+                    javaPlugin.getLogger().info(String.format(
+                            "Transferred shared WitchCraft context to plugin: %s", owner.getName()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Get shared object of given class, creating it if it does not exist yet. Shared classes annotated with
+     * {@link Lazy} are returned as {@link LazyBean} holders. When two plugins create the same shared object
+     * concurrently, the first one stored is kept and returned to both.
+     * @param clazz shared class
+     * @param dependencies for each constructor parameter: the shared class to inject, or {@link Server}
+     * @return shared object or its {@link LazyBean} holder
+     * @throws InitializationFailedException when the shared object cannot be created
+     */
+    Object get(Class<?> clazz, Class<?>[] dependencies) throws InitializationFailedException {
+        Object object = objects.get(clazz);
+        if (object != null) {
+            return object;
+        }
+        Callable<Object> creator = () -> create(clazz, dependencies);
+        try {
+            object = clazz.isAnnotationPresent(Lazy.class) ? new LazyBean<>(clazz, creator) : creator.call();
+        } catch (InitializationFailedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InitializationFailedException(
+                    "Unable to create shared object of type " + clazz.getCanonicalName(), e);
+        }
+        Object existing = objects.putIfAbsent(clazz, object);
+        return existing == null ? object : existing;
+    }
+
+    /**
+     * Create shared object. Shared objects are never proxied.
+     * @param clazz shared class
+     * @param dependencies for each constructor parameter: the shared class to inject, or {@link Server}
+     * @return new shared object
+     */
+    private Object create(Class<?> clazz, Class<?>[] dependencies) throws Exception {
+        Constructor<?> constructor = clazz.getConstructors()[0];
+        Parameter[] parameterTypes = constructor.getParameters();
+        Object[] parameters = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            if (dependencies[i] == Server.class) {
+                parameters[i] = server;
+                continue;
+            }
+            Object dependency = objects.get(dependencies[i]);
+            if (dependency == null) {
+                throw new InitializationFailedException("Shared object of type " +
+                        dependencies[i].getCanonicalName() + " required by " + clazz.getCanonicalName() +
+                        " does not exist");
+            }
+            if (parameterTypes[i].getType() == LazyBean.class) {
+                parameters[i] = dependency instanceof LazyBean ? dependency : LazyBean.of(dependencies[i], dependency);
+            } else {
+                parameters[i] = dependency instanceof LazyBean ? ((LazyBean<?>) dependency).get() : dependency;
+            }
+        }
+        ComponentFactory<?> factory = WitchCraftContext.getFactory(clazz);
+        try {
+            return factory == null ? constructor.newInstance(parameters) : factory.create(parameters);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InitializationFailedException(
+                    "Unable to create shared object of type " + clazz.getCanonicalName(), t);
+        }
+    }
+
+    /**
+     * Close all created shared objects implementing {@link AutoCloseable}, in reverse order of creation.
+     * @param javaPlugin plugin instance used for logging
+     */
+    private void close(JavaPlugin javaPlugin) {
+        List<Object> created;
+        synchronized (objects) {
+            created = new ArrayList<>(objects.values());
+            objects.clear();
+        }
+        Collections.reverse(created);
+        for (Object object : created) {
+            if (object instanceof LazyBean) {
+                LazyBean<?> lazyBean = (LazyBean<?>) object;
+                object = lazyBean.isCreated() ? lazyBean.get() : null;
+            }
+            if (object instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) object).close();
+                } catch (Exception e) {
+                    javaPlugin.getLogger().log(Level.SEVERE, String.format(
+                            "Failed to close shared object %s", object.getClass().getName()), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get classes of all shared objects (including lazy objects that have not been created yet).
+     * @return shared classes, in order of creation
+     */
+    public List<Class<?>> getTypes() {
+        synchronized (objects) {
+            return new ArrayList<>(objects.keySet());
+        }
+    }
+
+    /**
+     * Get names of all plugins using this context.
+     * @return plugin names
+     */
+    public synchronized List<String> getUsers() {
+        return new ArrayList<>(users.keySet());
+    }
+
+    /**
+     * Get name of the plugin on whose behalf this context is registered in the services manager.
+     * @return owner plugin name, {@code null} if this context is no longer registered
+     */
+    public synchronized String getOwner() {
+        return owner == null ? null : owner.getName();
+    }
+}
@@ -0,0 +1,172 @@
+package com.ivan1pl.witchcraft.context;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Timings of plugin startup: duration of each startup phase and construction time of each managed class. Managed
+ * classes whose construction took longer than the configured threshold are reported as slow.
+ */
+public final class StartupReport {
+    /**
+     * Slow managed class threshold, in nanoseconds.
+     */
+    private final long slowBeanThresholdNanos;
+
+    /**
+     * Phase durations in nanoseconds, by phase name, in order the phases were first recorded.
+     */
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * Construction times of managed classes in nanoseconds, by class.
+     */
+    private final Map<Class<?>, Long> beans = new LinkedHashMap<>();
+
+    /**
+     * Create empty report.
+     * @param slowBeanThresholdMillis slow managed class threshold, in milliseconds
+     */
+    public StartupReport(long slowBeanThresholdMillis) {
+        this.slowBeanThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowBeanThresholdMillis);
+    }
+
+    /**
+     * Record duration of a startup phase. Durations recorded several times for the same phase are added together.
+     * @param phase phase name
+     * @param nanos duration, in nanoseconds
+     */
+    public synchronized void addPhase(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Record construction time of a managed class.
+     * @param clazz managed class
+     * @param nanos construction time, in nanoseconds
+     */
+    synchronized void addBean(Class<?> clazz, long nanos) {
+        beans.put(clazz, nanos);
+    }
+
+    /**
+     * Get slow managed class threshold.
+     * @return threshold, in milliseconds
+     */
+    public long getSlowBeanThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowBeanThresholdNanos);
+    }
+
+    /**
+     * Get durations of all recorded phases, in order they were first recorded.
+     * @return phase timings
+     */
+    public synchronized List<Timing> getPhases() {
+        List<Timing> result = new ArrayList<>(phases.size());
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            result.add(new Timing(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Get construction times of all managed classes, longest first.
+     * @return managed class timings
+     */
+    public synchronized List<Timing> getBeans() {
+        List<Timing> result = new ArrayList<>(beans.size());
+        for (Map.Entry<Class<?>, Long> entry : beans.entrySet()) {
+            result.add(new Timing(entry.getKey().getName(), entry.getValue()));
+        }
+        result.sort(Comparator.comparingLong(Timing::getNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Get construction times of managed classes that took longer than the threshold, longest first.
+     * @return slow managed class timings
+     */
+    public List<Timing> getSlowBeans() {
+        List<Timing> result = new ArrayList<>();
+        for (Timing timing : getBeans()) {
+            if (timing.getNanos() > slowBeanThresholdNanos) {
+                result.add(timing);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Log the report as a table. Phases and managed classes are sorted by duration, longest first. Managed classes
+     * over the threshold are logged as warnings.
+     * @param logger logger
+     */
+    public void log(Logger logger) {
+        StringBuilder table = new StringBuilder("Startup report:");
+        List<Timing> phaseTimings = getPhases();
+        phaseTimings.sort(Comparator.comparingLong(Timing::getNanos).reversed());
+        for (Timing timing : phaseTimings) {
+            table.append(String.format("%n  %10.3f ms  %s", timing.getMillis(), timing.getName()));
+        }
+        List<Timing> beanTimings = getBeans();
+        table.append(String.format("%n  Managed classes (%d):", beanTimings.size()));
+        for (Timing timing : beanTimings) {
+            table.append(String.format("%n  %10.3f ms  %s", timing.getMillis(), timing.getName()));
+        }
+        logger.info(table.toString());
+        for (Timing timing : getSlowBeans()) {
+            logger.warning(String.format("Managed class %s took %.3f ms to create (threshold: %d ms)",
+                    timing.getName(), timing.getMillis(), getSlowBeanThresholdMillis()));
+        }
+    }
+
+    /**
+     * Duration of a single startup phase or managed class construction.
+     */
+    public static final class Timing {
+        /**
+         * Phase or managed class name.
+         */
+        private final String name;
+
+        /**
+         * Duration, in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Constructor.
+         * @param name phase or managed class name
+         * @param nanos duration, in nanoseconds
+         */
+        private Timing(String name, long nanos) {
+            this.name = name;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Get phase or managed class name.
+         * @return name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get duration.
+         * @return duration, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Get duration.
+         * @return duration, in milliseconds
+         */
+        public double getMillis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -1,30 +1,106 @@
 package com.ivan1pl.witchcraft.context;
 
 import com.google.common.primitives.Primitives;
+import com.ivan1pl.witchcraft.context.annotations.ConditionalOnConfiguration;
 import com.ivan1pl.witchcraft.context.annotations.ConfigurationValue;
 import com.ivan1pl.witchcraft.context.annotations.ConfigurationValues;
+import com.ivan1pl.witchcraft.context.annotations.Lazy;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
 import com.ivan1pl.witchcraft.context.annotations.Module;
+import com.ivan1pl.witchcraft.context.annotations.PlayerScoped;
+import com.ivan1pl.witchcraft.context.annotations.Shared;
+import com.ivan1pl.witchcraft.context.config.ConfigurationBinding;
+import com.ivan1pl.witchcraft.context.config.ConfigurationListener;
 import com.ivan1pl.witchcraft.context.exception.*;
 import com.ivan1pl.witchcraft.context.proxy.Aspect;
+import com.ivan1pl.witchcraft.context.proxy.ComponentFactory;
+import com.ivan1pl.witchcraft.context.proxy.Pointcut;
 import com.ivan1pl.witchcraft.context.proxy.ProxyInvocationHandler;
+import com.ivan1pl.witchcraft.context.scan.ClasspathScanner;
+import com.ivan1pl.witchcraft.context.scan.ScanResult;
 import javassist.util.proxy.Proxy;
 import javassist.util.proxy.ProxyFactory;
+import org.bukkit.Server;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.reflections.Reflections;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.stream.Stream;
 
 /**
  * WitchCraft's dependency injection context.
  */
 public final class WitchCraftContext {
+    /**
+     * Marker for types with more than one managed object in {@link #lookup}.
+     */
+    private static final Object NON_UNIQUE = new Object();
+
+    /**
+     * Configuration key enabling parallel instantiation of managed classes.
+     */
+    private static final String PARALLEL_INIT_KEY = "witchcraft.context.parallelInit";
+
+    /**
+     * Configuration key containing number of threads used for parallel instantiation of managed classes.
+     */
+    private static final String PARALLEL_INIT_THREADS_KEY = "witchcraft.context.parallelInitThreads";
+
+    /**
+     * Configuration key containing construction time in milliseconds above which managed classes are reported as slow.
+     */
+    private static final String SLOW_BEAN_THRESHOLD_KEY = "witchcraft.context.slowBeanThresholdMillis";
+
+    /**
+     * Default construction time in milliseconds above which managed classes are reported as slow.
+     */
+    private static final long DEFAULT_SLOW_BEAN_THRESHOLD_MILLIS = 100;
+
+    /**
+     * Configuration key enabling persistent cache of the scan result and dependency graph.
+     */
+    private static final String SCAN_CACHE_KEY = "witchcraft.context.scanCache";
+
+    /**
+     * Configuration key containing number of threads used for asynchronous initialization of managed objects.
+     */
+    private static final String ASYNC_INIT_THREADS_KEY = "witchcraft.context.asyncInitThreads";
+
+    /**
+     * Configuration key containing time in milliseconds within which all managed objects should be closed on shutdown.
+     */
+    private static final String SHUTDOWN_TIMEOUT_KEY = "witchcraft.context.shutdownTimeoutMillis";
+
+    /**
+     * Default time in milliseconds within which all managed objects should be closed on shutdown.
+     */
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Configuration key enabling the server-wide shared context for {@link Shared} managed classes.
+     */
+    private static final String SHARED_CONTEXT_KEY = "witchcraft.context.sharedContext";
+
     /**
      * Plugin instance.
      */
@@ -43,13 +119,92 @@ public final class WitchCraftContext {
     /**
      * Context containing instances of all managed classes.
      */
-    private final Map<String, List<Object>> context = new HashMap<>();
+    private final Map<Class<?>, List<Object>> context = new HashMap<>();
+
+    /**
+     * Immutable lookup table created after initialization, mapping each type to its unique managed object (or to
+     * {@link #NON_UNIQUE} when there are several). It is {@code null} during initialization.
+     */
+    private volatile Map<Class<?>, Object> lookup;
 
     /**
      * Invocation handler for all managed classes.
      */
     private final ProxyInvocationHandler proxyInvocationHandler = new ProxyInvocationHandler();
 
+    /**
+     * Methods advised by each declared aspect.
+     */
+    private final Map<Class<? extends Aspect>, Pointcut> pointcuts = new LinkedHashMap<>();
+
+    /**
+     * Result of the package scan performed during initialization.
+     */
+    private ScanResult scanResult = new ScanResult();
+
+    /**
+     * Binding between plugin configuration and configuration values injected into managed classes.
+     */
+    private final ConfigurationBinding configuration;
+
+    /**
+     * Managed objects notified about configuration changes, with configuration keys injected into their constructors.
+     */
+    private final List<Map.Entry<ConfigurationListener, Set<String>>> configurationListeners =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Managed objects owned by this context (or their {@link LazyBean} and {@link PlayerScope} holders), by managed
+     * class. Objects obtained from the shared context are not included.
+     */
+    private final Map<Class<?>, Object> managedObjects = new ConcurrentHashMap<>();
+
+    /**
+     * Server-wide context holding {@link Shared} managed objects, {@code null} if it is not used.
+     */
+    private SharedContext sharedContext;
+
+    /**
+     * Dependency graph of managed classes, {@code null} until the context is initialized.
+     */
+    private DependencyGraph dependencyGraph;
+
+    /**
+     * Layers of managed classes, in order they were created.
+     */
+    private List<List<Class<?>>> layers = Collections.emptyList();
+
+    /**
+     * Readiness of managed objects, by managed class. Managed objects are ready when their asynchronous initialization
+     * and asynchronous initialization of all their dependencies has completed.
+     */
+    private final Map<Class<?>, CompletableFuture<Void>> readiness = new ConcurrentHashMap<>();
+
+    /**
+     * Readiness of all managed objects.
+     */
+    private volatile CompletableFuture<Void> contextReadiness = CompletableFuture.completedFuture(null);
+
+    /**
+     * Holders of player scoped managed objects, by managed class.
+     */
+    private final Map<Class<?>, PlayerScope<?>> playerScopes = new LinkedHashMap<>();
+
+    /**
+     * Listener evicting player scoped managed objects, {@code null} if there are no player scoped classes.
+     */
+    private PlayerScopeListener playerScopeListener;
+
+    /**
+     * Task evicting player scoped managed objects after their grace period, {@code null} if there is none.
+     */
+    private BukkitTask playerScopeEvictionTask;
+
+    /**
+     * Timings of context initialization.
+     */
+    private StartupReport startupReport = new StartupReport(DEFAULT_SLOW_BEAN_THRESHOLD_MILLIS);
+
     /**
      * Create new context for given plugin.
      * @param javaPlugin plugin instance
@@ -79,6 +234,7 @@ public final class WitchCraftContext {
         this.javaPlugin = javaPlugin;
         this.basePackages = getBasePackages(javaPlugin, basePackages);
         this.annotations = Arrays.asList(annotations);
+        this.configuration = new ConfigurationBinding(javaPlugin);
     }
 
     /**
@@ -105,79 +261,423 @@ public final class WitchCraftContext {
      * @throws InitializationFailedException when WitchCraft is unable to initialize context
      */
     public void init() throws InitializationFailedException {
-        List<Class<?>> classes = new LinkedList<>();
+        startupReport = new StartupReport(
+                javaPlugin.getConfig().getLong(SLOW_BEAN_THRESHOLD_KEY, DEFAULT_SLOW_BEAN_THRESHOLD_MILLIS));
+        long initStart = System.nanoTime();
         try {
-            for (String basePackage : basePackages) {
-                javaPlugin.getLogger().info(String.format("Starting package scan for package: %s", basePackage));
-                for (Class<? extends Annotation> annotation : annotations) {
-                    classes.addAll(new Reflections(basePackage).getTypesAnnotatedWith(annotation));
+            ComponentModelCache cache = javaPlugin.getConfig().getBoolean(SCAN_CACHE_KEY, true) ?
+                    new ComponentModelCache(javaPlugin, basePackages, annotations) : null;
+            ComponentModelCache.Model cachedModel = cache == null ? null : cache.load();
+            if (cachedModel == null) {
+                scanResult = new ClasspathScanner(
+                        javaPlugin.getLogger(), javaPlugin.getClass().getClassLoader(), annotations).scan(basePackages);
+                startupReport.addPhase("Package scan", System.nanoTime() - initStart);
+                for (String basePackage : scanResult.getBasePackages()) {
+                    startupReport.addPhase("Package scan: " + basePackage, scanResult.getScanNanos(basePackage));
                 }
-                javaPlugin.getLogger().info(String.format("Package scan completed for package: %s", basePackage));
+            } else {
+                javaPlugin.getLogger().info("Using cached component model");
+                scanResult = cachedModel.getScanResult();
+                startupReport.addPhase("Package scan (cached)", System.nanoTime() - initStart);
+            }
+            long start = System.nanoTime();
+            initPointcuts();
+            List<Class<?>> classes = new ArrayList<>();
+            for (Class<?> clazz : scanResult.getTypes()) {
+                if (isConditionMet(clazz)) {
+                    classes.add(clazz);
+                } else {
+                    javaPlugin.getLogger().info(String.format(
+                            "Skipping class %s: configuration condition not met", clazz.getName()));
+                }
+            }
+            if (cachedModel != null && cachedModel.getDependencyGraph() != null &&
+                    cachedModel.getDependencyGraph().getClasses().equals(classes)) {
+                dependencyGraph = cachedModel.getDependencyGraph();
+                layers = dependencyGraph.createLayers();
+            } else {
+                dependencyGraph = new DependencyGraph(javaPlugin.getClass(), classes);
+                layers = dependencyGraph.createLayers();
+                if (cache != null) {
+                    cache.save(scanResult, dependencyGraph);
+                }
+            }
+            startupReport.addPhase("Dependency graph", System.nanoTime() - start);
+
+            if (javaPlugin.getConfig().getBoolean(SHARED_CONTEXT_KEY, true) &&
+                    classes.stream().anyMatch(clazz -> clazz.isAnnotationPresent(Shared.class))) {
+                sharedContext = SharedContext.acquire(javaPlugin);
             }
-            Queue<Class<?>> creationQueue = new CreationQueueBuilder(javaPlugin, classes).createQueue();
 
+            start = System.nanoTime();
             add(this);
             add(javaPlugin);
+            add(configuration);
 
-            while (!creationQueue.isEmpty()) {
-                Class<?> clazz = creationQueue.poll();
-                Object instance = attemptCreate(clazz);
-                add(instance);
+            if (javaPlugin.getConfig().getBoolean(PARALLEL_INIT_KEY)) {
+                createInParallel(layers);
+            } else {
+                for (List<Class<?>> layer : layers) {
+                    for (Class<?> clazz : layer) {
+                        Object instance = createInstance(clazz);
+                        add(instance);
+                    }
+                }
             }
+            startupReport.addPhase("Managed class construction", System.nanoTime() - start);
 
+            start = System.nanoTime();
             initAspects();
+            startupReport.addPhase("Aspect registration", System.nanoTime() - start);
+            initPlayerScopes();
+            freeze();
+            initAsync();
+            startupReport.addPhase("Context initialization", System.nanoTime() - initStart);
         } catch (Exception e) {
             throw new InitializationFailedException("Failed to initialize WitchCraft context", e);
         }
     }
 
     /**
-     * Find all declared aspects and add them to invocation handler.
+     * Instantiate managed classes, creating all classes within a single layer concurrently. Instances are added to the
+     * context in the same order as in sequential mode, and when several classes fail, the error of the one that would
+     * be created first in sequential mode is reported.
+     * @param layers layers of managed classes
      */
-    private void initAspects() {
+    private void createInParallel(List<List<Class<?>>> layers) throws Exception {
+        int threads = javaPlugin.getConfig().getInt(
+                PARALLEL_INIT_THREADS_KEY, Runtime.getRuntime().availableProcessors());
+        javaPlugin.getLogger().info(String.format("Creating managed objects in parallel using %d threads", threads));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            for (List<Class<?>> layer : layers) {
+                if (layer.size() == 1) {
+                    add(createInstance(layer.get(0)));
+                    continue;
+                }
+                List<Future<Object>> futures = new ArrayList<>(layer.size());
+                for (Class<?> clazz : layer) {
+                    futures.add(executor.submit(() -> createInstance(clazz)));
+                }
+                List<Object> instances = new ArrayList<>(layer.size());
+                for (Future<Object> future : futures) {
+                    try {
+                        instances.add(future.get());
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof Error) {
+                            throw (Error) e.getCause();
+                        }
+                        throw (Exception) e.getCause();
+                    }
+                }
+                for (Object instance : instances) {
+                    add(instance);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Start asynchronous initialization of managed objects implementing {@link AsyncInitializing}. Each managed object
+     * is initialized when all its dependencies are ready.
+     */
+    private void initAsync() {
+        List<Class<?>> asyncClasses = new ArrayList<>();
+        for (List<Class<?>> layer : layers) {
+            for (Class<?> clazz : layer) {
+                if (managedObjects.get(clazz) instanceof AsyncInitializing) {
+                    asyncClasses.add(clazz);
+                }
+            }
+        }
+        if (asyncClasses.isEmpty()) {
+            return;
+        }
+        int threads = Math.max(1, javaPlugin.getConfig().getInt(
+                ASYNC_INIT_THREADS_KEY, Math.min(asyncClasses.size(), Runtime.getRuntime().availableProcessors())));
+        javaPlugin.getLogger().info(String.format(
+                "Initializing %d managed objects asynchronously using %d threads", asyncClasses.size(), threads));
+        ExecutorService executor = createDaemonExecutor(threads, "async-init");
+        for (List<Class<?>> layer : layers) {
+            for (Class<?> clazz : layer) {
+                List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+                for (Class<?> dependency : dependencyGraph.getDependencies(clazz)) {
+                    CompletableFuture<Void> dependencyReadiness = readiness.get(dependency);
+                    if (dependencyReadiness != null) {
+                        dependencies.add(dependencyReadiness);
+                    }
+                }
+                Object managedObject = managedObjects.get(clazz);
+                if (managedObject instanceof AsyncInitializing) {
+                    readiness.put(clazz, CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                            .thenRunAsync(() -> runAsyncInit(clazz, (AsyncInitializing) managedObject), executor));
+                } else if (!dependencies.isEmpty()) {
+                    readiness.put(clazz, CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0])));
+                }
+            }
+        }
+        contextReadiness = CompletableFuture.allOf(readiness.values().toArray(new CompletableFuture<?>[0]));
+        contextReadiness.whenComplete((result, e) -> {
+            executor.shutdown();
+            if (e == null) {
+                javaPlugin.getLogger().info("All managed objects are ready");
+            }
+        });
+    }
+
+    /**
+     * Create fixed size thread pool with daemon threads.
+     * @param threads number of threads
+     * @param name name of the pool, used in thread names
+     * @return thread pool
+     */
+    private ExecutorService createDaemonExecutor(int threads, String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, javaPlugin.getName() + "-" + name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run asynchronous initialization of a single managed object.
+     * @param clazz managed class
+     * @param managedObject managed object
+     */
+    private void runAsyncInit(Class<?> clazz, AsyncInitializing managedObject) {
+        long start = System.nanoTime();
+        try {
+            managedObject.initAsync();
+        } catch (Exception e) {
+            javaPlugin.getLogger().log(Level.SEVERE, String.format(
+                    "Asynchronous initialization of managed object %s failed", clazz.getName()), e);
+            throw new CompletionException(e);
+        }
+        long nanos = System.nanoTime() - start;
+        startupReport.addPhase("Asynchronous initialization: " + clazz.getName(), nanos);
+        javaPlugin.getLogger().info(String.format("Managed object %s is ready (initialized in %.3f ms)",
+                clazz.getName(), nanos / 1_000_000.0));
+    }
+
+    /**
+     * Register listener and eviction task for player scoped managed objects, if there are any.
+     */
+    private void initPlayerScopes() {
+        if (playerScopes.isEmpty()) {
+            return;
+        }
+        playerScopeListener = new PlayerScopeListener(new ArrayList<>(playerScopes.values()));
+        javaPlugin.getServer().getPluginManager().registerEvents(playerScopeListener, javaPlugin);
+        if (playerScopes.values().stream().anyMatch(PlayerScope::hasGracePeriod)) {
+            playerScopeEvictionTask = javaPlugin.getServer().getScheduler().runTaskTimer(javaPlugin, () -> {
+                for (PlayerScope<?> playerScope : playerScopes.values()) {
+                    playerScope.evictExpired();
+                }
+            }, 20, 20);
+        }
+    }
+
+    /**
+     * Find all declared aspects and determine which methods they advise.
+     * @throws InitializationFailedException when some pointcut cannot be created
+     */
+    private void initPointcuts() throws InitializationFailedException {
         for (Annotation annotation : javaPlugin.getClass().getAnnotations()) {
             Module module = annotation.annotationType().getAnnotation(Module.class);
             if (module != null) {
                 for (Class<? extends Aspect> aspect : module.aspects()) {
-                    proxyInvocationHandler.addAspect(get(aspect));
+                    if (!pointcuts.containsKey(aspect) && isConditionMet(aspect)) {
+                        pointcuts.put(aspect, Pointcut.of(aspect));
+                    }
                 }
             }
         }
     }
 
+    /**
+     * Add all declared aspects to invocation handler.
+     */
+    private void initAspects() {
+        for (Map.Entry<Class<? extends Aspect>, Pointcut> entry : pointcuts.entrySet()) {
+            proxyInvocationHandler.addAspect(get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Check whether given method is advised by any declared aspect.
+     * @param method method
+     * @return {@code true} if the method is advised, {@code false} otherwise
+     */
+    private boolean isAdvised(Method method) {
+        for (Pointcut pointcut : pointcuts.values()) {
+            if (pointcut.matches(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether any method that could be overridden by a proxy of given class is advised by any declared aspect.
+     * @param clazz class
+     * @return {@code true} if the class has advised methods, {@code false} otherwise
+     */
+    private boolean hasAdvisedMethods(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isPrivate(modifiers) &&
+                        isAdvised(method)) {
+                    return true;
+                }
+            }
+        }
+        for (Method method : clazz.getMethods()) {
+            if (isAdvised(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether given class meets its {@link ConditionalOnConfiguration} condition.
+     * @param clazz managed class
+     * @return {@code true} if the class should be added to the context, {@code false} otherwise
+     */
+    private boolean isConditionMet(Class<?> clazz) {
+        ConditionalOnConfiguration condition = clazz.getAnnotation(ConditionalOnConfiguration.class);
+        if (condition == null) {
+            return true;
+        }
+        String value = javaPlugin.getConfig().getString(condition.value());
+        if (condition.havingValue().isEmpty()) {
+            return value != null && !value.isEmpty();
+        }
+        return condition.havingValue().equals(value);
+    }
+
+    /**
+     * Create new instance of given type, or a holder that will create it on first use if the type is {@link Lazy} or
+     * {@link PlayerScoped}. Instances of {@link Shared} types are obtained from the shared context, if it is used.
+     * @param clazz requested type
+     * @return instance of given type, {@link LazyBean} holder or {@link PlayerScope} holder
+     */
+    private Object createInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException,
+            InstantiationException, InitializationFailedException, NoSuchMethodException {
+        if (sharedContext != null && clazz.isAnnotationPresent(Shared.class)) {
+            return sharedContext.get(clazz, getSharedDependencies(clazz));
+        }
+        Object instance;
+        PlayerScoped playerScoped = clazz.getAnnotation(PlayerScoped.class);
+        if (playerScoped != null) {
+            instance = new PlayerScope<>(
+                    clazz, playerScoped.gracePeriodSeconds(), playerId -> attemptCreate(clazz, playerId));
+        } else if (clazz.isAnnotationPresent(Lazy.class)) {
+            instance = new LazyBean<>(clazz, () -> attemptCreate(clazz, null));
+        } else {
+            instance = attemptCreate(clazz, null);
+        }
+        managedObjects.put(clazz, instance);
+        return instance;
+    }
+
+    /**
+     * Determine managed classes injected into constructor parameters of a shared class. Dependencies of shared classes
+     * are shared classes themselves, so they are identified by their exact class.
+     * @param clazz shared class
+     * @return for each constructor parameter: the managed class to inject, or {@link Server}
+     */
+    private Class<?>[] getSharedDependencies(Class<?> clazz) {
+        Parameter[] parameters = clazz.getConstructors()[0].getParameters();
+        Class<?>[] dependencies = new Class<?>[parameters.length];
+        for (int i = 0; i < parameters.length; ++i) {
+            if (parameters[i].getType() == Server.class) {
+                dependencies[i] = Server.class;
+            } else {
+                Object candidate = getCandidate(parameters[i].getType() == LazyBean.class ?
+                        LazyBean.getBeanType(parameters[i]) : parameters[i].getType());
+                dependencies[i] = candidate instanceof LazyBean ?
+                        ((LazyBean<?>) candidate).getType() : candidate.getClass();
+            }
+        }
+        return dependencies;
+    }
+
     /**
      * Attempt to create new instance of given type.
      * @param clazz requested type
+     * @param playerId unique id of the player for whom a player scoped object is created, {@code null} otherwise
      * @return instance of given type
      */
-    private Object attemptCreate(Class<?> clazz) throws IllegalAccessException, InvocationTargetException,
-            InstantiationException, InitializationFailedException, NoSuchMethodException {
+    private Object attemptCreate(Class<?> clazz, UUID playerId) throws IllegalAccessException,
+            InvocationTargetException, InstantiationException, InitializationFailedException, NoSuchMethodException {
         Constructor<?> constructor = clazz.getConstructors()[0];
         Parameter[] parameterTypes = constructor.getParameters();
         Object[] parameters = new Object[parameterTypes.length];
+        Set<String> configurationKeys = new LinkedHashSet<>();
         for (int i = 0; i < parameterTypes.length; ++i) {
             ConfigurationValue configurationValue = parameterTypes[i].getAnnotation(ConfigurationValue.class);
             if (configurationValue == null) {
                 ConfigurationValues configurationValues = parameterTypes[i].getAnnotation(ConfigurationValues.class);
                 if (configurationValues == null) {
-                    parameters[i] = get(parameterTypes[i].getType());
+                    parameters[i] = resolveParameter(parameterTypes[i], playerId);
                 } else if (!parameterTypes[i].getType().isAssignableFrom(Properties.class)) {
                     throw new InitializationFailedException("Parameter " + parameterTypes[i].getName() + " of type " +
                             parameterTypes[i].getType().getCanonicalName() + " cannot be assigned from " +
                             Properties.class.getCanonicalName());
                 } else {
-                    parameters[i] = createProperties(configurationValues);
+                    parameters[i] = createProperties(configurationValues, configurationKeys);
                 }
             } else {
-                parameters[i] = javaPlugin.getConfig().getObject(
-                        configurationValue.value(), Primitives.wrap(parameterTypes[i].getType()), null);
+                parameters[i] = configuration.accessor(
+                        configurationValue.value(), Primitives.wrap(parameterTypes[i].getType())).get();
+                configurationKeys.add(configurationValue.value());
             }
         }
-        return createProxy(clazz, parameterTypes, parameters);
+        long start = System.nanoTime();
+        Object instance = createProxy(clazz, parameterTypes, parameters);
+        if (playerId != null) {
+            return instance;
+        }
+        startupReport.addBean(clazz, System.nanoTime() - start);
+        if (instance instanceof ConfigurationListener) {
+            configurationListeners.add(new AbstractMap.SimpleImmutableEntry<>(
+                    (ConfigurationListener) instance, Collections.unmodifiableSet(configurationKeys)));
+        }
+        return instance;
     }
 
     /**
-     * Create proxy of given class. This will create proxy of any given class except aspects.
+     * Resolve value of a constructor parameter that is not a configuration value.
+     * @param parameter constructor parameter
+     * @param playerId unique id of the player for whom a player scoped object is created, {@code null} otherwise
+     * @return parameter value
+     */
+    private Object resolveParameter(Parameter parameter, UUID playerId) {
+        if (parameter.getType() == LazyBean.class) {
+            return getLazyBean(LazyBean.getBeanType(parameter));
+        }
+        if (parameter.getType() == PlayerScope.class) {
+            return getPlayerScope(LazyBean.getBeanType(parameter));
+        }
+        if (parameter.getType() == UUID.class && playerId != null) {
+            return playerId;
+        }
+        if (parameter.getType() == Server.class) {
+            return javaPlugin.getServer();
+        }
+        return get(parameter.getType());
+    }
+
+    /**
+     * Create proxy of given class. This will create proxy of any given class except aspects, listeners, shared classes
+     * and classes without any methods advised by declared aspects. Only advised methods are intercepted by the proxy.
+     * When the class has a factory generated at compile time, the factory is used instead of reflection and runtime
+     * proxies.
      * @param clazz class to proxy
      * @param parameterDefinitions constructor parameter definitions
      * @param parameters constructor parameters
@@ -185,27 +685,66 @@ public final class WitchCraftContext {
      */
     private Object createProxy(Class<?> clazz, Parameter[] parameterDefinitions, Object[] parameters)
             throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        ComponentFactory<?> factory = getFactory(clazz);
         Class<?>[] parameterTypes = Stream.of(parameterDefinitions).map(Parameter::getType).toArray(Class[]::new);
-        if (Aspect.class.isAssignableFrom(clazz) || Listener.class.isAssignableFrom(clazz)) {
-            return clazz.getConstructor(parameterTypes).newInstance(parameters);
-        } else {
-            ProxyFactory f = new ProxyFactory();
-            f.setSuperclass(clazz);
-            Class<?> proxyClass = f.createClass();
-            Proxy proxy = (Proxy) proxyClass.getConstructor(parameterTypes).newInstance(parameters);
-            proxy.setHandler(proxyInvocationHandler);
-            return proxy;
+        try {
+            if (Aspect.class.isAssignableFrom(clazz) || Listener.class.isAssignableFrom(clazz) ||
+                    clazz.isAnnotationPresent(Shared.class) || !hasAdvisedMethods(clazz)) {
+                return factory == null ?
+                        clazz.getConstructor(parameterTypes).newInstance(parameters) : factory.create(parameters);
+            }
+            if (factory != null) {
+                Object proxy = factory.createProxy(proxyInvocationHandler, this::isAdvised, parameters);
+                if (proxy != null) {
+                    return proxy;
+                }
+            }
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException |
+                RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
         }
+        ProxyFactory f = new ProxyFactory();
+        f.setSuperclass(clazz);
+        f.setFilter(this::isAdvised);
+        long start = System.nanoTime();
+        Class<?> proxyClass = f.createClass();
+        startupReport.addPhase("Proxy class generation", System.nanoTime() - start);
+        Proxy proxy = (Proxy) proxyClass.getConstructor(parameterTypes).newInstance(parameters);
+        proxy.setHandler(proxyInvocationHandler);
+        return proxy;
+    }
+
+    /**
+     * Get factory of given class, generated at compile time.
+     * @param clazz managed class
+     * @return factory, or {@code null} if there is no generated factory
+     */
+    static ComponentFactory<?> getFactory(Class<?> clazz) {
+        try {
+            Class<?> factoryClass = Class.forName(
+                    clazz.getName() + ComponentFactory.FACTORY_SUFFIX, true, clazz.getClassLoader());
+            if (ComponentFactory.class.isAssignableFrom(factoryClass)) {
+                return (ComponentFactory<?>) factoryClass.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // no usable generated factory, fall back to reflection
+        }
+        return null;
     }
 
     /**
      * Create and fill {@link Properties} instance from configuration values.
+     * @param configurationValues configuration keys
+     * @param configurationKeys set to which all used configuration keys are added
      */
-    private Properties createProperties(ConfigurationValues configurationValues) {
+    private Properties createProperties(ConfigurationValues configurationValues, Set<String> configurationKeys) {
         Properties properties = new Properties();
         for (String key : configurationValues.keys()) {
             String configKey = configurationValues.prefix().isEmpty() ? key : configurationValues.prefix() + "." + key;
-            String value = javaPlugin.getConfig().getString(configKey);
+            configurationKeys.add(configKey);
+            String value = configuration.stringAccessor(configKey).get();
             if (value != null && !value.isEmpty()) {
                 properties.setProperty(key, value);
             }
@@ -218,13 +757,20 @@ public final class WitchCraftContext {
      * @param object object to add
      */
     private void add(Object object) {
-        Class<?> clazz = object.getClass();
+        if (object instanceof PlayerScope) {
+            playerScopes.put(((PlayerScope<?>) object).getType(), (PlayerScope<?>) object);
+            return;
+        }
+        Class<?> clazz = object instanceof LazyBean ? ((LazyBean<?>) object).getType() : object.getClass();
+        Set<Class<?>> visited = new HashSet<>();
         Queue<Class<?>> classes = new LinkedList<>();
         classes.add(clazz);
         while (!classes.isEmpty()) {
             Class<?> c = classes.poll();
-            List<Object> objects = context.computeIfAbsent(c.getCanonicalName(), o -> new LinkedList<>());
-            objects.add(object);
+            if (!visited.add(c)) {
+                continue;
+            }
+            context.computeIfAbsent(c, o -> new ArrayList<>(1)).add(object);
             classes.addAll(Arrays.asList(c.getInterfaces()));
             c = c.getSuperclass();
             if (c != null) {
@@ -234,15 +780,27 @@ public final class WitchCraftContext {
     }
 
     /**
-     * Get all managed objects for given type.
-     * @param type type
-     * @return all managed objects of given type
+     * Create immutable lookup table with unique candidates for all types resolved ahead of time. After this method
+     * is invoked, all lookups are served from this table and are safe to perform from any thread.
      */
-    private List<Object> getCandidatesForType(Class<?> type) {
-        if (type == null) {
-            return new ArrayList<>();
+    private void freeze() {
+        Map<Class<?>, Object> result = new HashMap<>(context.size() * 2);
+        for (Map.Entry<Class<?>, List<Object>> entry : context.entrySet()) {
+            result.put(entry.getKey(), resolve(entry.getValue()));
+        }
+        lookup = Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Resolve the managed object for given type from its list of candidates.
+     * @param candidates all managed objects of given type
+     * @return unique managed object, {@link #NON_UNIQUE} if there are several or {@code null} if there are none
+     */
+    private static Object resolve(List<Object> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
         }
-        return context.getOrDefault(type.getCanonicalName(), new ArrayList<>());
+        return candidates.size() > 1 ? NON_UNIQUE : candidates.get(0);
     }
 
     /**
@@ -250,112 +808,281 @@ public final class WitchCraftContext {
      * @param clazz class object
      * @param <T> requested object type
      * @return object of the required type
+     * @throws LazyInitializationException when the object is lazy and cannot be created
      */
     @SuppressWarnings("unchecked")
     public <T> T get(Class<T> clazz) {
-        List<Object> candidates = getCandidatesForType(clazz);
-        if (candidates.size() > 1) {
+        Object candidate = getCandidate(clazz);
+        if (candidate instanceof LazyBean) {
+            return ((LazyBean<T>) candidate).get();
+        }
+        return (T) candidate;
+    }
+
+    /**
+     * Get holder of the object of given type from context, without creating the object if it is lazy.
+     * @param clazz class object
+     * @param <T> requested object type
+     * @return holder of the object of the required type
+     */
+    @SuppressWarnings("unchecked")
+    private <T> LazyBean<T> getLazyBean(Class<T> clazz) {
+        Object candidate = getCandidate(clazz);
+        if (candidate instanceof LazyBean) {
+            return (LazyBean<T>) candidate;
+        }
+        return LazyBean.of(clazz, candidate);
+    }
+
+    /**
+     * Get unique candidate for given type.
+     * @param clazz class object
+     * @return managed object or its {@link LazyBean} holder
+     */
+    private Object getCandidate(Class<?> clazz) {
+        Map<Class<?>, Object> lookup = this.lookup;
+        Object candidate = lookup == null ? resolve(context.get(clazz)) : lookup.get(clazz);
+        if (candidate == NON_UNIQUE) {
             throw new NonUniqueCandidateException("Non unique candidate of type " + clazz.getCanonicalName());
         }
-        if (candidates.isEmpty()) {
+        if (candidate == null) {
             throw new CandidateNotFoundException(
                     "Candidate of type " + clazz.getCanonicalName() + " could not be found");
         }
-        return (T) candidates.get(0);
+        return candidate;
     }
 
     /**
-     * Clear the context.
-     * <p>
-     * Warning: the plugin might not work properly after invoking this method.
+     * Get result of the package scan performed during initialization. It contains classes annotated with any of the
+     * annotations marking managed classes, found in all scanned packages.
+     * @return scan result
      */
-    public void clear() {
-        context.clear();
+    public ScanResult getScanResult() {
+        return scanResult;
     }
 
     /**
-     * Builder class for creating instantiation queue.
+     * Get timings of context initialization. Construction of lazy managed classes is recorded when they are created.
+     * @return startup report
      */
-    private static class CreationQueueBuilder {
-        private final Map<Class<?>, List<Class<?>>> before = new HashMap<>();
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
 
-        /**
-         * Create builder instance.
-         * @param javaPlugin plugin instance
-         * @param classes managed classes
-         * @throws InitializationFailedException when queue cannot be initialized
-         * @throws UnsatisfiedDependencyException when the builder is unable to determine unique dependency for some
-         *                                        class
-         */
-        CreationQueueBuilder(JavaPlugin javaPlugin, List<Class<?>> classes)
-                throws InitializationFailedException, UnsatisfiedDependencyException {
-            for (Class<?> clazz : classes) {
-                Constructor<?>[] constructors = clazz.getConstructors();
-                if (constructors.length != 1) {
-                    throw new InitializationFailedException("Unable to instantiate class: " + clazz.getCanonicalName() +
-                            ". Invalid number of constructors (required exactly 1)");
-                }
-                Constructor<?> constructor = constructors[0];
-                List<Class<?>> beforeClass = before.computeIfAbsent(clazz, c -> new LinkedList<>());
-                for (Parameter parameter : constructor.getParameters()) {
-                    if (!parameter.getType().isAssignableFrom(javaPlugin.getClass()) &&
-                            !parameter.getType().isAssignableFrom(WitchCraftContext.class) &&
-                            parameter.getAnnotation(ConfigurationValue.class) == null &&
-                            parameter.getAnnotation(ConfigurationValues.class) == null) {
-                        int numElements = 0;
-                        for (Class<?> depClass : classes) {
-                            if (parameter.getType().isAssignableFrom(depClass)) {
-                                beforeClass.add(depClass);
-                                numElements++;
-                            }
-                        }
-                        if (numElements == 0) {
-                            throw new UnsatisfiedDependencyException("Could not instantiate parameter of type " +
-                                    parameter.getType().getCanonicalName() + " while attempting to build an object of type " +
-                                    clazz.getCanonicalName() + ": no candidates found");
-                        }
-                        if (numElements > 1) {
-                            throw new UnsatisfiedDependencyException("Could not instantiate parameter of type " +
-                                    parameter.getType().getCanonicalName() + " while attempting to build an object of type " +
-                                    clazz.getCanonicalName() + ": multiple candidates found");
-                        }
-                    }
+    /**
+     * Get readiness of managed object of given type. The returned future completes when asynchronous initialization
+     * of the object and all its dependencies has completed, and completes exceptionally if any of them has failed.
+     * Managed objects that don't need asynchronous initialization are ready immediately. If the type is not a managed
+     * class, the future completes when all managed objects assignable to it are ready.
+     * @param clazz managed class
+     * @return readiness future
+     */
+    public CompletableFuture<Void> getReadiness(Class<?> clazz) {
+        CompletableFuture<Void> result = readiness.get(clazz);
+        if (result == null) {
+            List<CompletableFuture<Void>> matches = new ArrayList<>();
+            for (Map.Entry<Class<?>, CompletableFuture<Void>> entry : readiness.entrySet()) {
+                if (clazz.isAssignableFrom(entry.getKey())) {
+                    matches.add(entry.getValue());
                 }
             }
+            if (matches.size() == 1) {
+                return matches.get(0);
+            }
+            return CompletableFuture.allOf(matches.toArray(new CompletableFuture<?>[0]));
         }
+        return result;
+    }
 
-        /**
-         * Create queue containing classes in order they should be instantiated.
-         * @return instantiation queue
-         * @throws DependencyCycleException when there is a dependency cycle
-         */
-        Queue<Class<?>> createQueue() throws DependencyCycleException {
-            Queue<Class<?>> result = new LinkedList<>();
-            while (!before.isEmpty()) {
-                Class<?> nextElement = getAnySatisfied();
-                if (nextElement == null) {
-                    throw new DependencyCycleException("Detected cycle in dependency graph, unable to instantiate");
-                }
-                result.add(nextElement);
-                for (List<Class<?>> beforeList : before.values()) {
-                    beforeList.remove(nextElement);
+    /**
+     * Get readiness of all managed objects.
+     * @return future completing when all managed objects are ready
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return contextReadiness;
+    }
+
+    /**
+     * Get holder of player scoped managed objects of given type.
+     * @param clazz player scoped class
+     * @param <T> requested object type
+     * @return holder of player scoped objects
+     * @throws CandidateNotFoundException when given class is not a player scoped managed class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PlayerScope<T> getPlayerScope(Class<T> clazz) {
+        PlayerScope<T> playerScope = (PlayerScope<T>) playerScopes.get(clazz);
+        if (playerScope == null) {
+            throw new CandidateNotFoundException(
+                    "Player scoped candidate of type " + clazz.getCanonicalName() + " could not be found");
+        }
+        return playerScope;
+    }
+
+    /**
+     * Get holders of all player scoped managed objects, e.g. to inspect their statistics.
+     * @return holders of player scoped objects
+     */
+    public Collection<PlayerScope<?>> getPlayerScopes() {
+        return Collections.unmodifiableCollection(playerScopes.values());
+    }
+
+    /**
+     * Get binding between plugin configuration and configuration values used by managed classes and commands.
+     * @return configuration binding
+     */
+    public ConfigurationBinding getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Read all bound configuration values again and notify managed objects implementing
+     * {@link ConfigurationListener} about the change. This should be called after the plugin configuration has been
+     * reloaded.
+     */
+    public void reloadConfiguration() {
+        Set<String> changedKeys = Collections.unmodifiableSet(configuration.reload());
+        if (changedKeys.isEmpty()) {
+            return;
+        }
+        javaPlugin.getLogger().info(String.format("Configuration values changed: %s", String.join(", ", changedKeys)));
+        for (Map.Entry<ConfigurationListener, Set<String>> listener : configurationListeners) {
+            if (listener.getValue().isEmpty() || !Collections.disjoint(listener.getValue(), changedKeys)) {
+                try {
+                    listener.getKey().onConfigurationChanged(configuration.getSnapshot(), changedKeys);
+                } catch (RuntimeException e) {
+                    javaPlugin.getLogger().log(Level.SEVERE, "Configuration listener failed", e);
                 }
-                before.remove(nextElement);
             }
-            return result;
         }
+    }
 
-        /**
-         * Get any element with no further unsatisfied dependencies.
-         * @return any element with no unsatisfied dependencies
-         */
-        private Class<?> getAnySatisfied() {
-            for (Map.Entry<Class<?>, List<Class<?>>> entry : before.entrySet()) {
-                if (entry.getValue().isEmpty()) {
-                    return entry.getKey();
+    /**
+     * Close all managed objects implementing {@link AutoCloseable}, in reverse dependency order: each managed object
+     * is closed after all managed objects depending on it have been closed, and independent managed objects are
+     * closed in parallel. Pending asynchronous initialization is awaited first. The whole shutdown is limited by
+     * {@code witchcraft.context.shutdownTimeoutMillis}, managed objects not closed within that time are reported and
+     * left behind.
+     */
+    public void shutdown() {
+        long timeoutMillis = javaPlugin.getConfig().getLong(SHUTDOWN_TIMEOUT_KEY, DEFAULT_SHUTDOWN_TIMEOUT_MILLIS);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        awaitUntil(contextReadiness, deadline, "Asynchronous initialization");
+        Map<Class<?>, AutoCloseable> closeables = new HashMap<>();
+        for (Map.Entry<Class<?>, Object> entry : managedObjects.entrySet()) {
+            Object managedObject = entry.getValue();
+            if (managedObject instanceof LazyBean) {
+                LazyBean<?> lazyBean = (LazyBean<?>) managedObject;
+                managedObject = lazyBean.isCreated() ? lazyBean.get() : null;
+            }
+            if (managedObject instanceof AutoCloseable) {
+                closeables.put(entry.getKey(), (AutoCloseable) managedObject);
+            }
+        }
+        if (closeables.isEmpty() || dependencyGraph == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = createDaemonExecutor(
+                Math.min(closeables.size(), Runtime.getRuntime().availableProcessors()), "shutdown");
+        Map<Class<?>, CompletableFuture<Void>> closed = new HashMap<>();
+        try {
+            for (int i = layers.size() - 1; i >= 0; --i) {
+                for (Class<?> clazz : layers.get(i)) {
+                    List<CompletableFuture<Void>> dependents = new ArrayList<>();
+                    for (Class<?> dependent : dependencyGraph.getDependents(clazz)) {
+                        dependents.add(closed.get(dependent));
+                    }
+                    CompletableFuture<Void> dependentsClosed =
+                            CompletableFuture.allOf(dependents.toArray(new CompletableFuture<?>[0]));
+                    AutoCloseable closeable = closeables.get(clazz);
+                    closed.put(clazz, closeable == null ? dependentsClosed :
+                            dependentsClosed.thenRunAsync(() -> close(clazz, closeable), executor));
                 }
             }
-            return null;
+            awaitUntil(CompletableFuture.allOf(closed.values().toArray(new CompletableFuture<?>[0])), deadline,
+                    "Shutdown");
+            for (Class<?> clazz : closeables.keySet()) {
+                if (!closed.get(clazz).isDone()) {
+                    javaPlugin.getLogger().warning(String.format(
+                            "Managed object %s was not closed within %d ms", clazz.getName(), timeoutMillis));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        javaPlugin.getLogger().info(String.format("Closed %d managed objects in %.3f ms",
+                closeables.size(), (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    /**
+     * Close a single managed object. Failures are logged and do not prevent other managed objects from being closed.
+     * @param clazz managed class
+     * @param closeable managed object
+     */
+    private void close(Class<?> clazz, AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            javaPlugin.getLogger().log(Level.SEVERE, String.format(
+                    "Failed to close managed object %s", clazz.getName()), e);
+        }
+    }
+
+    /**
+     * Wait for given future to complete, but not longer than until given deadline.
+     * @param future future to wait for
+     * @param deadline deadline ({@link System#nanoTime()})
+     * @param description description of the awaited operation, used in log messages
+     */
+    private void awaitUntil(CompletableFuture<?> future, long deadline, String description) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            javaPlugin.getLogger().warning(String.format("%s did not complete in time", description));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // failures are reported when they happen
+        }
+    }
+
+    /**
+     * Get the server-wide context holding {@link Shared} managed objects.
+     * @return shared context, {@code null} if it is not used
+     */
+    public SharedContext getSharedContext() {
+        return sharedContext;
+    }
+
+    /**
+     * Clear the context and stop using the shared context. Shared objects remain available to other plugins and are
+     * closed when the last plugin using them is cleared.
+     * <p>
+     * Warning: the plugin might not work properly after invoking this method.
+     */
+    public void clear() {
+        if (sharedContext != null) {
+            sharedContext.release(javaPlugin);
+            sharedContext = null;
+        }
+        lookup = Collections.emptyMap();
+        context.clear();
+        configurationListeners.clear();
+        managedObjects.clear();
+        readiness.clear();
+        dependencyGraph = null;
+        layers = Collections.emptyList();
+        if (playerScopeEvictionTask != null) {
+            playerScopeEvictionTask.cancel();
+            playerScopeEvictionTask = null;
+        }
+        if (playerScopeListener != null) {
+            HandlerList.unregisterAll(playerScopeListener);
+            playerScopeListener = null;
+        }
+        for (PlayerScope<?> playerScope : playerScopes.values()) {
+            playerScope.clear();
         }
     }
 }
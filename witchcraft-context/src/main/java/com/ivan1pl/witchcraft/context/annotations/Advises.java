@@ -0,0 +1,25 @@
+package com.ivan1pl.witchcraft.context.annotations;
+
+import com.ivan1pl.witchcraft.context.proxy.MethodMatcher;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation used to limit the methods advised by an aspect. A method is advised if it (or the class declaring it) is
+ * annotated with any of the listed annotations, or if any of the listed matchers accepts it. Aspects without this
+ * annotation advise all methods of all managed classes.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Advises {
+    /**
+     * Annotations marking advised methods (or classes).
+     */
+    Class<? extends Annotation>[] value() default {};
+
+    /**
+     * Matchers selecting advised methods. Each matcher should have a public no-argument constructor.
+     */
+    Class<? extends MethodMatcher>[] matchers() default {};
+}
@@ -0,0 +1,22 @@
+package com.ivan1pl.witchcraft.context.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation marking managed classes that should only be added to the context when a configuration value is set.
+ * Classes not meeting the condition are never instantiated, and aspects not meeting it advise no methods.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnConfiguration {
+    /**
+     * Configuration key.
+     */
+    String value();
+
+    /**
+     * Required configuration value. If empty, any non-empty value meets the condition.
+     */
+    String havingValue() default "";
+}
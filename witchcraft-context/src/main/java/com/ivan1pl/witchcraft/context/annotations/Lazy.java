@@ -0,0 +1,15 @@
+package com.ivan1pl.witchcraft.context.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation marking managed classes that should not be instantiated during context initialization. Lazy classes are
+ * instantiated the first time they are requested from the context, either directly or as a dependency of another
+ * class. Classes depending on a lazy class through a {@link com.ivan1pl.witchcraft.context.LazyBean} parameter do not
+ * cause its instantiation until {@link com.ivan1pl.witchcraft.context.LazyBean#get()} is invoked.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+}
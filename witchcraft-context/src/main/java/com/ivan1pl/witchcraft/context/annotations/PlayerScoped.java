@@ -0,0 +1,20 @@
+package com.ivan1pl.witchcraft.context.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation marking managed classes that have a separate instance for each player. Instances are created on first use
+ * and evicted when the player leaves the server. Other managed classes can access them through a
+ * {@link com.ivan1pl.witchcraft.context.PlayerScope} constructor parameter. A constructor parameter of type
+ * {@link java.util.UUID} receives the unique id of the player the instance is created for.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PlayerScoped {
+    /**
+     * Time in seconds after the player leaves the server before the instance is evicted. If the player joins again
+     * within this time, the instance is kept. Instances are evicted immediately when the value is {@code 0}.
+     */
+    long gracePeriodSeconds() default 0;
+}
@@ -0,0 +1,15 @@
+package com.ivan1pl.witchcraft.context.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation marking stateless managed classes that can be shared by all plugins using the same WitchCraft classes.
+ * Instances of shared classes are held by {@link com.ivan1pl.witchcraft.context.SharedContext} and created only once
+ * per server. Shared classes may only depend on other shared classes (directly or through
+ * {@link com.ivan1pl.witchcraft.context.LazyBean}), they are never proxied and never closed by plugin contexts.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Shared {
+}
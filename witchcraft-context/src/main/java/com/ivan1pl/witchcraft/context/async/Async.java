@@ -0,0 +1,18 @@
+package com.ivan1pl.witchcraft.context.async;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Methods in managed classes can be annotated with this annotation to execute them on the {@link AsyncExecutor}
+ * instead of the calling thread. Annotated methods must return {@code void}, {@link java.util.concurrent.Future},
+ * {@link java.util.concurrent.CompletionStage} or {@link java.util.concurrent.CompletableFuture}. The invocation
+ * returns immediately with a future completed with the result of the method (or the result of the future returned by
+ * the method), or completed exceptionally with the exception thrown by the method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Async {
+}
@@ -0,0 +1,161 @@
+package com.ivan1pl.witchcraft.context.async;
+
+import com.ivan1pl.witchcraft.context.annotations.Advises;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.exception.UnsupportedAsyncMethodException;
+import com.ivan1pl.witchcraft.context.proxy.Aspect;
+import com.ivan1pl.witchcraft.context.proxy.InvocationCallback;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Aspect executing methods annotated with {@link Async} on the {@link AsyncExecutor}.
+ */
+@Managed
+@Advises(Async.class)
+public class AsyncAspect implements Aspect {
+    /**
+     * Executor running asynchronous methods.
+     */
+    private final AsyncExecutor asyncExecutor;
+
+    /**
+     * Constructor.
+     * @param asyncExecutor executor running asynchronous methods
+     */
+    public AsyncAspect(AsyncExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Execute advice that should happen before method execution. This aspect does not execute any operations.
+     *
+     * @param self   the proxy instance
+     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *               abstract or declared in the interface
+     * @param originalMethod overridden method
+     * @param args   an array of objects containing the values of the arguments passed in the method invocation on the
+     *               proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
+     *               class
+     */
+    @Override
+    public void beforeMethod(Object self, Method method, Method originalMethod, Object[] args) {
+    }
+
+    /**
+     * Execute advice that should happen after method execution. This aspect does not execute any operations.
+     *
+     * @param self   the proxy instance
+     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *               abstract or declared in the interface
+     * @param originalMethod overridden method
+     * @param args   an array of objects containing the values of the arguments passed in the method invocation on the
+     *               proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
+     *               class
+     */
+    @Override
+    public void afterMethod(Object self, Method method, Method originalMethod, Object[] args) {
+    }
+
+    /**
+     * Execute advice that should happen around method execution. This aspect passes the invocation (including all
+     * advices with lower priority) to the executor and returns a future of its result.
+     *
+     * @param proceed proceed logic, containing the method for which the advice is being created and the logic of all
+     *                advices with lower priority than this one.
+     * @return an invocation callback to be passed as {@code proceed} method to the advice around this one
+     */
+    @Override
+    public InvocationCallback aroundMethod(InvocationCallback proceed) {
+        return (self, method, originalMethod, args) -> {
+            if (!originalMethod.isAnnotationPresent(Async.class)) {
+                return proceed.apply(self, method, originalMethod, args);
+            }
+            Class<?> returnType = originalMethod.getReturnType();
+            if (returnType == void.class) {
+                asyncExecutor.execute(() -> {
+                    try {
+                        proceed.apply(self, method, originalMethod, args);
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable t) {
+                        throw new CompletionException(t);
+                    }
+                }, String.format("Asynchronous method %s.%s",
+                        originalMethod.getDeclaringClass().getName(), originalMethod.getName()));
+                return null;
+            }
+            if (returnType == Object.class || !returnType.isAssignableFrom(CompletableFuture.class)) {
+                throw new UnsupportedAsyncMethodException(String.format(
+                        "Asynchronous method %s.%s must return void or CompletableFuture, but it returns %s",
+                        originalMethod.getDeclaringClass().getName(), originalMethod.getName(),
+                        returnType.getName()));
+            }
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            asyncExecutor.submit(() -> {
+                try {
+                    return proceed.apply(self, method, originalMethod, args);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            }).whenComplete((value, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(unwrap(e));
+                } else if (value instanceof CompletionStage) {
+                    ((CompletionStage<?>) value).whenComplete((stageValue, stageException) -> {
+                        if (stageException != null) {
+                            result.completeExceptionally(unwrap(stageException));
+                        } else {
+                            result.complete(stageValue);
+                        }
+                    });
+                } else if (value instanceof Future) {
+                    try {
+                        result.complete(((Future<?>) value).get());
+                    } catch (ExecutionException futureException) {
+                        result.completeExceptionally(unwrap(futureException));
+                    } catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                        result.completeExceptionally(interruptedException);
+                    }
+                } else {
+                    result.complete(value);
+                }
+            });
+            return result;
+        };
+    }
+
+    /**
+     * Get the exception thrown by the asynchronous method from the exception completing its future.
+     * @param t exception completing the future
+     * @return exception thrown by the method
+     */
+    private static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException ||
+                t instanceof InvocationTargetException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * Get execution priority of this aspect. The lower the number, the earlier it will be executed. This aspect is
+     * executed before all other advices (except caching), so that they run on the executor thread together with the
+     * method.
+     *
+     * @return aspect priority
+     */
+    @Override
+    public int getPriority() {
+        return Integer.MIN_VALUE + 1;
+    }
+}
@@ -0,0 +1,458 @@
+package com.ivan1pl.witchcraft.context.async;
+
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Bounded executor running {@link Async} methods. The number of threads and the capacity of the queue of pending
+ * tasks are limited; when the queue is full, tasks are handled according to the configured {@link OverflowPolicy}.
+ * The executor can use virtual threads when they are supported by the Java runtime.
+ */
+@Managed
+public class AsyncExecutor implements AutoCloseable {
+    /**
+     * Configuration key containing the maximum number of threads.
+     */
+    private static final String THREADS_KEY = "witchcraft.async.threads";
+
+    /**
+     * Configuration key containing the maximum number of pending tasks.
+     */
+    private static final String QUEUE_CAPACITY_KEY = "witchcraft.async.queueCapacity";
+
+    /**
+     * Default maximum number of pending tasks.
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Configuration key containing the {@link OverflowPolicy}.
+     */
+    private static final String OVERFLOW_POLICY_KEY = "witchcraft.async.overflowPolicy";
+
+    /**
+     * Configuration key enabling virtual threads.
+     */
+    private static final String VIRTUAL_THREADS_KEY = "witchcraft.async.virtualThreads";
+
+    /**
+     * Time in seconds after which idle threads are stopped.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
+    /**
+     * Behaviour when the queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Queue of pending tasks.
+     */
+    private final BlockingQueue<Runnable> queue;
+
+    /**
+     * Wrapped executor.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Whether the executor uses virtual threads.
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * Largest observed number of pending tasks.
+     */
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    /**
+     * Total number of submitted tasks.
+     */
+    private final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * Total number of tasks completed successfully.
+     */
+    private final AtomicLong completed = new AtomicLong();
+
+    /**
+     * Total number of tasks that threw an exception.
+     */
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Total number of rejected tasks.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Total number of tasks executed on the calling thread because the queue was full.
+     */
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    /**
+     * Constructor.
+     * @param javaPlugin plugin instance
+     */
+    public AsyncExecutor(JavaPlugin javaPlugin) {
+        this.javaPlugin = javaPlugin;
+        int threads = Math.max(1, javaPlugin.getConfig().getInt(
+                THREADS_KEY, Runtime.getRuntime().availableProcessors()));
+        int queueCapacity = Math.max(1, javaPlugin.getConfig().getInt(QUEUE_CAPACITY_KEY, DEFAULT_QUEUE_CAPACITY));
+        this.overflowPolicy = getOverflowPolicy(javaPlugin);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        ThreadFactory threadFactory = javaPlugin.getConfig().getBoolean(VIRTUAL_THREADS_KEY) ?
+                createVirtualThreadFactory() : null;
+        this.virtualThreads = threadFactory != null;
+        if (threadFactory == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = r -> {
+                Thread thread = new Thread(r, javaPlugin.getName() + "-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue,
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        javaPlugin.getLogger().info(String.format(
+                "Async executor started with %d %s threads, queue capacity %d and overflow policy %s",
+                threads, virtualThreads ? "virtual" : "platform", queueCapacity, overflowPolicy));
+    }
+
+    /**
+     * Read overflow policy from configuration.
+     * @param javaPlugin plugin instance
+     * @return configured overflow policy, {@link OverflowPolicy#REJECT} if it is not set or invalid
+     */
+    private static OverflowPolicy getOverflowPolicy(JavaPlugin javaPlugin) {
+        String value = javaPlugin.getConfig().getString(OVERFLOW_POLICY_KEY);
+        if (value == null || value.isEmpty()) {
+            return OverflowPolicy.REJECT;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            javaPlugin.getLogger().warning(String.format(
+                    "Invalid value of %s: %s, using %s", OVERFLOW_POLICY_KEY, value, OverflowPolicy.REJECT));
+            return OverflowPolicy.REJECT;
+        }
+    }
+
+    /**
+     * Create factory of virtual threads. Virtual threads are only available since Java 21, so they are created through
+     * reflection.
+     * @return thread factory, or {@code null} if virtual threads are not supported
+     */
+    private ThreadFactory createVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, javaPlugin.getName() + "-async-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            javaPlugin.getLogger().warning("Virtual threads are not supported by this Java runtime, using platform " +
+                    "threads instead");
+            return null;
+        }
+    }
+
+    /**
+     * Execute given task asynchronously. Exceptions thrown by the task are logged.
+     * @param task task to execute
+     * @throws RejectedExecutionException when the queue is full and the overflow policy is
+     *                                    {@link OverflowPolicy#REJECT}, or when the executor has been closed
+     */
+    public void execute(Runnable task) {
+        execute(task, "Asynchronous task");
+    }
+
+    /**
+     * Execute given task asynchronously. Exceptions thrown by the task are logged.
+     * @param task task to execute
+     * @param description description of the task, used in log messages
+     * @throws RejectedExecutionException when the queue is full and the overflow policy is
+     *                                    {@link OverflowPolicy#REJECT}, or when the executor has been closed
+     */
+    void execute(Runnable task, String description) {
+        dispatch(() -> {
+            try {
+                task.run();
+                completed.incrementAndGet();
+            } catch (RuntimeException | Error e) {
+                failed.incrementAndGet();
+                javaPlugin.getLogger().log(Level.SEVERE, String.format("%s failed", description),
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        });
+    }
+
+    /**
+     * Execute given task asynchronously.
+     * @param task task to execute
+     * @param <T> result type
+     * @return future completed with the result of the task, or completed exceptionally with the exception thrown by
+     *         the task or with {@link RejectedExecutionException} if the task has been rejected
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            dispatch(() -> {
+                try {
+                    result.complete(task.call());
+                    completed.incrementAndGet();
+                } catch (Exception | Error e) {
+                    failed.incrementAndGet();
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Pass task to the wrapped executor, applying the overflow policy if the queue is full.
+     * @param task task to execute
+     * @throws RejectedExecutionException when the task has been rejected
+     */
+    private void dispatch(Runnable task) {
+        submitted.incrementAndGet();
+        try {
+            executor.execute(task);
+            peakQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        } catch (RejectedExecutionException e) {
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS && !executor.isShutdown()) {
+                callerRuns.incrementAndGet();
+                task.run();
+            } else {
+                rejected.incrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Get current statistics of this executor.
+     * @return statistics
+     */
+    public Statistics getStatistics() {
+        return new Statistics(executor.getPoolSize(), executor.getActiveCount(), queue.size(),
+                queue.remainingCapacity(), peakQueueDepth.get(), submitted.get(), completed.get(), failed.get(),
+                rejected.get(), callerRuns.get());
+    }
+
+    /**
+     * Check whether this executor uses virtual threads.
+     * @return {@code true} if virtual threads are used, {@code false} otherwise
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stop accepting new tasks and wait for all pending tasks to complete. If the waiting thread is interrupted (e.g.
+     * because shutdown timeout has elapsed), running tasks are interrupted and pending tasks are dropped.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                javaPlugin.getLogger().info(String.format(
+                        "Waiting for %d asynchronous tasks to complete", queue.size() + executor.getActiveCount()));
+            }
+        } catch (InterruptedException e) {
+            List<Runnable> dropped = executor.shutdownNow();
+            javaPlugin.getLogger().warning(String.format("Dropped %d pending asynchronous tasks", dropped.size()));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Statistics of an asynchronous executor.
+     */
+    public static final class Statistics {
+        /**
+         * Number of threads.
+         */
+        private final int threads;
+
+        /**
+         * Number of threads executing tasks.
+         */
+        private final int activeThreads;
+
+        /**
+         * Number of pending tasks.
+         */
+        private final int queueDepth;
+
+        /**
+         * Number of tasks that can be queued before the overflow policy applies.
+         */
+        private final int remainingCapacity;
+
+        /**
+         * Largest observed number of pending tasks.
+         */
+        private final int peakQueueDepth;
+
+        /**
+         * Total number of submitted tasks.
+         */
+        private final long submitted;
+
+        /**
+         * Total number of tasks completed successfully.
+         */
+        private final long completed;
+
+        /**
+         * Total number of tasks that threw an exception.
+         */
+        private final long failed;
+
+        /**
+         * Total number of rejected tasks.
+         */
+        private final long rejected;
+
+        /**
+         * Total number of tasks executed on the calling thread.
+         */
+        private final long callerRuns;
+
+        /**
+         * Constructor.
+         * @param threads number of threads
+         * @param activeThreads number of threads executing tasks
+         * @param queueDepth number of pending tasks
+         * @param remainingCapacity number of tasks that can be queued
+         * @param peakQueueDepth largest observed number of pending tasks
+         * @param submitted total number of submitted tasks
+         * @param completed total number of tasks completed successfully
+         * @param failed total number of tasks that threw an exception
+         * @param rejected total number of rejected tasks
+         * @param callerRuns total number of tasks executed on the calling thread
+         */
+        private Statistics(int threads, int activeThreads, int queueDepth, int remainingCapacity, int peakQueueDepth,
+                           long submitted, long completed, long failed, long rejected, long callerRuns) {
+            this.threads = threads;
+            this.activeThreads = activeThreads;
+            this.queueDepth = queueDepth;
+            this.remainingCapacity = remainingCapacity;
+            this.peakQueueDepth = peakQueueDepth;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.rejected = rejected;
+            this.callerRuns = callerRuns;
+        }
+
+        /**
+         * Get number of threads.
+         * @return number of threads
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Get number of threads executing tasks.
+         * @return number of active threads
+         */
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        /**
+         * Get number of pending tasks.
+         * @return queue depth
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Get number of tasks that can be queued before the overflow policy applies.
+         * @return remaining queue capacity
+         */
+        public int getRemainingCapacity() {
+            return remainingCapacity;
+        }
+
+        /**
+         * Get largest observed number of pending tasks.
+         * @return peak queue depth
+         */
+        public int getPeakQueueDepth() {
+            return peakQueueDepth;
+        }
+
+        /**
+         * Get total number of submitted tasks.
+         * @return number of submitted tasks
+         */
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        /**
+         * Get total number of tasks completed successfully.
+         * @return number of completed tasks
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * Get total number of tasks that threw an exception.
+         * @return number of failed tasks
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Get total number of rejected tasks.
+         * @return number of rejected tasks
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Get total number of tasks executed on the calling thread because the queue was full.
+         * @return number of tasks executed on the calling thread
+         */
+        public long getCallerRuns() {
+            return callerRuns;
+        }
+
+        /**
+         * Get string representation of the statistics.
+         * @return string representation
+         */
+        @Override
+        public String toString() {
+            return String.format("%d/%d threads active, %d queued (peak %d, %d free), %d submitted, %d completed, " +
+                            "%d failed, %d rejected, %d run by caller", activeThreads, threads, queueDepth,
+                    peakQueueDepth, remainingCapacity, submitted, completed, failed, rejected, callerRuns);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ivan1pl.witchcraft.context.async;
+
+/**
+ * Behaviour of {@link AsyncExecutor} when its queue is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Reject the task. Futures of rejected {@link Async} methods are completed exceptionally with
+     * {@link java.util.concurrent.RejectedExecutionException}, and {@link Async} methods returning {@code void} throw
+     * it to the caller.
+     */
+    REJECT,
+
+    /**
+     * Execute the task on the calling thread, which slows the caller down until the queue drains.
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,196 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import com.ivan1pl.witchcraft.context.annotations.Advises;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.annotations.PlayerScoped;
+import com.ivan1pl.witchcraft.context.proxy.Aspect;
+import com.ivan1pl.witchcraft.context.proxy.InvocationCallback;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aspect caching results of methods annotated with {@link Cached} and removing them from caches when methods
+ * annotated with {@link CacheEvict} are invoked.
+ */
+@Managed
+@Advises({Cached.class, CacheEvict.class})
+public class CacheAspect implements Aspect {
+    /**
+     * Value stored in caches in place of {@code null} results.
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * Whether classes have a separate instance for each player, in which case results are cached per instance.
+     */
+    private static final ClassValue<Boolean> PER_INSTANCE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                if (c.isAnnotationPresent(PlayerScoped.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Cache registry.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * Caches used by {@link Cached} methods, resolved on first invocation.
+     */
+    private final Map<Method, TinyLfuCache<Object, Object>> methodCaches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * @param cacheManager cache registry
+     */
+    public CacheAspect(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Execute advice that should happen before method execution. This aspect does not execute any operations.
+     *
+     * @param self   the proxy instance
+     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *               abstract or declared in the interface
+     * @param originalMethod overridden method
+     * @param args   an array of objects containing the values of the arguments passed in the method invocation on the
+     *               proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
+     *               class
+     */
+    @Override
+    public void beforeMethod(Object self, Method method, Method originalMethod, Object[] args) {
+    }
+
+    /**
+     * Execute advice that should happen after method execution. This aspect does not execute any operations.
+     *
+     * @param self   the proxy instance
+     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *               abstract or declared in the interface
+     * @param originalMethod overridden method
+     * @param args   an array of objects containing the values of the arguments passed in the method invocation on the
+     *               proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
+     *               class
+     */
+    @Override
+    public void afterMethod(Object self, Method method, Method originalMethod, Object[] args) {
+    }
+
+    /**
+     * Execute advice that should happen around method execution. This aspect returns the cached result if there is
+     * one, otherwise it invokes the method and caches its result. Results are removed from caches after successful
+     * invocation of {@link CacheEvict} methods.
+     *
+     * @param proceed proceed logic, containing the method for which the advice is being created and the logic of all
+     *                advices with lower priority than this one.
+     * @return an invocation callback to be passed as {@code proceed} method to the advice around this one
+     */
+    @Override
+    public InvocationCallback aroundMethod(InvocationCallback proceed) {
+        return (self, method, originalMethod, args) -> {
+            Cached cached = originalMethod.getAnnotation(Cached.class);
+            Object result;
+            if (cached == null) {
+                result = proceed.apply(self, method, originalMethod, args);
+            } else {
+                TinyLfuCache<Object, Object> cache = methodCaches.computeIfAbsent(originalMethod,
+                        m -> cacheManager.getCache(getCacheName(m, cached), cached.maximumSize(),
+                                cached.ttlSeconds()));
+                CacheKey key = new CacheKey(getTarget(self), args);
+                Object value = cache.get(key);
+                if (value != null) {
+                    return value == NULL ? null : value;
+                }
+                result = proceed.apply(self, method, originalMethod, args);
+                cache.put(key, result == null ? NULL : result);
+                if (result instanceof CompletableFuture) {
+                    Object future = result;
+                    ((CompletableFuture<?>) result).whenComplete((futureResult, e) -> {
+                        if (e != null) {
+                            cache.invalidate(key, future);
+                        }
+                    });
+                }
+            }
+            CacheEvict cacheEvict = originalMethod.getAnnotation(CacheEvict.class);
+            if (cacheEvict != null) {
+                evict(cacheEvict, self, args);
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Remove results from caches listed in {@link CacheEvict} annotation.
+     * @param cacheEvict annotation
+     * @param self the proxy instance
+     * @param args method arguments
+     */
+    private void evict(CacheEvict cacheEvict, Object self, Object[] args) {
+        CacheKey key = cacheEvict.allEntries() ? null : new CacheKey(getTarget(self), args);
+        for (String name : cacheEvict.value()) {
+            TinyLfuCache<Object, Object> cache = cacheManager.getCache(name);
+            if (cache != null) {
+                if (key == null) {
+                    cache.invalidateAll();
+                } else {
+                    cache.invalidate(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get instance identifying cached results of given proxy instance.
+     * @param self the proxy instance
+     * @return the proxy instance if it is one of many instances of its class (e.g. of a player scoped class),
+     *         {@code null} if its results are shared
+     */
+    private static Object getTarget(Object self) {
+        return PER_INSTANCE.get(self.getClass()) ? self : null;
+    }
+
+    /**
+     * Get name of the cache used by given method. The default name contains parameter types, so that overloaded
+     * methods do not share a cache.
+     * @param method cached method
+     * @param cached annotation
+     * @return cache name
+     */
+    private static String getCacheName(Method method, Cached cached) {
+        if (!cached.value().isEmpty()) {
+            return cached.value();
+        }
+        StringBuilder name = new StringBuilder(method.getDeclaringClass().getName())
+                .append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(parameterTypes[i].getTypeName());
+        }
+        return name.append(')').toString();
+    }
+
+    /**
+     * Get execution priority of this aspect. The lower the number, the earlier it will be executed. This aspect is
+     * executed first, so that cached results are returned without executing any other advices.
+     *
+     * @return aspect priority
+     */
+    @Override
+    public int getPriority() {
+        return Integer.MIN_VALUE;
+    }
+}
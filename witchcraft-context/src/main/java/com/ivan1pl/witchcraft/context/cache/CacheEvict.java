@@ -0,0 +1,25 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Methods in managed classes can be annotated with this annotation to remove results from caches after successful
+ * invocation. By default, the result cached for the same arguments as the arguments of the annotated method is
+ * removed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheEvict {
+    /**
+     * Names of caches to remove results from.
+     */
+    String[] value();
+
+    /**
+     * Remove all results from the caches instead of the result cached for the method arguments.
+     */
+    boolean allEntries() default false;
+}
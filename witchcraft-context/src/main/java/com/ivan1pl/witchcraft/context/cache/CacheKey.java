@@ -0,0 +1,83 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * Cache key consisting of method arguments and, for methods of managed classes with more than one instance, the
+ * instance on which the method was invoked.
+ */
+final class CacheKey {
+    /**
+     * Instance on which the method was invoked, compared by identity; {@code null} if results are shared by all
+     * instances. The reference is weak, so that cached results do not keep instances (e.g. of players that left the
+     * server) alive; keys of collected instances are never matched again and expire with their results.
+     */
+    private final WeakReference<Object> target;
+
+    /**
+     * Method arguments.
+     */
+    private final Object[] args;
+
+    /**
+     * Hash code, computed once.
+     */
+    private final int hashCode;
+
+    /**
+     * Constructor.
+     * @param target instance on which the method was invoked, {@code null} if results are shared by all instances
+     * @param args method arguments
+     */
+    CacheKey(Object target, Object[] args) {
+        this.target = target == null ? null : new WeakReference<>(target);
+        this.args = args == null ? new Object[0] : args.clone();
+        this.hashCode = 31 * System.identityHashCode(target) + Arrays.deepHashCode(this.args);
+    }
+
+    /**
+     * Check whether this key is equal to another object.
+     * @param o other object
+     * @return {@code true} if the other object is a key of the same instance with equal arguments, {@code false}
+     *         otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey cacheKey = (CacheKey) o;
+        return hashCode == cacheKey.hashCode && getTarget() == cacheKey.getTarget() &&
+                (target == null) == (cacheKey.target == null) && Arrays.deepEquals(args, cacheKey.args);
+    }
+
+    /**
+     * Get instance on which the method was invoked.
+     * @return instance, {@code null} if results are shared by all instances or the instance was collected
+     */
+    private Object getTarget() {
+        return target == null ? null : target.get();
+    }
+
+    /**
+     * Get hash code of this key.
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Get string representation of this key.
+     * @return string representation
+     */
+    @Override
+    public String toString() {
+        return Arrays.deepToString(args);
+    }
+}
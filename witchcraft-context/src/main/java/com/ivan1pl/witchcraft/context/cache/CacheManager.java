@@ -0,0 +1,58 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of named caches used by {@link Cached} and {@link CacheEvict} methods.
+ */
+@Managed
+public class CacheManager {
+    /**
+     * Caches by name.
+     */
+    private final Map<String, TinyLfuCache<Object, Object>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Get cache with given name, creating it if it does not exist. When the cache already exists, its size and time
+     * to live are not changed.
+     * @param name cache name
+     * @param maximumSize maximum number of cached values
+     * @param ttlSeconds time in seconds after which cached values expire, not positive if they don't expire
+     * @return cache
+     */
+    public TinyLfuCache<Object, Object> getCache(String name, long maximumSize, long ttlSeconds) {
+        return caches.computeIfAbsent(name, n -> new TinyLfuCache<>(n, maximumSize, ttlSeconds, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Get cache with given name.
+     * @param name cache name
+     * @return cache, or {@code null} if it does not exist
+     */
+    public TinyLfuCache<Object, Object> getCache(String name) {
+        return caches.get(name);
+    }
+
+    /**
+     * Get all caches.
+     * @return all caches
+     */
+    public Collection<TinyLfuCache<Object, Object>> getCaches() {
+        return new ArrayList<>(caches.values());
+    }
+
+    /**
+     * Remove all values from all caches.
+     */
+    public void invalidateAll() {
+        for (TinyLfuCache<Object, Object> cache : caches.values()) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Methods in managed classes can be annotated with this annotation to cache their results. The result is cached by
+ * method arguments, and subsequent invocations with equal arguments return the cached result without invoking the
+ * method. Results of methods returning {@link java.util.concurrent.CompletableFuture} are cached as futures, and
+ * removed from the cache if the future completes exceptionally. Methods of
+ * {@link com.ivan1pl.witchcraft.context.annotations.PlayerScoped} classes cache results separately for each instance.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+    /**
+     * Cache name. If not set, the fully qualified name of the method with its parameter types is used. Methods
+     * sharing a cache should have different parameter types, otherwise their results would be mixed up.
+     */
+    String value() default "";
+
+    /**
+     * Maximum number of cached results. When it is exceeded, results that are used least frequently are evicted.
+     */
+    long maximumSize() default 1000;
+
+    /**
+     * Time in seconds after which a cached result expires. Results never expire if it is not positive.
+     */
+    long ttlSeconds() default 0;
+}
@@ -0,0 +1,17 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import com.ivan1pl.witchcraft.context.annotations.Module;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enable method result caching module.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Module(aspects = CacheAspect.class)
+public @interface EnableCaching {
+}
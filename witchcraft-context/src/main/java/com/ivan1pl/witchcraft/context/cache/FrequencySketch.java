@@ -0,0 +1,133 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+/**
+ * Count-min sketch estimating how often keys were accessed, using four 4-bit counters per key. Counters are halved
+ * periodically, so that the estimate reflects recent popularity rather than all-time popularity. This class is not
+ * thread safe.
+ */
+final class FrequencySketch {
+    /**
+     * Seeds of the hash functions.
+     */
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    /**
+     * Mask selecting the least significant 3 bits of each counter, used to halve the counters.
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * Counters, 16 per table element.
+     */
+    private final long[] table;
+
+    /**
+     * Mask selecting table index from a hash.
+     */
+    private final int tableMask;
+
+    /**
+     * Number of counter increments after which all counters are halved.
+     */
+    private final int sampleSize;
+
+    /**
+     * Number of counter increments since the counters were last halved.
+     */
+    private int size;
+
+    /**
+     * Create sketch for a cache of given size.
+     * @param maximumSize maximum cache size
+     */
+    FrequencySketch(long maximumSize) {
+        int capacity = (int) Math.min(Math.max(maximumSize, 16), 1 << 30);
+        int tableSize = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get estimated number of recent accesses of given key.
+     * @param key key
+     * @return estimated frequency, from 0 to 15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; ++i) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Record access of given key.
+     * @param key key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; ++i) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Increment counter, unless it has reached its maximum value.
+     * @param index table index
+     * @param counter counter within the table element
+     * @return {@code true} if the counter has been incremented, {@code false} otherwise
+     */
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halve all counters.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; ++i) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    /**
+     * Get table index of given hash for the hash function with given number.
+     * @param hash key hash
+     * @param i hash function number
+     * @return table index
+     */
+    private int indexOf(int hash, int i) {
+        long result = (hash + SEEDS[i]) * SEEDS[i];
+        result += result >>> 32;
+        return (int) result & tableMask;
+    }
+
+    /**
+     * Improve distribution of a hash code.
+     * @param hash hash code
+     * @return improved hash
+     */
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
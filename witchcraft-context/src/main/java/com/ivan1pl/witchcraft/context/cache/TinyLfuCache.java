@@ -0,0 +1,689 @@
+package com.ivan1pl.witchcraft.context.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded concurrent cache using the W-TinyLFU eviction policy. New entries are added to a small LRU window; entries
+ * leaving the window are admitted to the main space (a segmented LRU with probation and protected segments) only if
+ * they are accessed more frequently than the entry that would be evicted instead, as estimated by a
+ * {@link FrequencySketch}. This keeps popular entries in the cache even when many entries are accessed only once.
+ * <p>
+ * Each entry can have its own time to live. Reads are lock free; access order is updated on a best-effort basis and
+ * skipped when another thread is updating the eviction policy.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class TinyLfuCache<K, V> {
+    /**
+     * Node is not linked in any segment.
+     */
+    private static final int NONE = 0;
+
+    /**
+     * Node is linked in the window segment.
+     */
+    private static final int WINDOW = 1;
+
+    /**
+     * Node is linked in the probation segment.
+     */
+    private static final int PROBATION = 2;
+
+    /**
+     * Node is linked in the protected segment.
+     */
+    private static final int PROTECTED = 3;
+
+    /**
+     * Cache name.
+     */
+    private final String name;
+
+    /**
+     * Maximum number of entries.
+     */
+    private final long maximumSize;
+
+    /**
+     * Default time to live of entries in nanoseconds, 0 if entries don't expire by default.
+     */
+    private final long ttlNanos;
+
+    /**
+     * Maximum number of entries in the window segment.
+     */
+    private final long windowMaximum;
+
+    /**
+     * Maximum number of entries in the protected segment.
+     */
+    private final long protectedMaximum;
+
+    /**
+     * Entries by key.
+     */
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    /**
+     * Lock guarding the eviction policy (segments and frequency sketch).
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Frequency sketch.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Window segment.
+     */
+    private final Segment<K, V> window = new Segment<>(WINDOW);
+
+    /**
+     * Probation segment of the main space.
+     */
+    private final Segment<K, V> probation = new Segment<>(PROBATION);
+
+    /**
+     * Protected segment of the main space.
+     */
+    private final Segment<K, V> protectedSegment = new Segment<>(PROTECTED);
+
+    /**
+     * Number of cache hits.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of cache misses.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of entries evicted because the cache was full.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Number of entries removed because they expired.
+     */
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Create cache.
+     * @param name cache name
+     * @param maximumSize maximum number of entries
+     * @param ttl default time to live of entries, not positive if entries don't expire by default
+     * @param unit time unit of {@code ttl}
+     */
+    public TinyLfuCache(String name, long maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum cache size must be positive");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl > 0 ? unit.toNanos(ttl) : 0;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (maximumSize - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Get cached value.
+     * @param key key
+     * @return cached value, or {@code null} if there is no value cached for given key or it has expired
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            if (evictionLock.tryLock()) {
+                try {
+                    sketch.increment(key);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            return null;
+        }
+        if (node.isExpired(System.nanoTime())) {
+            misses.increment();
+            if (data.remove(key, node)) {
+                expirations.increment();
+                evictionLock.lock();
+                try {
+                    unlink(node);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            return null;
+        }
+        hits.increment();
+        if (evictionLock.tryLock()) {
+            try {
+                sketch.increment(key);
+                onAccess(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Cache value with the default time to live.
+     * @param key key
+     * @param value value
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cache value with given time to live.
+     * @param key key
+     * @param value value
+     * @param ttl time to live, not positive if the value should not expire
+     * @param unit time unit of {@code ttl}
+     */
+    public void put(K key, V value, long ttl, TimeUnit unit) {
+        long expiresAt = ttl > 0 ? System.nanoTime() + unit.toNanos(ttl) : 0;
+        Node<K, V> node = new Node<>(key, value, expiresAt);
+        evictionLock.lock();
+        try {
+            Node<K, V> previous = data.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            sketch.increment(key);
+            window.addLast(node);
+            removeExpired(System.nanoTime());
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Remove value cached for given key.
+     * @param key key
+     */
+    public void invalidate(K key) {
+        Node<K, V> node = data.remove(key);
+        if (node != null) {
+            evictionLock.lock();
+            try {
+                unlink(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove value cached for given key, only if it is the given value.
+     * @param key key
+     * @param value expected value
+     */
+    public void invalidate(K key, V value) {
+        Node<K, V> node = data.get(key);
+        if (node != null && node.value == value && data.remove(key, node)) {
+            evictionLock.lock();
+            try {
+                unlink(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove all cached values.
+     */
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Get cache name.
+     * @return cache name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get number of cached values, including expired values that have not been removed yet.
+     * @return number of cached values
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * Get current statistics of this cache.
+     * @return statistics
+     */
+    public Statistics getStatistics() {
+        return new Statistics(name, data.size(), maximumSize, hits.sum(), misses.sum(), evictions.sum(),
+                expirations.sum());
+    }
+
+    /**
+     * Update access order after a cache hit. Entries accessed in the probation segment are promoted to the protected
+     * segment, demoting the least recently used protected entries if it is full.
+     * @param node accessed node
+     */
+    private void onAccess(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                protectedSegment.addLast(node);
+                while (protectedSegment.size > protectedMaximum) {
+                    probation.addLast(protectedSegment.removeFirst());
+                }
+                break;
+            case PROTECTED:
+                protectedSegment.moveToLast(node);
+                break;
+            default:
+                // node has already been removed
+                break;
+        }
+    }
+
+    /**
+     * Evict entries until the cache is within its bounds. Entries leaving the window compete with the probation
+     * segment's least recently used entry, and the one accessed less frequently is evicted.
+     */
+    private void evict() {
+        while (window.size > windowMaximum) {
+            Node<K, V> candidate = window.removeFirst();
+            if (window.size + probation.size + protectedSegment.size < maximumSize) {
+                probation.addLast(candidate);
+                continue;
+            }
+            Node<K, V> victim = probation.first != null ? probation.first : protectedSegment.first;
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                unlink(victim);
+                evictNode(victim);
+                probation.addLast(candidate);
+            } else {
+                evictNode(candidate);
+            }
+        }
+    }
+
+    /**
+     * Remove expired entries from the least recently used ends of all segments.
+     * @param now current time ({@link System#nanoTime()})
+     */
+    private void removeExpired(long now) {
+        removeExpired(window, now);
+        removeExpired(probation, now);
+        removeExpired(protectedSegment, now);
+    }
+
+    /**
+     * Remove expired entries from the least recently used end of a segment.
+     * @param segment segment
+     * @param now current time ({@link System#nanoTime()})
+     */
+    private void removeExpired(Segment<K, V> segment, long now) {
+        while (segment.first != null && segment.first.isExpired(now)) {
+            Node<K, V> node = segment.removeFirst();
+            if (data.remove(node.key, node)) {
+                expirations.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove node from the data map as a result of eviction.
+     * @param node evicted node
+     */
+    private void evictNode(Node<K, V> node) {
+        if (data.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Unlink node from the segment it belongs to.
+     * @param node node
+     */
+    private void unlink(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Cache entry, linked in one of the segments.
+     * @param <K> key type
+     * @param <V> value type
+     */
+    private static final class Node<K, V> {
+        /**
+         * Key.
+         */
+        private final K key;
+
+        /**
+         * Value.
+         */
+        private final V value;
+
+        /**
+         * Expiration time ({@link System#nanoTime()}), 0 if the entry doesn't expire.
+         */
+        private final long expiresAt;
+
+        /**
+         * Segment the node is linked in.
+         */
+        private int segment = NONE;
+
+        /**
+         * Previous node in the segment.
+         */
+        private Node<K, V> previous;
+
+        /**
+         * Next node in the segment.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Constructor.
+         * @param key key
+         * @param value value
+         * @param expiresAt expiration time, 0 if the entry doesn't expire
+         */
+        private Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Check whether this entry has expired.
+         * @param now current time ({@link System#nanoTime()})
+         * @return {@code true} if the entry has expired, {@code false} otherwise
+         */
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes in access order, least recently used first.
+     * @param <K> key type
+     * @param <V> value type
+     */
+    private static final class Segment<K, V> {
+        /**
+         * Segment identifier.
+         */
+        private final int id;
+
+        /**
+         * Least recently used node.
+         */
+        private Node<K, V> first;
+
+        /**
+         * Most recently used node.
+         */
+        private Node<K, V> last;
+
+        /**
+         * Number of nodes.
+         */
+        private long size;
+
+        /**
+         * Constructor.
+         * @param id segment identifier
+         */
+        private Segment(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Add node as the most recently used one.
+         * @param node node
+         */
+        private void addLast(Node<K, V> node) {
+            node.segment = id;
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        /**
+         * Remove node from this segment.
+         * @param node node
+         */
+        private void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.segment = NONE;
+            size--;
+        }
+
+        /**
+         * Remove the least recently used node.
+         * @return removed node
+         */
+        private Node<K, V> removeFirst() {
+            Node<K, V> node = first;
+            remove(node);
+            return node;
+        }
+
+        /**
+         * Mark node as the most recently used one.
+         * @param node node
+         */
+        private void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        /**
+         * Remove all nodes.
+         */
+        private void clear() {
+            for (Node<K, V> node = first; node != null; ) {
+                Node<K, V> next = node.next;
+                node.previous = null;
+                node.next = null;
+                node.segment = NONE;
+                node = next;
+            }
+            first = null;
+            last = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * Statistics of a cache.
+     */
+    public static final class Statistics {
+        /**
+         * Cache name.
+         */
+        private final String name;
+
+        /**
+         * Number of cached values.
+         */
+        private final long size;
+
+        /**
+         * Maximum number of cached values.
+         */
+        private final long maximumSize;
+
+        /**
+         * Number of cache hits.
+         */
+        private final long hits;
+
+        /**
+         * Number of cache misses.
+         */
+        private final long misses;
+
+        /**
+         * Number of values evicted because the cache was full.
+         */
+        private final long evictions;
+
+        /**
+         * Number of values removed because they expired.
+         */
+        private final long expirations;
+
+        /**
+         * Constructor.
+         * @param name cache name
+         * @param size number of cached values
+         * @param maximumSize maximum number of cached values
+         * @param hits number of cache hits
+         * @param misses number of cache misses
+         * @param evictions number of evicted values
+         * @param expirations number of expired values
+         */
+        private Statistics(String name, long size, long maximumSize, long hits, long misses, long evictions,
+                           long expirations) {
+            this.name = name;
+            this.size = size;
+            this.maximumSize = maximumSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        /**
+         * Get cache name.
+         * @return cache name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get number of cached values.
+         * @return number of cached values
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Get maximum number of cached values.
+         * @return maximum number of cached values
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * Get number of cache hits.
+         * @return number of cache hits
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Get number of cache misses.
+         * @return number of cache misses
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Get ratio of cache hits to all lookups.
+         * @return hit ratio, 1 if there were no lookups
+         */
+        public double getHitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+        /**
+         * Get number of values evicted because the cache was full.
+         * @return number of evicted values
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Get number of values removed because they expired.
+         * @return number of expired values
+         */
+        public long getExpirations() {
+            return expirations;
+        }
+
+        /**
+         * Get string representation of the statistics.
+         * @return string representation
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: %d/%d entries, %d hits, %d misses (%.1f%% hit ratio), %d evicted, %d expired",
+                    name, size, maximumSize, hits, misses, getHitRatio() * 100, evictions, expirations);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ivan1pl.witchcraft.context.config;
+
+/**
+ * Compiled accessor of a single configuration value. Reading a value is an array access in the current
+ * {@link ConfigurationSnapshot}.
+ * @param <T> value type
+ */
+public final class ConfigurationAccessor<T> {
+    /**
+     * Binding owning the accessor.
+     */
+    private final ConfigurationBinding binding;
+
+    /**
+     * Configuration key.
+     */
+    private final String key;
+
+    /**
+     * Value type.
+     */
+    private final Class<T> type;
+
+    /**
+     * Slot in configuration snapshots.
+     */
+    private final int slot;
+
+    /**
+     * Constructor.
+     * @param binding binding owning the accessor
+     * @param key configuration key
+     * @param type value type
+     * @param slot slot in configuration snapshots
+     */
+    ConfigurationAccessor(ConfigurationBinding binding, String key, Class<T> type, int slot) {
+        this.binding = binding;
+        this.key = key;
+        this.type = type;
+        this.slot = slot;
+    }
+
+    /**
+     * Get configuration key.
+     * @return configuration key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get value type.
+     * @return value type
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Get value from the current snapshot.
+     * @return configuration value or {@code null} if it is not set or has a different type
+     */
+    public T get() {
+        return get(binding.getSnapshot());
+    }
+
+    /**
+     * Get value from given snapshot.
+     * @param snapshot configuration snapshot
+     * @return configuration value or {@code null} if it is not set or has a different type
+     */
+    T get(ConfigurationSnapshot snapshot) {
+        return type.cast(snapshot.getValue(slot));
+    }
+}
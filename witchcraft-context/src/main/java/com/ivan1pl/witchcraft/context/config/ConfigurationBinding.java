@@ -0,0 +1,161 @@
+package com.ivan1pl.witchcraft.context.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.*;
+
+/**
+ * Binding between plugin configuration and compiled configuration value accessors. Each referenced key is resolved
+ * once into an immutable {@link ConfigurationSnapshot}. When the configuration is reloaded, a new snapshot is created
+ * and swapped in atomically, so readers always see a consistent set of values.
+ */
+public final class ConfigurationBinding {
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
+    /**
+     * Bound values, by slot.
+     */
+    private final List<BoundValue> boundValues = new ArrayList<>();
+
+    /**
+     * Accessors of bound values, by key and value type.
+     */
+    private final Map<String, ConfigurationAccessor<?>> accessors = new HashMap<>();
+
+    /**
+     * Current snapshot.
+     */
+    private volatile ConfigurationSnapshot snapshot = new ConfigurationSnapshot(0, new Object[0]);
+
+    /**
+     * Create binding for given plugin.
+     * @param javaPlugin plugin instance
+     */
+    public ConfigurationBinding(JavaPlugin javaPlugin) {
+        this.javaPlugin = javaPlugin;
+    }
+
+    /**
+     * Get current snapshot.
+     * @return current configuration snapshot
+     */
+    public ConfigurationSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get accessor of configuration value of given type. The value is read with
+     * {@link ConfigurationSection#getObject(String, Class, Object)}, so it is {@code null} if the configuration value
+     * has a different type.
+     * @param key configuration key
+     * @param type value type (primitive types are not supported, use their wrappers instead)
+     * @param <T> value type
+     * @return accessor
+     */
+    public <T> ConfigurationAccessor<T> accessor(String key, Class<T> type) {
+        return bind(key, type, false);
+    }
+
+    /**
+     * Get accessor of configuration value converted to string. The value is read with
+     * {@link ConfigurationSection#getString(String)}.
+     * @param key configuration key
+     * @return accessor
+     */
+    public ConfigurationAccessor<String> stringAccessor(String key) {
+        return bind(key, String.class, true);
+    }
+
+    /**
+     * Get accessor of a configuration value, binding it if necessary. A newly bound value is added to the current
+     * snapshot.
+     * @param key configuration key
+     * @param type value type
+     * @param string whether the value should be converted to string
+     * @param <T> value type
+     * @return accessor
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> ConfigurationAccessor<T> bind(String key, Class<T> type, boolean string) {
+        String id = (string ? "string:" : type.getName() + ":") + key;
+        ConfigurationAccessor<T> accessor = (ConfigurationAccessor<T>) accessors.get(id);
+        if (accessor == null) {
+            BoundValue boundValue = new BoundValue(key, type, string);
+            accessor = new ConfigurationAccessor<>(this, key, type, boundValues.size());
+            boundValues.add(boundValue);
+            accessors.put(id, accessor);
+            ConfigurationSnapshot current = snapshot;
+            Object[] values = new Object[boundValues.size()];
+            for (int i = 0; i < current.size(); ++i) {
+                values[i] = current.getValue(i);
+            }
+            values[values.length - 1] = boundValue.read(javaPlugin.getConfig());
+            snapshot = new ConfigurationSnapshot(current.getVersion(), values);
+        }
+        return accessor;
+    }
+
+    /**
+     * Read all bound values from the plugin configuration and swap in the new snapshot.
+     * @return keys whose values have changed
+     */
+    public synchronized Set<String> reload() {
+        ConfigurationSnapshot current = snapshot;
+        ConfigurationSection config = javaPlugin.getConfig();
+        Object[] values = new Object[boundValues.size()];
+        Set<String> changedKeys = new LinkedHashSet<>();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = boundValues.get(i).read(config);
+            if (!Objects.equals(values[i], current.getValue(i))) {
+                changedKeys.add(boundValues.get(i).key);
+            }
+        }
+        snapshot = new ConfigurationSnapshot(current.getVersion() + 1, values);
+        return changedKeys;
+    }
+
+    /**
+     * Configuration value bound to a snapshot slot.
+     */
+    private static final class BoundValue {
+        /**
+         * Configuration key.
+         */
+        private final String key;
+
+        /**
+         * Value type.
+         */
+        private final Class<?> type;
+
+        /**
+         * Whether the value should be converted to string.
+         */
+        private final boolean string;
+
+        /**
+         * Constructor.
+         * @param key configuration key
+         * @param type value type
+         * @param string whether the value should be converted to string
+         */
+        private BoundValue(String key, Class<?> type, boolean string) {
+            this.key = key;
+            this.type = type;
+            this.string = string;
+        }
+
+        /**
+         * Read value from configuration.
+         * @param config configuration
+         * @return value
+         */
+        private Object read(ConfigurationSection config) {
+            return string ? config.getString(key) : config.getObject(key, type, null);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ivan1pl.witchcraft.context.config;
+
+import java.util.Set;
+
+/**
+ * Managed classes implementing this interface are notified when the configuration is reloaded. A class is notified
+ * when any configuration value injected into its constructor has changed. Classes without any injected configuration
+ * values are notified about every change.
+ */
+public interface ConfigurationListener {
+    /**
+     * Called after the new configuration snapshot has been swapped in.
+     * @param snapshot new configuration snapshot
+     * @param changedKeys configuration keys whose values have changed
+     */
+    void onConfigurationChanged(ConfigurationSnapshot snapshot, Set<String> changedKeys);
+}
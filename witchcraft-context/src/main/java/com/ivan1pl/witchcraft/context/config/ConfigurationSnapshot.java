@@ -0,0 +1,62 @@
+package com.ivan1pl.witchcraft.context.config;
+
+/**
+ * Immutable snapshot of all configuration values referenced by managed classes and commands. Each referenced key has
+ * its own slot, resolved once when the snapshot is created, so reading a value does not walk the configuration tree.
+ */
+public final class ConfigurationSnapshot {
+    /**
+     * Snapshot version, incremented on each reload.
+     */
+    private final long version;
+
+    /**
+     * Values, by slot.
+     */
+    private final Object[] values;
+
+    /**
+     * Constructor.
+     * @param version snapshot version
+     * @param values values, by slot
+     */
+    ConfigurationSnapshot(long version, Object[] values) {
+        this.version = version;
+        this.values = values;
+    }
+
+    /**
+     * Get snapshot version. The version is incremented each time the configuration is reloaded.
+     * @return snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get value of given accessor.
+     * @param accessor configuration value accessor
+     * @param <T> value type
+     * @return configuration value or {@code null} if it is not set or has a different type
+     */
+    public <T> T get(ConfigurationAccessor<T> accessor) {
+        return accessor.get(this);
+    }
+
+    /**
+     * Get number of slots.
+     * @return number of slots
+     */
+    int size() {
+        return values.length;
+    }
+
+    /**
+     * Get value in given slot.
+     * @param slot slot
+     * @return value
+     */
+    Object getValue(int slot) {
+        return values[slot];
+    }
+}
@@ -1,14 +1,24 @@
 package com.ivan1pl.witchcraft.context.exception;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Exception thrown when there is a cycle in dependency graph.
  */
 public class DependencyCycleException extends Exception {
+    /**
+     * Classes forming the cycle.
+     */
+    private final List<Class<?>> cycle;
+
     /**
      * Constructor.
      */
     public DependencyCycleException() {
         super();
+        cycle = Collections.emptyList();
     }
 
     /**
@@ -17,6 +27,7 @@ public class DependencyCycleException extends Exception {
      */
     public DependencyCycleException(String message) {
         super(message);
+        cycle = Collections.emptyList();
     }
 
     /**
@@ -25,6 +36,7 @@ public class DependencyCycleException extends Exception {
      */
     public DependencyCycleException(Throwable cause) {
         super(cause);
+        cycle = Collections.emptyList();
     }
 
     /**
@@ -34,5 +46,24 @@ public class DependencyCycleException extends Exception {
      */
     public DependencyCycleException(String message, Throwable cause) {
         super(message, cause);
+        cycle = Collections.emptyList();
+    }
+
+    /**
+     * Constructor.
+     * @param message message
+     * @param cycle classes forming the cycle, each depending on the next one
+     */
+    public DependencyCycleException(String message, List<Class<?>> cycle) {
+        super(message);
+        this.cycle = Collections.unmodifiableList(new ArrayList<>(cycle));
+    }
+
+    /**
+     * Get classes forming the cycle. Each class depends on the next one, and the last class is the same as the first.
+     * @return classes forming the cycle, or an empty list if unknown
+     */
+    public List<Class<?>> getCycle() {
+        return cycle;
     }
 }
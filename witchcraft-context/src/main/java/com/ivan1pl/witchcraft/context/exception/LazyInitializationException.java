@@ -0,0 +1,38 @@
+package com.ivan1pl.witchcraft.context.exception;
+
+/**
+ * Exception thrown when a lazy or player scoped managed object cannot be created.
+ */
+public class LazyInitializationException extends RuntimeException {
+    /**
+     * Constructor.
+     */
+    public LazyInitializationException() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * @param message message
+     */
+    public LazyInitializationException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor.
+     * @param cause cause
+     */
+    public LazyInitializationException(Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * Constructor.
+     * @param message message
+     * @param cause cause
+     */
+    public LazyInitializationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ivan1pl.witchcraft.context.exception;
+
+/**
+ * Exception thrown when a method annotated with {@link com.ivan1pl.witchcraft.context.async.Async} has a return type
+ * that cannot be completed asynchronously.
+ */
+public class UnsupportedAsyncMethodException extends RuntimeException {
+    /**
+     * Constructor.
+     */
+    public UnsupportedAsyncMethodException() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * @param message message
+     */
+    public UnsupportedAsyncMethodException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor.
+     * @param cause cause
+     */
+    public UnsupportedAsyncMethodException(Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * Constructor.
+     * @param message message
+     * @param cause cause
+     */
+    public UnsupportedAsyncMethodException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,295 @@
+package com.ivan1pl.witchcraft.context.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Index of classes generated at compile time by WitchCraft's annotation processor. When it is complete for a package
+ * scan path, it is used instead of scanning the classpath for managed classes.
+ * <p>
+ * The index is a text file stored at {@link #LOCATION}. Each non-empty line that does not start with {@code #}
+ * contains tab-separated fields:
+ * <ul>
+ *     <li>{@code package <name>} - a package compiled together with the index</li>
+ *     <li>{@code type <class name> <supertypes> <annotations>} - a type compiled together with the index, with
+ *     comma-separated (possibly empty) lists of its direct superclass and interfaces and of its runtime
+ *     annotations</li>
+ * </ul>
+ * Types are resolved the same way a classpath scan resolves them: a type is found for an annotation if it is
+ * annotated with it, directly or through annotations annotated with it, or if it is a subtype of such a type.
+ */
+public final class ComponentIndex {
+    /**
+     * Location of the index resource.
+     */
+    public static final String LOCATION = "META-INF/witchcraft/components.idx";
+
+    /**
+     * Packages compiled together with each index, by classpath root containing the index.
+     */
+    private final Map<String, Set<String>> packages = new HashMap<>();
+
+    /**
+     * Binary names of types compiled together with each index, by classpath root containing the index.
+     */
+    private final Map<String, Set<String>> classNames = new HashMap<>();
+
+    /**
+     * Names of indexed types, by annotation they are annotated with.
+     */
+    private final Map<String, List<String>> annotatedTypes = new HashMap<>();
+
+    /**
+     * Names of indexed types, by their direct supertype.
+     */
+    private final Map<String, List<String>> subtypes = new HashMap<>();
+
+    /**
+     * Create empty index.
+     */
+    private ComponentIndex() {
+    }
+
+    /**
+     * Load all component indexes visible to given class loader.
+     * @param classLoader class loader
+     * @return merged component index or {@code null} if there is no index
+     * @throws IOException when the index exists but cannot be read
+     */
+    public static ComponentIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        ComponentIndex index = new ComponentIndex();
+        while (resources.hasMoreElements()) {
+            index.read(resources.nextElement());
+        }
+        return index;
+    }
+
+    /**
+     * Read index file.
+     * @param url index location
+     * @throws IOException when the file cannot be read or is malformed
+     */
+    private void read(URL url) throws IOException {
+        String location = url.toString();
+        String root = location.substring(0, location.length() - LOCATION.length());
+        Set<String> rootPackages = packages.computeIfAbsent(root, r -> new HashSet<>());
+        Set<String> rootClassNames = classNames.computeIfAbsent(root, r -> new HashSet<>());
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                switch (fields[0]) {
+                    case "package":
+                        rootPackages.add(fields[1]);
+                        break;
+                    case "type":
+                        if (fields.length != 4) {
+                            throw new IOException("Malformed component index " + url + ": " + line);
+                        }
+                        rootClassNames.add(fields[1]);
+                        for (String supertype : split(fields[2])) {
+                            subtypes.computeIfAbsent(supertype, s -> new ArrayList<>()).add(fields[1]);
+                        }
+                        for (String annotation : split(fields[3])) {
+                            annotatedTypes.computeIfAbsent(annotation, a -> new ArrayList<>()).add(fields[1]);
+                        }
+                        break;
+                    default:
+                        throw new IOException("Malformed component index " + url + ": unknown entry " + fields[0]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Split comma-separated list of names.
+     * @param field list of names
+     * @return names
+     */
+    private static List<String> split(String field) {
+        return field.isEmpty() ? Collections.emptyList() : Arrays.asList(field.split(","));
+    }
+
+    /**
+     * Check if this index contains full information about given package scan path. It does if every classpath root
+     * containing the package has an index, and every class within the scan path in that root was compiled together
+     * with the index. Classes are checked one by one, so an index rewritten by an incremental compilation, which
+     * only lists recompiled classes, does not cover classes that were not recompiled. Only class file names are
+     * listed, class files are not read.
+     * @param basePackage package scan path
+     * @param classLoader class loader used to find classes
+     * @return {@code true} if all classes within given scan path are indexed
+     */
+    public boolean covers(String basePackage, ClassLoader classLoader) {
+        if (basePackage.isEmpty()) {
+            return false;
+        }
+        String path = basePackage.replace('.', '/');
+        try {
+            Enumeration<URL> roots = classLoader.getResources(path);
+            if (!roots.hasMoreElements()) {
+                return false;
+            }
+            while (roots.hasMoreElements()) {
+                String url = roots.nextElement().toString();
+                if (url.endsWith("/")) {
+                    url = url.substring(0, url.length() - 1);
+                }
+                if (!url.endsWith(path)) {
+                    return false;
+                }
+                String root = url.substring(0, url.length() - path.length());
+                Set<String> rootPackages = packages.get(root);
+                if (rootPackages == null || !containsOnly(root, path, rootPackages, classNames.get(root))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if all classes within given path of a classpath root were compiled together with its index. Anonymous and
+     * local classes are not listed in the index, they are checked through the class enclosing them. Package and
+     * module descriptors are checked through their package.
+     * @param root classpath root
+     * @param path path prefix of checked class files
+     * @param rootPackages packages compiled together with the index
+     * @param rootClassNames binary names of types compiled together with the index
+     * @return {@code true} if all classes were compiled together with the index, {@code false} if some were not or
+     *         the root cannot be listed
+     * @throws IOException when the root cannot be listed
+     * @throws URISyntaxException when the root is not a valid file location
+     */
+    private static boolean containsOnly(String root, String path, Set<String> rootPackages,
+                                        Set<String> rootClassNames) throws IOException, URISyntaxException {
+        List<String> classFiles = new ArrayList<>();
+        if (root.startsWith("jar:")) {
+            URLConnection connection = new URL(root).openConnection();
+            if (!(connection instanceof JarURLConnection)) {
+                return false;
+            }
+            connection.setUseCaches(false);
+            try (JarFile jarFile = ((JarURLConnection) connection).getJarFile()) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.startsWith(path)) {
+                        classFiles.add(name);
+                    }
+                }
+            }
+        } else if (root.startsWith("file:")) {
+            Path rootPath = Paths.get(new URL(root).toURI());
+            Path parent = rootPath.resolve(path).getParent();
+            try (Stream<Path> files = Files.walk(parent)) {
+                files.filter(Files::isRegularFile)
+                        .map(file -> rootPath.relativize(file).toString().replace('\\', '/'))
+                        .filter(name -> name.startsWith(path))
+                        .forEach(classFiles::add);
+            }
+        } else {
+            return false;
+        }
+        for (String name : classFiles) {
+            if (!name.endsWith(".class")) {
+                continue;
+            }
+            String className = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+            int packageEnd = className.lastIndexOf('.');
+            String simpleName = className.substring(packageEnd + 1);
+            if (simpleName.equals("package-info") || simpleName.equals("module-info")) {
+                if (!rootPackages.contains(packageEnd < 0 ? "" : className.substring(0, packageEnd))) {
+                    return false;
+                }
+            } else if (!isIndexed(className, packageEnd, rootClassNames)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if a class or a class enclosing it is indexed.
+     * @param className binary class name
+     * @param packageEnd index of the last dot in the class name
+     * @param rootClassNames binary names of indexed types
+     * @return {@code true} if the class or a class enclosing it is indexed
+     */
+    private static boolean isIndexed(String className, int packageEnd, Set<String> rootClassNames) {
+        String name = className;
+        while (!rootClassNames.contains(name)) {
+            int nestedStart = name.lastIndexOf('$');
+            if (nestedStart <= packageEnd + 1) {
+                return false;
+            }
+            name = name.substring(0, nestedStart);
+        }
+        return true;
+    }
+
+    /**
+     * Get all classes within given package scan path annotated with given annotation, directly or through other
+     * annotations, and their subtypes.
+     * @param basePackage package scan path
+     * @param annotation annotation marking managed classes
+     * @param classLoader class loader used to load the classes
+     * @return annotated classes
+     * @throws ClassNotFoundException when an indexed class cannot be loaded, which means the index is out of date
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(String basePackage, Class<? extends Annotation> annotation,
+                                               ClassLoader classLoader) throws ClassNotFoundException {
+        Set<String> annotated = new LinkedHashSet<>();
+        collect(annotatedTypes, Collections.singleton(annotation.getName()), basePackage, annotated);
+        Set<String> found = new LinkedHashSet<>(annotated);
+        collect(subtypes, annotated, basePackage, found);
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (String className : found) {
+            result.add(Class.forName(className, false, classLoader));
+        }
+        return result;
+    }
+
+    /**
+     * Collect types within given package scan path related to given names, transitively.
+     * @param relation related type names, by name
+     * @param names names to start from
+     * @param basePackage package scan path
+     * @param result collection receiving names of related types
+     */
+    private void collect(Map<String, List<String>> relation, Collection<String> names, String basePackage,
+                         Set<String> result) {
+        Deque<String> queue = new ArrayDeque<>(names);
+        while (!queue.isEmpty()) {
+            for (String related : relation.getOrDefault(queue.poll(), Collections.emptyList())) {
+                if (related.startsWith(basePackage) && result.add(related)) {
+                    queue.add(related);
+                }
+            }
+        }
+    }
+}
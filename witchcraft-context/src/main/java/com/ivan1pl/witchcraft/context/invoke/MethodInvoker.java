@@ -0,0 +1,17 @@
+package com.ivan1pl.witchcraft.context.invoke;
+
+/**
+ * Direct invoker of a single method. Unlike {@link java.lang.reflect.Method#invoke}, exceptions thrown by the invoked
+ * method are not wrapped.
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+    /**
+     * Invoke the method.
+     * @param target object on which the method is invoked, ignored for static methods
+     * @param args method arguments
+     * @return the value returned by the method, or {@code null} if the method is {@code void}
+     * @throws Throwable exception thrown by the method
+     */
+    Object invoke(Object target, Object[] args) throws Throwable;
+}
@@ -0,0 +1,95 @@
+package com.ivan1pl.witchcraft.context.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Factory creating and caching {@link MethodInvoker} instances. Invokers are backed by method handles, which the JIT
+ * compiler can inline, and avoid the access checks and exception wrapping of reflective calls. Each factory has its own
+ * cache, so that cached methods do not outlive the component using them.
+ */
+public final class MethodInvokerFactory {
+    /**
+     * Type of all adapted method handles.
+     */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Created invokers, by method.
+     */
+    private final Map<Method, MethodInvoker> invokers = new ConcurrentHashMap<>();
+
+    /**
+     * Get invoker for given method. Invokers are created once for each method and cached by this factory.
+     * @param method method
+     * @return invoker of the method
+     */
+    public MethodInvoker get(Method method) {
+        MethodInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            invoker = invokers.computeIfAbsent(method, MethodInvokerFactory::create);
+        }
+        return invoker;
+    }
+
+    /**
+     * Create invoker for given method, without caching it. When no method handle can be created for the method, a
+     * reflective invoker is used instead. Variable arity methods take their variable arguments as a single array, like
+     * in reflective calls.
+     * @param method method
+     * @return invoker of the method
+     */
+    public static MethodInvoker create(Method method) {
+        MethodHandle handle;
+        try {
+            handle = unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflective(method);
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        MethodHandle adapted = handle.asFixedArity()
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(INVOKER_TYPE);
+        return (target, args) -> adapted.invokeExact(target, args);
+    }
+
+    /**
+     * Create method handle for given method, suppressing access checks if necessary.
+     * @param method method
+     * @return method handle
+     * @throws IllegalAccessException when the method cannot be accessed
+     * @throws RuntimeException when access checks cannot be suppressed (e.g. {@link SecurityException} or, on newer
+     *                          Java versions, {@code InaccessibleObjectException})
+     */
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+    }
+
+    /**
+     * Create reflective invoker, unwrapping exceptions thrown by the method.
+     * @param method method
+     * @return invoker of the method
+     */
+    private static MethodInvoker reflective(Method method) {
+        return (target, args) -> {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,309 @@
+package com.ivan1pl.witchcraft.context.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed memory, lock free histogram of latencies in nanoseconds. Values are counted in log-linear buckets: each power
+ * of two range is split into {@value #SUB_BUCKET_COUNT} linear sub-buckets, so recorded values are accurate to about
+ * 6%. Values over about 18 minutes are counted as that maximum.
+ * <p>
+ * To avoid contention, counts are striped: each thread records into one of several independent stripes, selected by
+ * thread id, and stripes are merged when a {@link Snapshot} is taken.
+ */
+public final class LatencyHistogram {
+    /**
+     * Number of bits used for the linear sub-bucket index.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * Number of linear sub-buckets in each power of two range.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest value that can be recorded exactly, in nanoseconds.
+     */
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    /**
+     * Number of buckets.
+     */
+    private static final int BUCKET_COUNT = (40 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    /**
+     * Index of the slot holding the number of recorded values, after the buckets.
+     */
+    private static final int COUNT = BUCKET_COUNT;
+
+    /**
+     * Index of the slot holding the sum of recorded values.
+     */
+    private static final int SUM = BUCKET_COUNT + 1;
+
+    /**
+     * Index of the slot holding the largest recorded value.
+     */
+    private static final int MAX = BUCKET_COUNT + 2;
+
+    /**
+     * Histogram name.
+     */
+    private final String name;
+
+    /**
+     * Stripes, each holding bucket counts followed by the count, sum and maximum of recorded values.
+     */
+    private final AtomicLongArray[] stripes;
+
+    /**
+     * Mask selecting stripe index from thread id.
+     */
+    private final int stripeMask;
+
+    /**
+     * Create histogram.
+     * @param name histogram name
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors())));
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT + 3);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Record a single value.
+     * @param nanos value, in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.getAndIncrement(indexOf(value));
+        stripe.getAndIncrement(COUNT);
+        stripe.getAndAdd(SUM, value);
+        long max = stripe.get(MAX);
+        while (value > max && !stripe.compareAndSet(MAX, max, value)) {
+            max = stripe.get(MAX);
+        }
+    }
+
+    /**
+     * Get histogram name.
+     * @return histogram name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Take a snapshot of all values recorded so far. Values recorded concurrently may or may not be included.
+     * @return snapshot
+     */
+    public Snapshot getSnapshot() {
+        long[] buckets = new long[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; ++i) {
+                buckets[i] += stripe.get(i);
+            }
+            count += stripe.get(COUNT);
+            sum += stripe.get(SUM);
+            max = Math.max(max, stripe.get(MAX));
+        }
+        return new Snapshot(name, buckets, count, sum, max);
+    }
+
+    /**
+     * Remove all recorded values. Values recorded concurrently may or may not be removed.
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < stripe.length(); ++i) {
+                stripe.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Get index of the bucket counting given value.
+     * @param value value, at most {@link #MAX_VALUE}
+     * @return bucket index
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Get the largest value counted by given bucket.
+     * @param index bucket index
+     * @return largest value of the bucket
+     */
+    private static long highestValueOf(int index) {
+        int range = index / SUB_BUCKET_COUNT;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        if (range == 0) {
+            return subBucket;
+        }
+        int shift = range - 1;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Values recorded by a histogram at a point in time.
+     */
+    public static final class Snapshot {
+        /**
+         * Histogram name.
+         */
+        private final String name;
+
+        /**
+         * Bucket counts.
+         */
+        private final long[] buckets;
+
+        /**
+         * Number of recorded values.
+         */
+        private final long count;
+
+        /**
+         * Sum of recorded values, in nanoseconds.
+         */
+        private final long sum;
+
+        /**
+         * Largest recorded value, in nanoseconds.
+         */
+        private final long max;
+
+        /**
+         * Constructor.
+         * @param name histogram name
+         * @param buckets bucket counts
+         * @param count number of recorded values
+         * @param sum sum of recorded values
+         * @param max largest recorded value
+         */
+        private Snapshot(String name, long[] buckets, long count, long sum, long max) {
+            this.name = name;
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Get histogram name.
+         * @return histogram name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get number of recorded values.
+         * @return number of recorded values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get sum of recorded values.
+         * @return sum of recorded values, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return sum;
+        }
+
+        /**
+         * Get mean of recorded values.
+         * @return mean, in nanoseconds, 0 if there are no values
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Get largest recorded value.
+         * @return largest value, in nanoseconds
+         */
+        public long getMaxNanos() {
+            return max;
+        }
+
+        /**
+         * Get value at given percentile. The result is the largest value of the bucket containing the percentile, but
+         * not more than the largest recorded value.
+         * @param percentile percentile, from 0 to 100
+         * @return value at given percentile, in nanoseconds, 0 if there are no values
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; ++i) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueOf(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Get median of recorded values.
+         * @return median, in nanoseconds
+         */
+        public long getP50Nanos() {
+            return getPercentileNanos(50);
+        }
+
+        /**
+         * Get 99th percentile of recorded values.
+         * @return 99th percentile, in nanoseconds
+         */
+        public long getP99Nanos() {
+            return getPercentileNanos(99);
+        }
+
+        /**
+         * Get string representation of the snapshot.
+         * @return string representation
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: %d calls, total %.3f ms, mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                    name, count, toMillis(sum), toMillis((long) getMeanNanos()), toMillis(getP50Nanos()),
+                    toMillis(getP99Nanos()), toMillis(max));
+        }
+
+        /**
+         * Convert nanoseconds to milliseconds.
+         * @param nanos value in nanoseconds
+         * @return value in milliseconds
+         */
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ivan1pl.witchcraft.context.metrics;
+
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Registry of latency histograms of {@link Timed} methods. Histograms can also be created and recorded manually. The
+ * registry can periodically write all histograms to the plugin log.
+ */
+@Managed
+public class MetricsRegistry implements AutoCloseable {
+    /**
+     * Configuration key containing the interval, in seconds, at which metrics are written to the log.
+     */
+    private static final String LOG_INTERVAL_KEY = "witchcraft.metrics.logIntervalSeconds";
+
+    /**
+     * Number of server ticks per second.
+     */
+    private static final long TICKS_PER_SECOND = 20;
+
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
+    /**
+     * Histograms by name.
+     */
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Task writing metrics to the log, {@code null} if metrics are not written periodically.
+     */
+    private final BukkitTask logTask;
+
+    /**
+     * Constructor.
+     * @param javaPlugin plugin instance
+     */
+    public MetricsRegistry(JavaPlugin javaPlugin) {
+        this.javaPlugin = javaPlugin;
+        long logInterval = javaPlugin.getConfig().getLong(LOG_INTERVAL_KEY, 0);
+        if (logInterval > 0) {
+            long ticks = logInterval * TICKS_PER_SECOND;
+            this.logTask = javaPlugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                    javaPlugin, () -> log(javaPlugin.getLogger()), ticks, ticks);
+        } else {
+            this.logTask = null;
+        }
+    }
+
+    /**
+     * Get histogram with given name, creating it if it does not exist.
+     * @param name histogram name
+     * @return histogram
+     */
+    public LatencyHistogram timer(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Get snapshots of all histograms, ordered by total recorded time, descending.
+     * @return histogram snapshots
+     */
+    public List<LatencyHistogram.Snapshot> getSnapshots() {
+        List<LatencyHistogram.Snapshot> snapshots = new ArrayList<>();
+        for (LatencyHistogram histogram : histograms.values()) {
+            snapshots.add(histogram.getSnapshot());
+        }
+        snapshots.sort(Comparator.comparingLong(LatencyHistogram.Snapshot::getTotalNanos).reversed());
+        return snapshots;
+    }
+
+    /**
+     * Write snapshots of all histograms to given logger.
+     * @param logger logger
+     */
+    public void log(Logger logger) {
+        List<LatencyHistogram.Snapshot> snapshots = getSnapshots();
+        logger.info(String.format("Metrics of %d timers:", snapshots.size()));
+        for (LatencyHistogram.Snapshot snapshot : snapshots) {
+            logger.info(snapshot.toString());
+        }
+    }
+
+    /**
+     * Remove all values recorded by all histograms.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Stop writing metrics to the log.
+     */
+    @Override
+    public void close() {
+        if (logTask != null) {
+            logTask.cancel();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ivan1pl.witchcraft.context.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Methods in managed classes can be annotated with this annotation to record their invocation count and latency
+ * distribution in the {@link MetricsRegistry}. When a managed class is annotated, all its methods are timed.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timed {
+    /**
+     * Timer name. If not set, the name of the class and method is used. When the annotation is placed on a class,
+     * the name is used as a prefix of the method name.
+     */
+    String value() default "";
+}
@@ -0,0 +1,132 @@
+package com.ivan1pl.witchcraft.context.metrics;
+
+import com.ivan1pl.witchcraft.context.annotations.Advises;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.proxy.Aspect;
+import com.ivan1pl.witchcraft.context.proxy.InvocationCallback;
+
+import java.lang.reflect.Method;
+
+/**
+ * Aspect recording invocation count and latency of methods annotated with {@link Timed}, or declared in classes
+ * annotated with {@link Timed}.
+ */
+@Managed
+@Advises(Timed.class)
+public class TimedAspect implements Aspect {
+    /**
+     * Histogram registry.
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Constructor.
+     * @param metricsRegistry histogram registry
+     */
+    public TimedAspect(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Execute advice that should happen before method execution. This aspect does not execute any operations.
+     *
+     * @param self   the proxy instance
+     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *               abstract or declared in the interface
+     * @param originalMethod overridden method
+     * @param args   an array of objects containing the values of the arguments passed in the method invocation on the
+     *               proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
+     *               class
+     */
+    @Override
+    public void beforeMethod(Object self, Method method, Method originalMethod, Object[] args) {
+    }
+
+    /**
+     * Execute advice that should happen after method execution. This aspect does not execute any operations.
+     *
+     * @param self   the proxy instance
+     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *               abstract or declared in the interface
+     * @param originalMethod overridden method
+     * @param args   an array of objects containing the values of the arguments passed in the method invocation on the
+     *               proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
+     *               class
+     */
+    @Override
+    public void afterMethod(Object self, Method method, Method originalMethod, Object[] args) {
+    }
+
+    /**
+     * Execute advice that should happen around method execution. This aspect measures the time spent in the method
+     * and all advices with lower priority, including failed invocations.
+     *
+     * @param proceed proceed logic, containing the method for which the advice is being created and the logic of all
+     *                advices with lower priority than this one.
+     * @return an invocation callback to be passed as {@code proceed} method to the advice around this one
+     */
+    @Override
+    public InvocationCallback aroundMethod(InvocationCallback proceed) {
+        LatencyHistogram[] histogram = new LatencyHistogram[1];
+        return (self, method, originalMethod, args) -> {
+            LatencyHistogram timer = histogram[0];
+            if (timer == null) {
+                String name = getTimerName(originalMethod);
+                if (name == null) {
+                    return proceed.apply(self, method, originalMethod, args);
+                }
+                timer = metricsRegistry.timer(name);
+                histogram[0] = timer;
+            }
+            long start = System.nanoTime();
+            try {
+                return proceed.apply(self, method, originalMethod, args);
+            } finally {
+                timer.record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Get name of the timer of given method.
+     * @param method timed method
+     * @return timer name, {@code null} if the method is not timed
+     */
+    private static String getTimerName(Method method) {
+        Timed timed = method.getAnnotation(Timed.class);
+        if (timed != null && !timed.value().isEmpty()) {
+            return timed.value();
+        }
+        Timed classTimed = method.getDeclaringClass().getAnnotation(Timed.class);
+        if (timed == null && classTimed == null) {
+            return null;
+        }
+        StringBuilder name = new StringBuilder();
+        if (classTimed != null && !classTimed.value().isEmpty()) {
+            name.append(classTimed.value());
+        } else {
+            name.append(method.getDeclaringClass().getSimpleName());
+        }
+        name.append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            if (i > 0) {
+                name.append(", ");
+            }
+            name.append(parameterTypes[i].getSimpleName());
+        }
+        return name.append(')').toString();
+    }
+
+    /**
+     * Get execution priority of this aspect. The lower the number, the earlier it will be executed. This aspect is
+     * executed right after caching and asynchronous execution aspects, so that it measures the actual execution of
+     * the method on the thread that runs it.
+     *
+     * @return aspect priority
+     */
+    @Override
+    public int getPriority() {
+        return Integer.MIN_VALUE + 2;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ivan1pl.witchcraft.context.proxy;
+
+/**
+ * Factory of a single managed class, generated at compile time by the {@code witchcraft-plugin-generator} annotation
+ * processor. Factories create instances without reflection and, where possible, return instances of a generated proxy
+ * subclass instead of one created at runtime.
+ * @param <T> managed class
+ */
+public interface ComponentFactory<T> {
+    /**
+     * Suffix appended to the binary name of a managed class to get the binary name of its factory.
+     */
+    String FACTORY_SUFFIX = "$$WitchCraftFactory";
+
+    /**
+     * Suffix appended to the binary name of a managed class to get the binary name of its generated proxy.
+     */
+    String PROXY_SUFFIX = "$$WitchCraftProxy";
+
+    /**
+     * Create an instance of the managed class.
+     * @param args constructor arguments
+     * @return new instance
+     * @throws Throwable exception thrown by the constructor
+     */
+    T create(Object[] args) throws Throwable;
+
+    /**
+     * Create a proxy instance of the managed class.
+     * @param handler invocation handler
+     * @param advised matcher selecting methods that should be passed to the invocation handler; all other methods are
+     *                invoked directly
+     * @param args constructor arguments
+     * @return new proxy instance, or {@code null} if no proxy class was generated for the managed class
+     * @throws Throwable exception thrown by the constructor
+     */
+    T createProxy(ProxyInvocationHandler handler, MethodMatcher advised, Object[] args) throws Throwable;
+}
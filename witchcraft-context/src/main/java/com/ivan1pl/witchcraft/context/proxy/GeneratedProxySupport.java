@@ -0,0 +1,67 @@
+package com.ivan1pl.witchcraft.context.proxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * Helper methods used by proxy classes generated at compile time. This class is not meant to be used directly.
+ */
+public final class GeneratedProxySupport {
+    /**
+     * This class should not be instantiated.
+     */
+    private GeneratedProxySupport() {
+    }
+
+    /**
+     * Find method declared in given class.
+     * @param declaringClass class declaring the method
+     * @param name method name
+     * @param parameterTypes method parameter types
+     * @return method
+     * @throws IllegalStateException when the method does not exist, which means the proxy is out of date
+     */
+    public static Method getMethod(Class<?> declaringClass, String name, Class<?>... parameterTypes) {
+        try {
+            return declaringClass.getDeclaredMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                    "Generated proxy is out of date, method not found: " + declaringClass.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * Check which of given methods should be passed to the invocation handler.
+     * @param methods methods overridden by the proxy
+     * @param advised matcher selecting methods that should be passed to the invocation handler
+     * @return array containing {@code true} for each method that should be passed to the invocation handler
+     */
+    public static boolean[] getAdvised(Method[] methods, MethodMatcher advised) {
+        boolean[] result = new boolean[methods.length];
+        for (int i = 0; i < methods.length; ++i) {
+            result[i] = advised.matches(methods[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Rethrow given exception without wrapping it, even if it is a checked exception not declared by the calling
+     * method. Invocation handler may throw any exception thrown by the invoked method.
+     * @param t exception to rethrow
+     * @return this method never returns, the return type only allows writing {@code throw sneakyThrow(t)}
+     */
+    public static RuntimeException sneakyThrow(Throwable t) {
+        throw GeneratedProxySupport.<RuntimeException>doSneakyThrow(t);
+    }
+
+    /**
+     * Rethrow given exception as an exception of an inferred type.
+     * @param t exception to rethrow
+     * @param <T> inferred exception type
+     * @return this method never returns
+     * @throws T always
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T doSneakyThrow(Throwable t) throws T {
+        throw (T) t;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ivan1pl.witchcraft.context.proxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * Predicate selecting methods advised by an aspect. Matchers are evaluated once for each method, when the proxy class
+ * is created, so they should only depend on the method signature and its annotations.
+ */
+@FunctionalInterface
+public interface MethodMatcher {
+    /**
+     * Check whether given method should be advised.
+     * @param method method declared in the managed class or any of its superclasses
+     * @return {@code true} if the method should be advised, {@code false} otherwise
+     */
+    boolean matches(Method method);
+}
@@ -0,0 +1,93 @@
+package com.ivan1pl.witchcraft.context.proxy;
+
+import com.ivan1pl.witchcraft.context.annotations.Advises;
+import com.ivan1pl.witchcraft.context.exception.InitializationFailedException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set of methods advised by an aspect, as declared by the {@link Advises} annotation.
+ */
+public final class Pointcut {
+    /**
+     * Pointcut matching all methods.
+     */
+    public static final Pointcut ALL = new Pointcut(true, Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * Whether all methods are matched.
+     */
+    private final boolean all;
+
+    /**
+     * Annotations marking advised methods (or classes).
+     */
+    private final List<Class<? extends Annotation>> annotations;
+
+    /**
+     * Matchers selecting advised methods.
+     */
+    private final List<MethodMatcher> matchers;
+
+    /**
+     * Constructor.
+     * @param all whether all methods are matched
+     * @param annotations annotations marking advised methods
+     * @param matchers matchers selecting advised methods
+     */
+    private Pointcut(boolean all, List<Class<? extends Annotation>> annotations, List<MethodMatcher> matchers) {
+        this.all = all;
+        this.annotations = annotations;
+        this.matchers = matchers;
+    }
+
+    /**
+     * Create pointcut for given aspect class.
+     * @param aspectClass aspect class
+     * @return pointcut declared by the aspect, or {@link #ALL} if the aspect does not declare advised methods
+     * @throws InitializationFailedException when some matcher cannot be created
+     */
+    public static Pointcut of(Class<?> aspectClass) throws InitializationFailedException {
+        Advises advises = aspectClass.getAnnotation(Advises.class);
+        if (advises == null) {
+            return ALL;
+        }
+        List<MethodMatcher> matchers = new ArrayList<>(advises.matchers().length);
+        for (Class<? extends MethodMatcher> matcherClass : advises.matchers()) {
+            try {
+                matchers.add(matcherClass.getConstructor().newInstance());
+            } catch (ReflectiveOperationException e) {
+                throw new InitializationFailedException(
+                        "Unable to create method matcher: " + matcherClass.getCanonicalName(), e);
+            }
+        }
+        return new Pointcut(false, Arrays.asList(advises.value()), matchers);
+    }
+
+    /**
+     * Check whether given method is advised.
+     * @param method method
+     * @return {@code true} if the method is advised, {@code false} otherwise
+     */
+    public boolean matches(Method method) {
+        if (all) {
+            return true;
+        }
+        for (Class<? extends Annotation> annotation : annotations) {
+            if (method.isAnnotationPresent(annotation) || method.getDeclaringClass().isAnnotationPresent(annotation)) {
+                return true;
+            }
+        }
+        for (MethodMatcher matcher : matchers) {
+            if (matcher.matches(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,27 +1,49 @@
 package com.ivan1pl.witchcraft.context.proxy;
 
+import com.ivan1pl.witchcraft.context.invoke.MethodInvoker;
+import com.ivan1pl.witchcraft.context.invoke.MethodInvokerFactory;
 import javassist.util.proxy.MethodHandler;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Invocation handler for managed classes. All non-aspect classes will use this handler to execute their methods.
  */
 public class ProxyInvocationHandler implements MethodHandler {
     /**
-     * All aspects in the priority order.
+     * Factory creating invokers of forwarder methods.
      */
-    private final PriorityQueue<Aspect> aspects =
-            new PriorityQueue<>(11, Comparator.comparingInt(Aspect::getPriority));
+    private final MethodInvokerFactory methodInvokerFactory = new MethodInvokerFactory();
+
+    /**
+     * All aspects with their pointcuts, in the priority order. Aspects with equal priority are kept in the order they
+     * were added. The array is never modified, adding an aspect replaces it.
+     */
+    private volatile AdvisingAspect[] aspects = new AdvisingAspect[0];
+
+    /**
+     * Advices, by forwarder method (or by overridden method if there is no forwarder). Forwarders are declared by
+     * proxy classes, so methods inherited by several managed classes get a separate advice in each of them.
+     */
+    private final Map<Method, Advice> advices = new ConcurrentHashMap<>();
 
     /**
      * Add aspect.
      * @param aspect aspect to add
+     * @param pointcut methods advised by the aspect
      */
-    public void addAspect(Aspect aspect) {
-        aspects.add(aspect);
+    public synchronized void addAspect(Aspect aspect, Pointcut pointcut) {
+        AdvisingAspect[] newAspects = Arrays.copyOf(aspects, aspects.length + 1);
+        newAspects[aspects.length] = new AdvisingAspect(aspect, pointcut);
+        Arrays.sort(newAspects, Comparator.comparingInt(a -> a.aspect.getPriority()));
+        aspects = newAspects;
+        advices.clear();
     }
 
     /**
@@ -39,14 +61,20 @@ public class ProxyInvocationHandler implements MethodHandler {
      */
     @Override
     public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
-        beforeMethod(self, proceed, thisMethod, args);
-        Object result = aroundMethod(self, proceed, thisMethod, args);
-        afterMethod(self, proceed, thisMethod, args);
+        Method key = proceed == null ? thisMethod : proceed;
+        Advice advice = advices.get(key);
+        if (advice == null) {
+            advice = advices.computeIfAbsent(key, k -> createAdvice(thisMethod, proceed));
+        }
+        beforeMethod(advice.aspects, self, proceed, thisMethod, args);
+        Object result = advice.chain.apply(self, proceed, thisMethod, args);
+        afterMethod(advice.aspects, self, proceed, thisMethod, args);
         return result;
     }
 
     /**
      * Execute all advices that should happen before method execution.
+     * @param aspects aspects advising the method, in the priority order
      * @param self the proxy instance
      * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
      *               abstract or declared in the interface
@@ -56,7 +84,8 @@ public class ProxyInvocationHandler implements MethodHandler {
      *             class
      * @throws Throwable if any advice fails
      */
-    private void beforeMethod(Object self, Method method, Method originalMethod, Object[] args) throws Throwable {
+    private static void beforeMethod(Aspect[] aspects, Object self, Method method, Method originalMethod,
+                                     Object[] args) throws Throwable {
         for (Aspect aspect : aspects) {
             aspect.beforeMethod(self, method, originalMethod, args);
         }
@@ -64,6 +93,7 @@ public class ProxyInvocationHandler implements MethodHandler {
 
     /**
      * Execute all advices that should happen after method execution.
+     * @param aspects aspects advising the method, in the priority order
      * @param self the proxy instance
      * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
      *               abstract or declared in the interface
@@ -73,32 +103,102 @@ public class ProxyInvocationHandler implements MethodHandler {
      *             class
      * @throws Throwable if any advice fails
      */
-    private void afterMethod(Object self, Method method, Method originalMethod, Object[] args) throws Throwable {
+    private static void afterMethod(Aspect[] aspects, Object self, Method method, Method originalMethod,
+                                    Object[] args) throws Throwable {
         for (Aspect aspect : aspects) {
             aspect.afterMethod(self, method, originalMethod, args);
         }
     }
 
     /**
-     * Execute all advices that should happen around method execution.
-     * @param self the proxy instance
-     * @param method the forwarder method for invoking the overridden method. It is null if the overridden method is
-     *               abstract or declared in the interface
-     * @param originalMethod overridden method
-     * @param args an array of objects containing the values of the arguments passed in the method invocation on the
-     *             proxy instance. If a parameter type is a primitive type, the type of the array element is a wrapper
-     *             class
-     * @return the resulting value of the method invocation
-     * @throws Throwable if any advice fails
+     * Create advice for given method. It contains all aspects advising the method and their around advice chain.
+     * The aspect with the highest priority (lowest number) is the outermost one. The advice is created once for each
+     * method and reused by all subsequent invocations.
+     * @param method overridden method
+     * @param proceed the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *                abstract or declared in the interface
+     * @return advice for given method
+     */
+    private Advice createAdvice(Method method, Method proceed) {
+        AdvisingAspect[] aspects = this.aspects;
+        List<Aspect> methodAspects = new ArrayList<>(aspects.length);
+        for (AdvisingAspect advisingAspect : aspects) {
+            if (advisingAspect.pointcut.matches(method)) {
+                methodAspects.add(advisingAspect.aspect);
+            }
+        }
+        InvocationCallback chain = invoke(method, proceed);
+        for (int i = methodAspects.size() - 1; i >= 0; --i) {
+            chain = methodAspects.get(i).aroundMethod(chain);
+        }
+        return new Advice(methodAspects.toArray(new Aspect[0]), chain);
+    }
+
+    /**
+     * Create innermost invocation callback, invoking the overridden method. The invoker of the forwarder method is
+     * resolved here, so that invocations do not have to look it up.
+     * @param method overridden method
+     * @param proceed the forwarder method for invoking the overridden method. It is null if the overridden method is
+     *                abstract or declared in the interface
+     * @return innermost invocation callback
+     */
+    private InvocationCallback invoke(Method method, Method proceed) {
+        if (proceed == null) {
+            return (selfObj, proceedMethod, calledMethod, methodArgs) -> {
+                throw new AbstractMethodError(method.toString());
+            };
+        }
+        MethodInvoker invoker = methodInvokerFactory.get(proceed);
+        return (selfObj, proceedMethod, calledMethod, methodArgs) -> invoker.invoke(selfObj, methodArgs);
+    }
+
+    /**
+     * Aspect together with methods it advises.
+     */
+    private static final class AdvisingAspect {
+        /**
+         * Aspect.
+         */
+        private final Aspect aspect;
+
+        /**
+         * Methods advised by the aspect.
+         */
+        private final Pointcut pointcut;
+
+        /**
+         * Constructor.
+         * @param aspect aspect
+         * @param pointcut methods advised by the aspect
+         */
+        private AdvisingAspect(Aspect aspect, Pointcut pointcut) {
+            this.aspect = aspect;
+            this.pointcut = pointcut;
+        }
+    }
+
+    /**
+     * Advices applied to a single method.
      */
-    private Object aroundMethod(Object self, Method method, Method originalMethod, Object[] args)
-            throws Throwable {
-        InvocationCallback proceed = (selfObj, proceedMethod, calledMethod, methodArgs) ->
-                proceedMethod.invoke(selfObj, methodArgs);
-        Aspect[] aspects = this.aspects.toArray(new Aspect[0]);
-        for (int i = aspects.length - 1; i >= 0; --i) {
-            proceed = aspects[i].aroundMethod(proceed);
+    private static final class Advice {
+        /**
+         * Aspects advising the method, in the priority order.
+         */
+        private final Aspect[] aspects;
+
+        /**
+         * Around advice chain.
+         */
+        private final InvocationCallback chain;
+
+        /**
+         * Constructor.
+         * @param aspects aspects advising the method
+         * @param chain around advice chain
+         */
+        private Advice(Aspect[] aspects, InvocationCallback chain) {
+            this.aspects = aspects;
+            this.chain = chain;
         }
-        return proceed.apply(self, method, originalMethod, args);
     }
 }
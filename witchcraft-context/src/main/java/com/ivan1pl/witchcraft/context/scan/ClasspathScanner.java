@@ -0,0 +1,146 @@
+package com.ivan1pl.witchcraft.context.scan;
+
+import com.ivan1pl.witchcraft.context.exception.InitializationFailedException;
+import com.ivan1pl.witchcraft.context.index.ComponentIndex;
+import com.ivan1pl.witchcraft.context.proxy.ComponentFactory;
+import org.reflections.Reflections;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Logger;
+
+/**
+ * Scanner finding annotated classes within package scan paths. Each package scan path is scanned only once for all
+ * annotations, and independent package scan paths are scanned in parallel.
+ */
+public final class ClasspathScanner {
+    /**
+     * Logger.
+     */
+    private final Logger logger;
+
+    /**
+     * Class loader used to find and load classes.
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * Annotations to scan for.
+     */
+    private final List<Class<? extends Annotation>> annotations;
+
+    /**
+     * Create scanner.
+     * @param logger logger
+     * @param classLoader class loader used to find and load classes
+     * @param annotations annotations to scan for
+     */
+    public ClasspathScanner(Logger logger, ClassLoader classLoader, List<Class<? extends Annotation>> annotations) {
+        this.logger = logger;
+        this.classLoader = classLoader;
+        this.annotations = annotations;
+    }
+
+    /**
+     * Scan given package scan paths. Paths fully covered by the component index will not be scanned, the index will be
+     * used instead.
+     * @param basePackages package scan paths
+     * @return scan result
+     * @throws InitializationFailedException when the scan fails
+     */
+    public ScanResult scan(String[] basePackages) throws InitializationFailedException {
+        ComponentIndex componentIndex;
+        try {
+            componentIndex = ComponentIndex.load(classLoader);
+        } catch (IOException e) {
+            throw new InitializationFailedException("Failed to load component index", e);
+        }
+        ScanResult scanResult = new ScanResult();
+        if (basePackages.length == 0) {
+            return scanResult;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(basePackages.length, Runtime.getRuntime().availableProcessors()));
+        try {
+            Map<String, ForkJoinTask<Map<Class<? extends Annotation>, Set<Class<?>>>>> tasks = new LinkedHashMap<>();
+            Map<String, Long> scanNanos = new ConcurrentHashMap<>();
+            for (String basePackage : basePackages) {
+                if (!tasks.containsKey(basePackage)) {
+                    tasks.put(basePackage, pool.submit(() -> {
+                        long start = System.nanoTime();
+                        Map<Class<? extends Annotation>, Set<Class<?>>> result = scan(basePackage, componentIndex);
+                        scanNanos.put(basePackage, System.nanoTime() - start);
+                        return result;
+                    }));
+                }
+            }
+            for (Map.Entry<String, ForkJoinTask<Map<Class<? extends Annotation>, Set<Class<?>>>>> task :
+                    tasks.entrySet()) {
+                try {
+                    Map<Class<? extends Annotation>, Set<Class<?>>> annotatedTypes = task.getValue().get();
+                    scanResult.add(task.getKey(), annotatedTypes, scanNanos.get(task.getKey()));
+                } catch (ExecutionException e) {
+                    throw new InitializationFailedException(
+                            String.format("Package scan failed for package: %s", task.getKey()), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InitializationFailedException(
+                            String.format("Package scan interrupted for package: %s", task.getKey()), e);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return scanResult;
+    }
+
+    /**
+     * Scan a single package scan path. Proxy classes generated at compile time are subclasses of managed classes, so
+     * they are excluded from the result.
+     * @param basePackage package scan path
+     * @param componentIndex component index or {@code null} if there is no index
+     * @return annotated classes by annotation
+     * @throws ClassNotFoundException when an indexed class cannot be loaded
+     */
+    private Map<Class<? extends Annotation>, Set<Class<?>>> scan(String basePackage, ComponentIndex componentIndex)
+            throws ClassNotFoundException {
+        Map<Class<? extends Annotation>, Set<Class<?>>> result = new LinkedHashMap<>();
+        if (componentIndex != null && componentIndex.covers(basePackage, classLoader)) {
+            logger.info(String.format("Using component index for package: %s", basePackage));
+            for (Class<? extends Annotation> annotation : annotations) {
+                result.put(annotation, withoutProxies(
+                        componentIndex.getTypesAnnotatedWith(basePackage, annotation, classLoader)));
+            }
+        } else {
+            if (componentIndex != null) {
+                logger.info(String.format("Component index does not cover all classes in package: %s", basePackage));
+            }
+            logger.info(String.format("Starting package scan for package: %s", basePackage));
+            Reflections reflections = new Reflections(basePackage, classLoader);
+            for (Class<? extends Annotation> annotation : annotations) {
+                result.put(annotation, withoutProxies(reflections.getTypesAnnotatedWith(annotation)));
+            }
+            logger.info(String.format("Package scan completed for package: %s", basePackage));
+        }
+        return result;
+    }
+
+    /**
+     * Remove proxy classes generated at compile time from found types.
+     * @param types found types
+     * @return found types without proxy classes
+     */
+    private static Set<Class<?>> withoutProxies(Set<Class<?>> types) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (Class<?> type : types) {
+            if (!type.getName().endsWith(ComponentFactory.PROXY_SUFFIX)) {
+                result.add(type);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ivan1pl.witchcraft.context.scan;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Result of a single package scan, containing all classes annotated with any of the scanned annotations, grouped by
+ * package scan path. It can be reused by all components that need to find annotated classes.
+ */
+public final class ScanResult {
+    /**
+     * Annotated classes by package scan path and annotation.
+     */
+    private final Map<String, Map<Class<? extends Annotation>, Set<Class<?>>>> types = new LinkedHashMap<>();
+
+    /**
+     * Scan duration in nanoseconds, by package scan path.
+     */
+    private final Map<String, Long> scanNanos = new LinkedHashMap<>();
+
+    /**
+     * Add scan result for a single package scan path.
+     * @param basePackage package scan path
+     * @param annotatedTypes annotated classes, by annotation
+     * @param nanos scan duration, in nanoseconds
+     */
+    void add(String basePackage, Map<Class<? extends Annotation>, Set<Class<?>>> annotatedTypes, long nanos) {
+        types.put(basePackage, annotatedTypes);
+        scanNanos.put(basePackage, nanos);
+    }
+
+    /**
+     * Get scan duration of given package scan path.
+     * @param basePackage package scan path
+     * @return scan duration in nanoseconds, or {@code 0} if the package was not scanned
+     */
+    public long getScanNanos(String basePackage) {
+        return scanNanos.getOrDefault(basePackage, 0L);
+    }
+
+    /**
+     * Read scan result written with {@link #write(DataOutput)}.
+     * @param in input
+     * @param classLoader class loader used to load annotated classes and annotations
+     * @return scan result
+     * @throws IOException when the scan result cannot be read
+     * @throws ClassNotFoundException when some class cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public static ScanResult read(DataInput in, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        ScanResult scanResult = new ScanResult();
+        int packageCount = in.readInt();
+        for (int i = 0; i < packageCount; ++i) {
+            String basePackage = in.readUTF();
+            Map<Class<? extends Annotation>, Set<Class<?>>> annotatedTypes = new LinkedHashMap<>();
+            int annotationCount = in.readInt();
+            for (int j = 0; j < annotationCount; ++j) {
+                Class<?> annotation = Class.forName(in.readUTF(), false, classLoader);
+                if (!annotation.isAnnotation()) {
+                    throw new IOException("Not an annotation: " + annotation.getName());
+                }
+                Set<Class<?>> classes = new LinkedHashSet<>();
+                int classCount = in.readInt();
+                for (int k = 0; k < classCount; ++k) {
+                    classes.add(Class.forName(in.readUTF(), false, classLoader));
+                }
+                annotatedTypes.put((Class<? extends Annotation>) annotation, classes);
+            }
+            scanResult.add(basePackage, annotatedTypes, 0);
+        }
+        return scanResult;
+    }
+
+    /**
+     * Write scan result, so that it can be restored with {@link #read(DataInput, ClassLoader)}. Scan durations are
+     * not written.
+     * @param out output
+     * @throws IOException when the scan result cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(types.size());
+        for (Map.Entry<String, Map<Class<? extends Annotation>, Set<Class<?>>>> entry : types.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<Class<? extends Annotation>, Set<Class<?>>> annotatedTypes : entry.getValue().entrySet()) {
+                out.writeUTF(annotatedTypes.getKey().getName());
+                out.writeInt(annotatedTypes.getValue().size());
+                for (Class<?> clazz : annotatedTypes.getValue()) {
+                    out.writeUTF(clazz.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Get all scanned package scan paths.
+     * @return package scan paths
+     */
+    public Set<String> getBasePackages() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    /**
+     * Get all classes found during the scan, annotated with any of the scanned annotations.
+     * @return annotated classes
+     */
+    public Set<Class<?>> getTypes() {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (Map<Class<? extends Annotation>, Set<Class<?>>> annotatedTypes : types.values()) {
+            for (Set<Class<?>> classes : annotatedTypes.values()) {
+                result.addAll(classes);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get all classes found during the scan, annotated with given annotation.
+     * @param annotation annotation
+     * @return annotated classes
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+        return getTypesAnnotatedWith(annotation, "");
+    }
+
+    /**
+     * Get all classes found during the scan within given package (or any of its subpackages), annotated with given
+     * annotation. Only scanned packages are taken into account.
+     * @param annotation annotation
+     * @param basePackage package
+     * @return annotated classes
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation, String basePackage) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (Map<Class<? extends Annotation>, Set<Class<?>>> annotatedTypes : types.values()) {
+            for (Class<?> clazz : annotatedTypes.getOrDefault(annotation, Collections.emptySet())) {
+                if (basePackage == null || basePackage.isEmpty() || clazz.getName().startsWith(basePackage + ".")) {
+                    result.add(clazz);
+                }
+            }
+        }
+        return result;
+    }
+}
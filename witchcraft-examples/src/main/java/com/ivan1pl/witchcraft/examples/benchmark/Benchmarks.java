@@ -0,0 +1,41 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs benchmarks given by name as arguments, or all benchmarks when there are no arguments. Run it with
+ * {@code gradle :witchcraft-examples:benchmark}, select benchmarks with {@code -Pbenchmarks=name,name}.
+ */
+public class Benchmarks {
+    private static final Map<String, Benchmark> BENCHMARKS = new LinkedHashMap<>();
+
+    static {
+        BENCHMARKS.put("latencyHistogram", LatencyHistogramBenchmark::main);
+        BENCHMARKS.put("componentIndex", ComponentIndexBenchmark::main);
+        BENCHMARKS.put("dependencyGraph", DependencyGraphBenchmark::main);
+        BENCHMARKS.put("dispatch", DispatchBenchmark::main);
+        BENCHMARKS.put("methodInvoker", MethodInvokerBenchmark::main);
+        BENCHMARKS.put("proxyInvocation", ProxyInvocationBenchmark::main);
+    }
+
+    public static void main(String[] args) throws Throwable {
+        Collection<String> names = args.length == 0 ? BENCHMARKS.keySet() : Arrays.asList(args);
+        for (String name : names) {
+            if (!BENCHMARKS.containsKey(name)) {
+                throw new IllegalArgumentException(String.format(
+                        "Unknown benchmark: %s, available benchmarks: %s", name, BENCHMARKS.keySet()));
+            }
+        }
+        for (String name : names) {
+            System.out.println(String.format("Benchmark %s:", name));
+            BENCHMARKS.get(name).run(new String[0]);
+        }
+    }
+
+    private interface Benchmark {
+        void run(String[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import com.ivan1pl.witchcraft.commands.annotations.Command;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.index.ComponentIndex;
+import org.reflections.Reflections;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Timing loop comparing startup discovery of managed classes in this plugin with the compile time
+ * {@link ComponentIndex} (loading the index, checking that it covers the package and resolving annotated types) and
+ * with a classpath scan. Run it with {@code gradle :witchcraft-examples:benchmark -Pbenchmarks=componentIndex}.
+ */
+public class ComponentIndexBenchmark {
+    private static final String BASE_PACKAGE = "com.ivan1pl.witchcraft.examples";
+    private static final List<Class<? extends Annotation>> ANNOTATIONS = Arrays.asList(Managed.class, Command.class);
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final int SCANS_PER_ROUND = 50;
+
+    public static void main(String[] args) throws Exception {
+        ClassLoader classLoader = ComponentIndexBenchmark.class.getClassLoader();
+        if (!index(classLoader).equals(scan(classLoader))) {
+            throw new IllegalStateException("Component index and classpath scan found different classes");
+        }
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            runIndex(classLoader);
+            runScan(classLoader);
+        }
+        for (int i = 0; i < ROUNDS; ++i) {
+            System.out.println(String.format("component index: %.3f ms/startup; classpath scan: %.3f ms/startup",
+                    runIndex(classLoader), runScan(classLoader)));
+        }
+    }
+
+    private static double runIndex(ClassLoader classLoader) throws Exception {
+        long begin = System.nanoTime();
+        for (int i = 0; i < SCANS_PER_ROUND; ++i) {
+            index(classLoader);
+        }
+        return (System.nanoTime() - begin) / 1e6 / SCANS_PER_ROUND;
+    }
+
+    private static double runScan(ClassLoader classLoader) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < SCANS_PER_ROUND; ++i) {
+            scan(classLoader);
+        }
+        return (System.nanoTime() - begin) / 1e6 / SCANS_PER_ROUND;
+    }
+
+    private static Map<Class<? extends Annotation>, Set<Class<?>>> index(ClassLoader classLoader) throws Exception {
+        ComponentIndex componentIndex = ComponentIndex.load(classLoader);
+        if (componentIndex == null || !componentIndex.covers(BASE_PACKAGE, classLoader)) {
+            throw new IllegalStateException("Component index does not cover package " + BASE_PACKAGE);
+        }
+        Map<Class<? extends Annotation>, Set<Class<?>>> result = new HashMap<>();
+        for (Class<? extends Annotation> annotation : ANNOTATIONS) {
+            result.put(annotation, componentIndex.getTypesAnnotatedWith(BASE_PACKAGE, annotation, classLoader));
+        }
+        return result;
+    }
+
+    private static Map<Class<? extends Annotation>, Set<Class<?>>> scan(ClassLoader classLoader) {
+        Reflections reflections = new Reflections(BASE_PACKAGE, classLoader);
+        Map<Class<? extends Annotation>, Set<Class<?>>> result = new HashMap<>();
+        for (Class<? extends Annotation> annotation : ANNOTATIONS) {
+            result.put(annotation, reflections.getTypesAnnotatedWith(annotation));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import com.ivan1pl.witchcraft.examples.WitchCraftExamplePlugin;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.Modifier;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Timing loop measuring how long it takes to resolve dependencies of a synthetic plugin with 10,000 managed classes
+ * and to split them into instantiation layers. Classes are generated in layers of 100, each class depends on three
+ * classes from the previous layer through its constructor. Run it with
+ * {@code gradle :witchcraft-examples:benchmark -Pbenchmarks=dependencyGraph}.
+ */
+public class DependencyGraphBenchmark {
+    private static final String PACKAGE = "com.ivan1pl.witchcraft.examples.benchmark.generated";
+    private static final int LAYERS = 100;
+    private static final int CLASSES_PER_LAYER = 100;
+    private static final int DEPENDENCIES_PER_CLASS = 3;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 5;
+    private static final int GRAPHS_PER_ROUND = 10;
+
+    public static void main(String[] args) throws Exception {
+        List<Class<?>> classes = generateClasses();
+        // the dependency graph is internal to the context, it is only reachable through reflection
+        Class<?> graphClass = Class.forName("com.ivan1pl.witchcraft.context.DependencyGraph");
+        Constructor<?> graphConstructor = graphClass.getDeclaredConstructor(Class.class, Collection.class);
+        graphConstructor.setAccessible(true);
+        Method createLayers = graphClass.getDeclaredMethod("createLayers");
+        createLayers.setAccessible(true);
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            run(classes, graphConstructor, createLayers);
+        }
+        for (int i = 0; i < ROUNDS; ++i) {
+            double[] result = run(classes, graphConstructor, createLayers);
+            System.out.println(String.format("%d classes: %.2f ms/graph, %.2f ms/layering",
+                    classes.size(), result[0], result[1]));
+        }
+    }
+
+    private static double[] run(List<Class<?>> classes, Constructor<?> graphConstructor, Method createLayers)
+            throws Exception {
+        long graphNanos = 0;
+        long layersNanos = 0;
+        for (int i = 0; i < GRAPHS_PER_ROUND; ++i) {
+            long begin = System.nanoTime();
+            Object graph = graphConstructor.newInstance(WitchCraftExamplePlugin.class, classes);
+            long built = System.nanoTime();
+            List<?> layers = (List<?>) createLayers.invoke(graph);
+            long end = System.nanoTime();
+            if (layers.size() != LAYERS) {
+                throw new IllegalStateException("Expected " + LAYERS + " layers, got " + layers.size());
+            }
+            graphNanos += built - begin;
+            layersNanos += end - built;
+        }
+        return new double[] { graphNanos / 1e6 / GRAPHS_PER_ROUND, layersNanos / 1e6 / GRAPHS_PER_ROUND };
+    }
+
+    private static List<Class<?>> generateClasses() throws Exception {
+        ClassPool pool = new ClassPool(true);
+        Map<String, byte[]> classFiles = new HashMap<>();
+        CtClass[] previousLayer = new CtClass[0];
+        long random = 1;
+        for (int layer = 0; layer < LAYERS; ++layer) {
+            CtClass[] currentLayer = new CtClass[CLASSES_PER_LAYER];
+            for (int i = 0; i < CLASSES_PER_LAYER; ++i) {
+                CtClass ctClass = pool.makeClass(String.format("%s.Bean%d_%d", PACKAGE, layer, i));
+                ctClass.setModifiers(Modifier.PUBLIC);
+                Set<CtClass> parameters = new LinkedHashSet<>();
+                while (previousLayer.length > 0 && parameters.size() < DEPENDENCIES_PER_CLASS) {
+                    random ^= random << 13;
+                    random ^= random >>> 7;
+                    random ^= random << 17;
+                    parameters.add(previousLayer[(int) Math.floorMod(random, (long) previousLayer.length)]);
+                }
+                ctClass.addConstructor(CtNewConstructor.make(parameters.toArray(new CtClass[0]), new CtClass[0],
+                        CtNewConstructor.PASS_NONE, null, null, ctClass));
+                currentLayer[i] = ctClass;
+            }
+            for (CtClass ctClass : currentLayer) {
+                classFiles.put(ctClass.getName(), ctClass.toBytecode());
+            }
+            previousLayer = currentLayer;
+        }
+        ClassLoader classLoader = new GeneratedClassLoader(classFiles);
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : classFiles.keySet()) {
+            classes.add(classLoader.loadClass(name));
+        }
+        Collections.shuffle(classes, new Random(1));
+        return classes;
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classFiles;
+
+        private GeneratedClassLoader(Map<String, byte[]> classFiles) {
+            super(DependencyGraphBenchmark.class.getClassLoader());
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classFile = classFiles.get(name);
+            if (classFile == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing loop measuring subcommand lookup in a command with 200 subcommands: 100 top-level subcommands and 10 groups
+ * of 10 nested subcommands (e.g. {@code /command group3 action7}). Lookup through the compiled dispatch trie is
+ * compared with a linear search over all subcommand paths, which is how subcommands were found before the trie was
+ * introduced. Run it with {@code gradle :witchcraft-examples:benchmark -Pbenchmarks=dispatch}.
+ */
+public class DispatchBenchmark {
+    private static final int TOP_LEVEL_SUBCOMMANDS = 100;
+    private static final int GROUPS = 10;
+    private static final int SUBCOMMANDS_PER_GROUP = 10;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final int DISPATCHES_PER_ROUND = 1_000_000;
+    private static final MethodHandle WALK;
+
+    static {
+        // the dispatch trie is internal to the command executor, it is only reachable through reflection
+        try {
+            Method walk = Class.forName("com.ivan1pl.witchcraft.commands.base.DispatchNode")
+                    .getDeclaredMethod("walk", String[].class, int.class);
+            walk.setAccessible(true);
+            WALK = MethodHandles.lookup().unreflect(walk)
+                    .asType(MethodType.methodType(Object[].class, Object.class, String[].class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static void main(String[] args) throws Throwable {
+        Map<String, Object> subcommands = createSubcommands();
+        Object root = compile(subcommands);
+        List<String[]> paths = new ArrayList<>();
+        for (String path : subcommands.keySet()) {
+            paths.add(path.split(" "));
+        }
+        String[][] commands = new String[paths.size()][];
+        for (int i = 0; i < commands.length; ++i) {
+            String[] path = paths.get(i);
+            commands[i] = new String[path.length + 1];
+            System.arraycopy(path, 0, commands[i], 0, path.length);
+            commands[i][path.length] = "42";
+        }
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            runTrie(root, commands);
+            runLinear(paths, commands);
+        }
+        for (int i = 0; i < ROUNDS; ++i) {
+            System.out.println(String.format(
+                    "%d subcommands: dispatch trie: %.1f ns/dispatch; linear search: %.1f ns/dispatch",
+                    subcommands.size(), runTrie(root, commands), runLinear(paths, commands)));
+        }
+    }
+
+    private static double runTrie(Object root, String[][] commands) throws Throwable {
+        long matched = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < DISPATCHES_PER_ROUND; ++i) {
+            String[] command = commands[i % commands.length];
+            matched += ((Object[]) WALK.invokeExact(root, command, command.length)).length - 1;
+        }
+        long elapsed = System.nanoTime() - begin;
+        check(matched, commands);
+        return (double) elapsed / DISPATCHES_PER_ROUND;
+    }
+
+    private static double runLinear(List<String[]> paths, String[][] commands) {
+        long matched = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < DISPATCHES_PER_ROUND; ++i) {
+            String[] command = commands[i % commands.length];
+            int longest = 0;
+            for (String[] path : paths) {
+                if (path.length > longest && path.length <= command.length && startsWith(command, path)) {
+                    longest = path.length;
+                }
+            }
+            matched += longest;
+        }
+        long elapsed = System.nanoTime() - begin;
+        check(matched, commands);
+        return (double) elapsed / DISPATCHES_PER_ROUND;
+    }
+
+    private static boolean startsWith(String[] command, String[] path) {
+        for (int i = 0; i < path.length; ++i) {
+            if (!path[i].equals(command[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void check(long matched, String[][] commands) {
+        long expected = 0;
+        for (int i = 0; i < DISPATCHES_PER_ROUND; ++i) {
+            expected += commands[i % commands.length].length - 1;
+        }
+        if (matched != expected) {
+            throw new IllegalStateException("Some subcommands were not found");
+        }
+    }
+
+    private static Map<String, Object> createSubcommands() throws ReflectiveOperationException {
+        Class<?> bindingPlanClass = Class.forName("com.ivan1pl.witchcraft.commands.base.BindingPlan");
+        Constructor<?> methodHolderConstructor = Class.forName("com.ivan1pl.witchcraft.commands.base.MethodHolder")
+                .getDeclaredConstructor(Method.class, Method.class, bindingPlanClass);
+        methodHolderConstructor.setAccessible(true);
+        Map<String, Object> subcommands = new LinkedHashMap<>();
+        for (int i = 0; i < TOP_LEVEL_SUBCOMMANDS; ++i) {
+            subcommands.put("subcommand" + i, methodHolderConstructor.newInstance(null, null, null));
+        }
+        for (int i = 0; i < GROUPS; ++i) {
+            for (int j = 0; j < SUBCOMMANDS_PER_GROUP; ++j) {
+                subcommands.put("group" + i + " action" + j, methodHolderConstructor.newInstance(null, null, null));
+            }
+        }
+        return subcommands;
+    }
+
+    private static Object compile(Map<String, Object> subcommands) throws ReflectiveOperationException {
+        Method compile = Class.forName("com.ivan1pl.witchcraft.commands.base.DispatchNode")
+                .getDeclaredMethod("compile", Map.class);
+        compile.setAccessible(true);
+        return compile.invoke(null, subcommands);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import com.ivan1pl.witchcraft.context.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Timing loop measuring the cost of {@link LatencyHistogram#record(long)}, single threaded and with all available
+ * processors recording into the same histogram. Run it with
+ * {@code gradle :witchcraft-examples:benchmark -Pbenchmarks=latencyHistogram}.
+ */
+public class LatencyHistogramBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final int RECORDS_PER_ROUND = 20_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            run(1);
+            run(threads);
+        }
+        for (int i = 0; i < ROUNDS; ++i) {
+            System.out.println(String.format("1 thread: %.1f ns/record; %d threads: %.1f ns/record per thread",
+                    run(1), threads, run(threads)));
+        }
+    }
+
+    private static double run(int threads) throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("benchmark");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; ++t) {
+            long seed = t + 1;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long value = seed;
+                for (int i = 0; i < RECORDS_PER_ROUND; ++i) {
+                    value ^= value << 13;
+                    value ^= value >>> 7;
+                    value ^= value << 17;
+                    histogram.record(value & 0xFFFFFFL);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (histogram.getSnapshot().getCount() != (long) threads * RECORDS_PER_ROUND) {
+            throw new IllegalStateException("Lost records");
+        }
+        return (double) elapsed / RECORDS_PER_ROUND;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import com.ivan1pl.witchcraft.context.invoke.MethodInvoker;
+import com.ivan1pl.witchcraft.context.invoke.MethodInvokerFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * Timing loop comparing calls to a subcommand-like method through a {@link MethodInvoker} backed by a method handle
+ * with reflective calls through {@link Method#invoke}, which were used before, and with direct calls. Arguments are
+ * passed as boxed values in an array, the way command arguments are bound. On Java 18 and newer, reflective calls are
+ * themselves implemented with method handles, so the difference is expected to be smaller there. Run it with
+ * {@code gradle :witchcraft-examples:benchmark -Pbenchmarks=methodInvoker}.
+ */
+public class MethodInvokerBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final int CALLS_PER_ROUND = 20_000_000;
+
+    public static void main(String[] args) throws Throwable {
+        Target target = new Target();
+        Method method = Target.class.getMethod("add", int.class, Integer.class);
+        MethodInvoker invoker = MethodInvokerFactory.create(method);
+        Object[][] arguments = new Object[256][];
+        for (int i = 0; i < arguments.length; ++i) {
+            arguments[i] = new Object[] { i, i * 31 };
+        }
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            runDirect(target, arguments);
+            runInvoker(invoker, target, arguments);
+            runReflection(method, target, arguments);
+        }
+        for (int i = 0; i < ROUNDS; ++i) {
+            System.out.println(String.format(
+                    "direct: %.1f ns/call; method handle invoker: %.1f ns/call; reflection: %.1f ns/call",
+                    runDirect(target, arguments), runInvoker(invoker, target, arguments),
+                    runReflection(method, target, arguments)));
+        }
+    }
+
+    private static double runDirect(Target target, Object[][] arguments) {
+        long sum = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < CALLS_PER_ROUND; ++i) {
+            Object[] callArguments = arguments[i & (arguments.length - 1)];
+            sum += target.add((Integer) callArguments[0], (Integer) callArguments[1]);
+        }
+        return result(begin, sum, arguments);
+    }
+
+    private static double runInvoker(MethodInvoker invoker, Target target, Object[][] arguments) throws Throwable {
+        long sum = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < CALLS_PER_ROUND; ++i) {
+            sum += (Integer) invoker.invoke(target, arguments[i & (arguments.length - 1)]);
+        }
+        return result(begin, sum, arguments);
+    }
+
+    private static double runReflection(Method method, Target target, Object[][] arguments) throws Exception {
+        long sum = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < CALLS_PER_ROUND; ++i) {
+            sum += (Integer) method.invoke(target, arguments[i & (arguments.length - 1)]);
+        }
+        return result(begin, sum, arguments);
+    }
+
+    private static double result(long begin, long sum, Object[][] arguments) {
+        long elapsed = System.nanoTime() - begin;
+        long expected = 0;
+        for (Object[] callArguments : arguments) {
+            expected += (Integer) callArguments[0] + (Integer) callArguments[1];
+        }
+        if (sum != expected * (CALLS_PER_ROUND / arguments.length)) {
+            throw new IllegalStateException("Wrong result");
+        }
+        return (double) elapsed / CALLS_PER_ROUND;
+    }
+
+    public static class Target {
+        public int add(int a, Integer b) {
+            return a + b;
+        }
+    }
+}
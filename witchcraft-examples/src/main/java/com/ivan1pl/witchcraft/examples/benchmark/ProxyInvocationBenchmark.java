@@ -0,0 +1,128 @@
+package com.ivan1pl.witchcraft.examples.benchmark;
+
+import com.ivan1pl.witchcraft.context.proxy.Aspect;
+import com.ivan1pl.witchcraft.context.proxy.InvocationCallback;
+import com.ivan1pl.witchcraft.context.proxy.Pointcut;
+import com.ivan1pl.witchcraft.context.proxy.ProxyInvocationHandler;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.Proxy;
+import javassist.util.proxy.ProxyFactory;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Timing loop measuring the overhead of a call to a proxied managed object, with 0, 1 and 3 aspects that advise the
+ * method without doing anything. {@link ProxyInvocationHandler}, which reuses advice chains built on the first call of
+ * each method, is compared with the handler used before, which rebuilt the around advice chain on each call and
+ * invoked methods reflectively, and with direct calls to an object that is not proxied. Run it with
+ * {@code gradle :witchcraft-examples:benchmark -Pbenchmarks=proxyInvocation}.
+ */
+public class ProxyInvocationBenchmark {
+    private static final int[] ASPECT_COUNTS = { 0, 1, 3 };
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final int CALLS_PER_ROUND = 10_000_000;
+
+    public static void main(String[] args) throws Exception {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setSuperclass(Target.class);
+        Class<?> proxyClass = proxyFactory.createClass();
+        for (int aspectCount : ASPECT_COUNTS) {
+            ProxyInvocationHandler handler = new ProxyInvocationHandler();
+            PreviousInvocationHandler previousHandler = new PreviousInvocationHandler();
+            for (int i = 0; i < aspectCount; ++i) {
+                handler.addAspect(new NoOpAspect(), Pointcut.ALL);
+                previousHandler.addAspect(new NoOpAspect());
+            }
+            Target direct = new Target();
+            Target proxy = createProxy(proxyClass, handler);
+            Target previousProxy = createProxy(proxyClass, previousHandler);
+            for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+                run(direct);
+                run(proxy);
+                run(previousProxy);
+            }
+            for (int i = 0; i < ROUNDS; ++i) {
+                System.out.println(String.format(
+                        "%d aspects: direct: %.1f ns/call; proxy: %.1f ns/call; previous proxy: %.1f ns/call",
+                        aspectCount, run(direct), run(proxy), run(previousProxy)));
+            }
+        }
+    }
+
+    private static Target createProxy(Class<?> proxyClass, MethodHandler handler) throws Exception {
+        Target proxy = (Target) proxyClass.getConstructor().newInstance();
+        ((Proxy) proxy).setHandler(handler);
+        return proxy;
+    }
+
+    private static double run(Target target) {
+        long sum = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < CALLS_PER_ROUND; ++i) {
+            sum += target.add(i & 0xFF, 1);
+        }
+        long elapsed = System.nanoTime() - begin;
+        long expected = 0;
+        for (int i = 0; i < CALLS_PER_ROUND; ++i) {
+            expected += (i & 0xFF) + 1;
+        }
+        if (sum != expected) {
+            throw new IllegalStateException("Wrong result");
+        }
+        return (double) elapsed / CALLS_PER_ROUND;
+    }
+
+    public static class Target {
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    private static class NoOpAspect implements Aspect {
+        @Override
+        public void beforeMethod(Object self, Method method, Method originalMethod, Object[] args) {
+        }
+
+        @Override
+        public void afterMethod(Object self, Method method, Method originalMethod, Object[] args) {
+        }
+
+        @Override
+        public InvocationCallback aroundMethod(InvocationCallback proceed) {
+            return (self, method, originalMethod, args) -> proceed.apply(self, method, originalMethod, args);
+        }
+    }
+
+    /**
+     * Invocation handler of managed classes as it was before advice chains were reused.
+     */
+    private static class PreviousInvocationHandler implements MethodHandler {
+        private final PriorityQueue<Aspect> aspects =
+                new PriorityQueue<>(11, Comparator.comparingInt(Aspect::getPriority));
+
+        private void addAspect(Aspect aspect) {
+            aspects.add(aspect);
+        }
+
+        @Override
+        public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
+            for (Aspect aspect : aspects) {
+                aspect.beforeMethod(self, proceed, thisMethod, args);
+            }
+            InvocationCallback chain = (selfObj, proceedMethod, calledMethod, methodArgs) ->
+                    proceedMethod.invoke(selfObj, methodArgs);
+            Aspect[] aspects = this.aspects.toArray(new Aspect[0]);
+            for (int i = aspects.length - 1; i >= 0; --i) {
+                chain = aspects[i].aroundMethod(chain);
+            }
+            Object result = chain.apply(self, proceed, thisMethod, args);
+            for (Aspect aspect : this.aspects) {
+                aspect.afterMethod(self, proceed, thisMethod, args);
+            }
+            return result;
+        }
+    }
+}
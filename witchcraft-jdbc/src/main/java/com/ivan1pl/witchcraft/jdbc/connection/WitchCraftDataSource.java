@@ -1,11 +1,15 @@
 package com.ivan1pl.witchcraft.jdbc.connection;
 
+import com.ivan1pl.witchcraft.context.AsyncInitializing;
+import com.ivan1pl.witchcraft.context.annotations.ConditionalOnConfiguration;
 import com.ivan1pl.witchcraft.context.annotations.ConfigurationValues;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
 import com.ivan1pl.witchcraft.jdbc.exception.InitializationException;
 import com.ivan1pl.witchcraft.jdbc.transaction.Isolation;
 import com.ivan1pl.witchcraft.jdbc.transaction.TransactionConnectionWrapper;
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.dbcp2.BasicDataSourceFactory;
+import org.bukkit.plugin.java.JavaPlugin;
 
 import javax.sql.DataSource;
 import java.io.PrintWriter;
@@ -18,7 +22,13 @@ import java.util.logging.Logger;
  * WitchCraft's managed {@link DataSource} wrapper.
  */
 @Managed
-public class WitchCraftDataSource implements DataSource {
+@ConditionalOnConfiguration("witchcraft.jdbc.url")
+public class WitchCraftDataSource implements DataSource, AsyncInitializing, AutoCloseable {
+    /**
+     * Plugin instance.
+     */
+    private final JavaPlugin javaPlugin;
+
     /**
      * Wrapped data source.
      */
@@ -31,10 +41,12 @@ public class WitchCraftDataSource implements DataSource {
 
     /**
      * Constructor.
+     * @param javaPlugin plugin instance
      * @param properties data source configuration properties
      * @throws InitializationException when data source initialization fails
      */
     public WitchCraftDataSource(
+            JavaPlugin javaPlugin,
             @ConfigurationValues(
                     prefix = "witchcraft.jdbc",
                     keys = {"defaultAutoCommit", "defaultReadOnly", "defaultTransactionIsolation", "defaultCatalog",
@@ -50,6 +62,7 @@ public class WitchCraftDataSource implements DataSource {
                             "logExpiredConnections", "rollbackOnReturn", "enableAutoCommitOnReturn",
                             "defaultQueryTimeout", "fastFailValidation"}
             ) Properties properties) throws InitializationException {
+        this.javaPlugin = javaPlugin;
         try {
             this.dataSource = BasicDataSourceFactory.createDataSource(properties);
         } catch (Exception e) {
@@ -57,6 +70,33 @@ public class WitchCraftDataSource implements DataSource {
         }
     }
 
+    /**
+     * Prime the connection pool by opening a connection, so that the pool creates its initial connections before the
+     * data source is used. Failure is only logged, the pool will attempt to connect again when a connection is
+     * requested.
+     */
+    @Override
+    public void initAsync() {
+        try {
+            dataSource.getConnection().close();
+            javaPlugin.getLogger().info("Connection pool initialized");
+        } catch (SQLException e) {
+            javaPlugin.getLogger().warning("Failed to initialize connection pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close the connection pool. Managed objects depending on the data source are closed before it, so they can still
+     * use it while they are being closed.
+     * @throws SQLException when the pool cannot be closed
+     */
+    @Override
+    public void close() throws SQLException {
+        if (dataSource instanceof BasicDataSource) {
+            ((BasicDataSource) dataSource).close();
+        }
+    }
+
     /**
      * Attempts to establish a connection with the data source that this {@link DataSource} object represents.
      * @return a connection to the data source
@@ -1,5 +1,7 @@
 package com.ivan1pl.witchcraft.jdbc.transaction;
 
+import com.ivan1pl.witchcraft.context.annotations.Advises;
+import com.ivan1pl.witchcraft.context.annotations.ConditionalOnConfiguration;
 import com.ivan1pl.witchcraft.context.annotations.Managed;
 import com.ivan1pl.witchcraft.context.proxy.Aspect;
 import com.ivan1pl.witchcraft.context.proxy.InvocationCallback;
@@ -14,6 +16,8 @@ import java.sql.Connection;
  * Aspect dealing with automatic transaction management.
  */
 @Managed
+@ConditionalOnConfiguration("witchcraft.jdbc.url")
+@Advises(Transactional.class)
 public class TransactionAspect implements Aspect {
     /**
      * Data source.
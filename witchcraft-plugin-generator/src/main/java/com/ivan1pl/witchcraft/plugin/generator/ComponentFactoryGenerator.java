@@ -0,0 +1,584 @@
+package com.ivan1pl.witchcraft.plugin.generator;
+
+import com.ivan1pl.witchcraft.commands.annotations.Command;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.proxy.Aspect;
+import com.ivan1pl.witchcraft.context.proxy.ComponentFactory;
+import com.ivan1pl.witchcraft.context.proxy.GeneratedProxySupport;
+import com.ivan1pl.witchcraft.context.proxy.MethodMatcher;
+import com.ivan1pl.witchcraft.context.proxy.ProxyInvocationHandler;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Generate factories and proxy classes of managed classes, so that the dependency injection context does not need to
+ * use reflection to create instances or create proxy classes at runtime. Classes for which no factory or proxy can be
+ * generated (e.g. generic classes) are skipped, the context will create them at runtime.
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+public class ComponentFactoryGenerator extends AbstractProcessor {
+    /**
+     * Binary names of all processed classes.
+     */
+    private final Set<String> processed = new HashSet<>();
+
+    /**
+     * Process annotations.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> set, RoundEnvironment roundEnvironment) {
+        processComponents(roundEnvironment, Managed.class);
+        processComponents(roundEnvironment, Command.class);
+        return false;
+    }
+
+    /**
+     * Generate factories for all classes annotated with given annotation.
+     * @param roundEnvironment round environment
+     * @param annotation annotation marking managed classes
+     */
+    private void processComponents(RoundEnvironment roundEnvironment, Class<? extends Annotation> annotation) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                TypeElement typeElement = (TypeElement) element;
+                if (processed.add(processingEnv.getElementUtils().getBinaryName(typeElement).toString())) {
+                    processComponent(typeElement);
+                }
+            }
+        }
+    }
+
+    /**
+     * Generate factory and, if possible, proxy class of given managed class.
+     * @param typeElement managed class
+     */
+    private void processComponent(TypeElement typeElement) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(typeElement);
+        ExecutableElement constructor = getConstructor(typeElement, packageElement);
+        if (constructor == null) {
+            return;
+        }
+        List<ExecutableElement> methods = null;
+        if (!typeElement.getModifiers().contains(Modifier.FINAL) && !isSubtype(typeElement, Aspect.class.getName()) &&
+                !isSubtype(typeElement, "org.bukkit.event.Listener")) {
+            methods = getProxyMethods(typeElement, packageElement);
+        }
+        String packageName = packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        try {
+            if (methods != null) {
+                writeProxy(typeElement, packageName, simpleName, constructor, methods);
+            }
+            writeFactory(typeElement, packageName, simpleName, constructor, methods != null);
+        } catch (Exception e) {
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Error generating factory of class " + typeElement.getQualifiedName() + ".");
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, sw.toString());
+        }
+    }
+
+    /**
+     * Get the constructor used to create instances of given managed class.
+     * @param typeElement managed class
+     * @param packageElement package of the managed class
+     * @return constructor, or {@code null} if no factory can be generated for the class
+     */
+    private ExecutableElement getConstructor(TypeElement typeElement, PackageElement packageElement) {
+        if (typeElement.getModifiers().contains(Modifier.ABSTRACT) || !typeElement.getTypeParameters().isEmpty() ||
+                !isAccessible(typeElement, packageElement)) {
+            return null;
+        }
+        for (Element e = typeElement; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            TypeElement t = (TypeElement) e;
+            if (t.getNestingKind() != NestingKind.TOP_LEVEL && (t.getNestingKind() != NestingKind.MEMBER ||
+                    !t.getModifiers().contains(Modifier.STATIC))) {
+                return null;
+            }
+        }
+        List<ExecutableElement> constructors = new ArrayList<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                constructors.add(constructor);
+            }
+        }
+        if (constructors.size() != 1 || !constructors.get(0).getTypeParameters().isEmpty()) {
+            return null;
+        }
+        for (VariableElement parameter : constructors.get(0).getParameters()) {
+            if (!isSupported(parameter.asType(), packageElement)) {
+                return null;
+            }
+        }
+        return constructors.get(0);
+    }
+
+    /**
+     * Get all methods that should be overridden by the proxy of given managed class.
+     * @param typeElement managed class
+     * @param packageElement package of the managed class
+     * @return methods to override, or {@code null} if no proxy can be generated for the class
+     */
+    private List<ExecutableElement> getProxyMethods(TypeElement typeElement, PackageElement packageElement) {
+        DeclaredType declaredType = (DeclaredType) typeElement.asType();
+        Set<String> signatures = new HashSet<>();
+        List<ExecutableElement> candidates = new ArrayList<>();
+        for (TypeElement t = typeElement; t != null; t = getSuperclass(t)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+                if (signatures.add(getSignature(declaredType, method))) {
+                    candidates.add(method);
+                }
+            }
+        }
+        for (TypeElement t : getAllInterfaces(typeElement)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+                if (method.getModifiers().contains(Modifier.DEFAULT) &&
+                        signatures.add(getSignature(declaredType, method))) {
+                    candidates.add(method);
+                }
+            }
+        }
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : candidates) {
+            if (isOverridable(method, packageElement)) {
+                if (!method.getTypeParameters().isEmpty() ||
+                        !isAccessible((TypeElement) method.getEnclosingElement(), packageElement)) {
+                    return null;
+                }
+                ExecutableType executableType =
+                        (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+                List<TypeMirror> types = new ArrayList<>(executableType.getParameterTypes());
+                types.add(executableType.getReturnType());
+                types.addAll(executableType.getThrownTypes());
+                for (TypeMirror type : types) {
+                    if (!isSupported(type, packageElement)) {
+                        return null;
+                    }
+                }
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Check whether given method can be overridden by a proxy class placed in given package.
+     * @param method method
+     * @param packageElement package of the proxy class
+     * @return {@code true} if the method can be overridden, {@code false} otherwise
+     */
+    private boolean isOverridable(ExecutableElement method, PackageElement packageElement) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL) ||
+                modifiers.contains(Modifier.PRIVATE) || method.getSimpleName().contentEquals("finalize")) {
+            return false;
+        }
+        TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+        if (declaringType.getQualifiedName().contentEquals(Object.class.getName())) {
+            return modifiers.contains(Modifier.PUBLIC);
+        }
+        return modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED) ||
+                processingEnv.getElementUtils().getPackageOf(declaringType).equals(packageElement);
+    }
+
+    /**
+     * Get method signature, used to find methods overridden in subclasses.
+     * @param declaredType managed class
+     * @param method method
+     * @return method name and erased parameter types, as seen from the managed class
+     */
+    private String getSignature(DeclaredType declaredType, ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        if (!method.getModifiers().contains(Modifier.STATIC)) {
+            ExecutableType executableType =
+                    (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+            for (TypeMirror type : executableType.getParameterTypes()) {
+                signature.append(processingEnv.getTypeUtils().erasure(type)).append(',');
+            }
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * Get direct superclass of given class.
+     * @param typeElement class
+     * @return superclass or {@code null} if there is none
+     */
+    private TypeElement getSuperclass(TypeElement typeElement) {
+        TypeMirror superclass = typeElement.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    /**
+     * Get all interfaces implemented by given class, directly or indirectly.
+     * @param typeElement class
+     * @return all implemented interfaces
+     */
+    private Set<TypeElement> getAllInterfaces(TypeElement typeElement) {
+        Set<TypeElement> result = new LinkedHashSet<>();
+        Deque<TypeElement> queue = new ArrayDeque<>();
+        queue.add(typeElement);
+        while (!queue.isEmpty()) {
+            TypeElement t = queue.poll();
+            for (TypeMirror i : t.getInterfaces()) {
+                TypeElement element = (TypeElement) ((DeclaredType) i).asElement();
+                if (result.add(element)) {
+                    queue.add(element);
+                }
+            }
+            TypeElement superclass = getSuperclass(t);
+            if (superclass != null) {
+                queue.add(superclass);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether given class is a subtype of a type with given name.
+     * @param typeElement class
+     * @param typeName qualified type name
+     * @return {@code true} if the class is a subtype, {@code false} otherwise or when the type does not exist
+     */
+    private boolean isSubtype(TypeElement typeElement, String typeName) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(typeName);
+        return type != null && processingEnv.getTypeUtils().isSubtype(
+                processingEnv.getTypeUtils().erasure(typeElement.asType()),
+                processingEnv.getTypeUtils().erasure(type.asType()));
+    }
+
+    /**
+     * Check whether given type can be used in the generated code: it has to be accessible from given package and
+     * cannot contain type variables.
+     * @param type type
+     * @param packageElement package of the generated code
+     * @return {@code true} if the type can be used, {@code false} otherwise
+     */
+    private boolean isSupported(TypeMirror type, PackageElement packageElement) {
+        switch (type.getKind()) {
+            case DECLARED:
+                DeclaredType declaredType = (DeclaredType) type;
+                if (!isAccessible((TypeElement) declaredType.asElement(), packageElement)) {
+                    return false;
+                }
+                for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+                    if (!isSupported(typeArgument, packageElement)) {
+                        return false;
+                    }
+                }
+                return true;
+            case ARRAY:
+                return isSupported(((ArrayType) type).getComponentType(), packageElement);
+            case WILDCARD:
+                WildcardType wildcardType = (WildcardType) type;
+                return (wildcardType.getExtendsBound() == null ||
+                        isSupported(wildcardType.getExtendsBound(), packageElement)) &&
+                        (wildcardType.getSuperBound() == null ||
+                                isSupported(wildcardType.getSuperBound(), packageElement));
+            case TYPEVAR:
+            case INTERSECTION:
+            case UNION:
+            case ERROR:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Check whether given class is accessible from given package.
+     * @param typeElement class
+     * @param packageElement package
+     * @return {@code true} if the class is accessible, {@code false} otherwise
+     */
+    private boolean isAccessible(TypeElement typeElement, PackageElement packageElement) {
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(typeElement).equals(packageElement);
+        for (Element e = typeElement; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!samePackage && !modifiers.contains(Modifier.PUBLIC))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Save factory source file.
+     * @param typeElement managed class
+     * @param packageName package name
+     * @param simpleName managed class name within its package
+     * @param constructor managed class constructor
+     * @param hasProxy whether proxy class was generated
+     * @throws Exception when the file cannot be saved
+     */
+    private void writeFactory(TypeElement typeElement, String packageName, String simpleName,
+                              ExecutableElement constructor, boolean hasProxy) throws Exception {
+        String className = simpleName + ComponentFactory.FACTORY_SUFFIX;
+        String proxyName = simpleName + ComponentFactory.PROXY_SUFFIX;
+        String type = typeElement.getQualifiedName().toString();
+        String arguments = getArguments(constructor);
+        StringBuilder source = new StringBuilder();
+        appendHeader(source, packageName);
+        source.append("@SuppressWarnings(\"unchecked\")\n");
+        source.append("public final class ").append(className).append(" implements ")
+                .append(ComponentFactory.class.getCanonicalName()).append('<').append(type).append("> {\n");
+        source.append("    @Override\n");
+        source.append("    public ").append(type).append(" create(java.lang.Object[] args) throws java.lang.Throwable {\n");
+        source.append("        return new ").append(type).append('(').append(arguments).append(");\n");
+        source.append("    }\n\n");
+        source.append("    @Override\n");
+        source.append("    public ").append(type).append(" createProxy(")
+                .append(ProxyInvocationHandler.class.getCanonicalName()).append(" handler, ")
+                .append(MethodMatcher.class.getCanonicalName())
+                .append(" advised, java.lang.Object[] args) throws java.lang.Throwable {\n");
+        if (hasProxy) {
+            source.append("        ").append(proxyName).append(" proxy = new ").append(proxyName).append('(')
+                    .append(arguments).append(");\n");
+            source.append("        proxy.$$init(handler, advised);\n");
+            source.append("        return proxy;\n");
+        } else {
+            source.append("        return null;\n");
+        }
+        source.append("    }\n");
+        source.append("}\n");
+        writeSource(typeElement, packageName, className, source);
+    }
+
+    /**
+     * Save proxy class source file.
+     * @param typeElement managed class
+     * @param packageName package name
+     * @param simpleName managed class name within its package
+     * @param constructor managed class constructor
+     * @param methods methods to override
+     * @throws Exception when the file cannot be saved
+     */
+    private void writeProxy(TypeElement typeElement, String packageName, String simpleName,
+                            ExecutableElement constructor, List<ExecutableElement> methods) throws Exception {
+        String className = simpleName + ComponentFactory.PROXY_SUFFIX;
+        String support = GeneratedProxySupport.class.getCanonicalName();
+        DeclaredType declaredType = (DeclaredType) typeElement.asType();
+        StringBuilder source = new StringBuilder();
+        appendHeader(source, packageName);
+        source.append("@SuppressWarnings(\"unchecked\")\n");
+        source.append("public final class ").append(className).append(" extends ")
+                .append(typeElement.getQualifiedName()).append(" {\n");
+        source.append("    private static final java.lang.reflect.Method[] $$METHODS = new java.lang.reflect.Method[] {\n");
+        for (ExecutableElement method : methods) {
+            source.append("            ").append(support).append(".getMethod(")
+                    .append(processingEnv.getTypeUtils().erasure(method.getEnclosingElement().asType()))
+                    .append(".class, \"").append(method.getSimpleName()).append('"');
+            for (VariableElement parameter : method.getParameters()) {
+                source.append(", ").append(processingEnv.getTypeUtils().erasure(parameter.asType())).append(".class");
+            }
+            source.append("),\n");
+        }
+        source.append("    };\n\n");
+        source.append("    private static final java.lang.reflect.Method[] $$FORWARDERS = new java.lang.reflect.Method[] {\n");
+        for (ExecutableElement method : methods) {
+            ExecutableType executableType =
+                    (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+            source.append("            ").append(support).append(".getMethod(").append(className)
+                    .append(".class, \"").append(method.getSimpleName()).append("$$WitchCraftSuper\"");
+            for (TypeMirror parameterType : executableType.getParameterTypes()) {
+                source.append(", ").append(processingEnv.getTypeUtils().erasure(parameterType)).append(".class");
+            }
+            source.append("),\n");
+        }
+        source.append("    };\n\n");
+        source.append("    private ").append(ProxyInvocationHandler.class.getCanonicalName()).append(" $$handler;\n\n");
+        source.append("    private boolean[] $$advised;\n\n");
+        ExecutableType constructorType = (ExecutableType) constructor.asType();
+        source.append("    public ").append(className).append('(')
+                .append(getParameters(constructorType.getParameterTypes(), constructor.isVarArgs())).append(')')
+                .append(getThrows(constructorType.getThrownTypes())).append(" {\n");
+        source.append("        super(").append(getArgumentNames(constructor.getParameters().size())).append(");\n");
+        source.append("    }\n\n");
+        source.append("    void $$init(").append(ProxyInvocationHandler.class.getCanonicalName()).append(" handler, ")
+                .append(MethodMatcher.class.getCanonicalName()).append(" advised) {\n");
+        source.append("        this.$$handler = handler;\n");
+        source.append("        this.$$advised = ").append(support).append(".getAdvised($$METHODS, advised);\n");
+        source.append("    }\n");
+        for (int i = 0; i < methods.size(); ++i) {
+            appendProxyMethod(source, declaredType, methods.get(i), i, support);
+        }
+        source.append("}\n");
+        writeSource(typeElement, packageName, className, source);
+    }
+
+    /**
+     * Append overriding method and its forwarder to proxy class source.
+     * @param source proxy class source
+     * @param declaredType managed class
+     * @param method overridden method
+     * @param index index of the method in the proxy method arrays
+     * @param support name of the class containing helper methods
+     */
+    private void appendProxyMethod(StringBuilder source, DeclaredType declaredType, ExecutableElement method,
+                                   int index, String support) {
+        ExecutableType executableType = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+        TypeMirror returnType = executableType.getReturnType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+        String name = method.getSimpleName().toString();
+        String parameters = getParameters(executableType.getParameterTypes(), method.isVarArgs());
+        String throwsClause = getThrows(executableType.getThrownTypes());
+        String argumentNames = getArgumentNames(executableType.getParameterTypes().size());
+        String visibility = method.getModifiers().contains(Modifier.PUBLIC) ? "public " :
+                method.getModifiers().contains(Modifier.PROTECTED) ? "protected " : "";
+        source.append("\n    @java.lang.Override\n");
+        source.append("    ").append(visibility).append(returnType).append(' ').append(name).append('(')
+                .append(parameters).append(')').append(throwsClause).append(" {\n");
+        source.append("        if (this.$$advised != null && this.$$advised[").append(index).append("]) {\n");
+        source.append("            try {\n");
+        String invocation = "this.$$handler.invoke(this, $$METHODS[" + index + "], $$FORWARDERS[" + index +
+                "], new java.lang.Object[] {" + (argumentNames.isEmpty() ? "" : " " + argumentNames + " ") + "})";
+        if (isVoid) {
+            source.append("                ").append(invocation).append(";\n");
+            source.append("                return;\n");
+        } else {
+            source.append("                return (").append(getCastType(returnType)).append(") ")
+                    .append(invocation).append(";\n");
+        }
+        source.append("            } catch (java.lang.Throwable t) {\n");
+        source.append("                throw ").append(support).append(".sneakyThrow(t);\n");
+        source.append("            }\n");
+        source.append("        }\n");
+        source.append("        ").append(isVoid ? "" : "return ").append("super.").append(name).append('(')
+                .append(argumentNames).append(");\n");
+        source.append("    }\n\n");
+        source.append("    public ").append(returnType).append(' ').append(name).append("$$WitchCraftSuper(")
+                .append(parameters).append(')').append(throwsClause).append(" {\n");
+        source.append("        ").append(isVoid ? "" : "return ").append("super.").append(name).append('(')
+                .append(argumentNames).append(");\n");
+        source.append("    }\n");
+    }
+
+    /**
+     * Append package declaration and generation comment.
+     * @param source source
+     * @param packageName package name
+     */
+    private void appendHeader(StringBuilder source, String packageName) {
+        source.append("// Generated by ").append(ComponentFactoryGenerator.class.getCanonicalName()).append("\n");
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n");
+        }
+        source.append('\n');
+    }
+
+    /**
+     * Get parameter list declaration.
+     * @param parameterTypes parameter types
+     * @param varArgs whether the last parameter is a variable arity parameter
+     * @return parameter list declaration
+     */
+    private String getParameters(List<? extends TypeMirror> parameterTypes, boolean varArgs) {
+        StringJoiner parameters = new StringJoiner(", ");
+        for (int i = 0; i < parameterTypes.size(); ++i) {
+            TypeMirror type = parameterTypes.get(i);
+            if (varArgs && i == parameterTypes.size() - 1) {
+                parameters.add(((ArrayType) type).getComponentType() + "... arg" + i);
+            } else {
+                parameters.add(type + " arg" + i);
+            }
+        }
+        return parameters.toString();
+    }
+
+    /**
+     * Get throws clause.
+     * @param thrownTypes thrown types
+     * @return throws clause, or an empty string if there are no thrown types
+     */
+    private String getThrows(List<? extends TypeMirror> thrownTypes) {
+        if (thrownTypes.isEmpty()) {
+            return "";
+        }
+        StringJoiner types = new StringJoiner(", ", " throws ", "");
+        for (TypeMirror type : thrownTypes) {
+            types.add(type.toString());
+        }
+        return types.toString();
+    }
+
+    /**
+     * Get argument list passing all parameters.
+     * @param count number of parameters
+     * @return argument list
+     */
+    private String getArgumentNames(int count) {
+        StringJoiner arguments = new StringJoiner(", ");
+        for (int i = 0; i < count; ++i) {
+            arguments.add("arg" + i);
+        }
+        return arguments.toString();
+    }
+
+    /**
+     * Get argument list passing all elements of {@code args} array to given constructor.
+     * @param constructor constructor
+     * @return argument list
+     */
+    private String getArguments(ExecutableElement constructor) {
+        StringJoiner arguments = new StringJoiner(", ");
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        for (int i = 0; i < parameters.size(); ++i) {
+            arguments.add("(" + getCastType(processingEnv.getTypeUtils().erasure(parameters.get(i).asType())) +
+                    ") args[" + i + "]");
+        }
+        return arguments.toString();
+    }
+
+    /**
+     * Get type used to cast an object to given type.
+     * @param type type
+     * @return the type itself, or its boxed type for primitive types
+     */
+    private String getCastType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    /**
+     * Save source file.
+     * @param typeElement managed class
+     * @param packageName package name
+     * @param className generated class name
+     * @param source source
+     * @throws Exception when the file cannot be saved
+     */
+    private void writeSource(TypeElement typeElement, String packageName, String className, StringBuilder source)
+            throws Exception {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? className : packageName + "." + className, typeElement);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> annotations = new LinkedHashSet<>();
+        annotations.add(Managed.class.getCanonicalName());
+        annotations.add(Command.class.getCanonicalName());
+        return annotations;
+    }
+}
@@ -0,0 +1,158 @@
+package com.ivan1pl.witchcraft.plugin.generator;
+
+import com.ivan1pl.witchcraft.commands.annotations.Command;
+import com.ivan1pl.witchcraft.context.annotations.Managed;
+import com.ivan1pl.witchcraft.context.index.ComponentIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+
+/**
+ * Generate index of compiled classes, so that the dependency injection context does not need to scan the classpath.
+ * The index records the supertypes and runtime annotations of every compiled class, which lets the context find
+ * managed classes the same way a classpath scan does, including classes marked with meta-annotations and subclasses
+ * of managed classes.
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+public class ComponentIndexGenerator extends AbstractProcessor {
+    /**
+     * Packages of all compiled classes.
+     */
+    private final Set<String> packages = new TreeSet<>();
+
+    /**
+     * Index entries, by binary class name.
+     */
+    private final Map<String, String> types = new TreeMap<>();
+
+    /**
+     * Whether any compiled class is annotated with {@link Managed} or {@link Command}, directly or through other
+     * annotations.
+     */
+    private boolean hasComponents;
+
+    /**
+     * Process annotations.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> set, RoundEnvironment roundEnvironment) {
+        for (TypeElement typeElement : ElementFilter.typesIn(roundEnvironment.getRootElements())) {
+            packages.add(processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString());
+            processType(typeElement);
+        }
+        if (roundEnvironment.processingOver() && hasComponents) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * Add index entries for given type and all its member types.
+     * @param typeElement compiled type
+     */
+    private void processType(TypeElement typeElement) {
+        List<String> supertypes = new ArrayList<>();
+        TypeMirror superclass = typeElement.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED &&
+                !Object.class.getName().equals(getBinaryName(superclass))) {
+            supertypes.add(getBinaryName(superclass));
+        }
+        for (TypeMirror anInterface : typeElement.getInterfaces()) {
+            supertypes.add(getBinaryName(anInterface));
+        }
+        List<String> annotations = new ArrayList<>();
+        for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                annotations.add(getBinaryName(annotationMirror.getAnnotationType()));
+            }
+        }
+        hasComponents |= isComponent(typeElement, new HashSet<>());
+        String className = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        types.put(className, "type\t" + className + "\t" + String.join(",", supertypes) + "\t" +
+                String.join(",", annotations));
+        for (TypeElement memberType : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            processType(memberType);
+        }
+    }
+
+    /**
+     * Check if an element is annotated with {@link Managed} or {@link Command}, directly or through other
+     * annotations.
+     * @param element element
+     * @param visited annotation types already checked
+     * @return {@code true} if the element is annotated
+     */
+    private boolean isComponent(Element element, Set<Element> visited) {
+        if (element.getAnnotation(Managed.class) != null || element.getAnnotation(Command.class) != null) {
+            return true;
+        }
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            Element annotationType = annotationMirror.getAnnotationType().asElement();
+            if (visited.add(annotationType) && isComponent(annotationType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get binary name of a declared type.
+     * @param typeMirror declared type
+     * @return binary name
+     */
+    private String getBinaryName(TypeMirror typeMirror) {
+        return processingEnv.getElementUtils().getBinaryName(
+                (TypeElement) processingEnv.getTypeUtils().asElement(typeMirror)).toString();
+    }
+
+    /**
+     * Save index resource.
+     */
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + ComponentIndexGenerator.class.getCanonicalName() + "\n");
+                for (String p : packages) {
+                    writer.write("package\t" + p + "\n");
+                }
+                for (String line : types.values()) {
+                    writer.write(line + "\n");
+                }
+            }
+        } catch (Exception e) {
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Error saving component index.");
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, sw.toString());
+        }
+    }
+
+    /**
+     * Get supported annotation types. All compiled classes are indexed, whether they are annotated or not.
+     * @return all annotation types
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+}
@@ -43,7 +43,10 @@ public class WitchCraftPlugin extends JavaPlugin {
         try {
             witchCraftContext = createWitchCraftContext(this);
             witchCraftContext.init();
+            long start = System.nanoTime();
             annotationBasedCommandExecutor = new AnnotationBasedCommandExecutor(this, witchCraftContext);
+            witchCraftContext.getStartupReport().addPhase("Command registration", System.nanoTime() - start);
+            witchCraftContext.getStartupReport().log(getLogger());
         } catch (CommandAlreadyExistsException | CommandDefinitionNotFoundException | CandidateNotFoundException |
                 NonUniqueCandidateException | NoSuchMethodException e) {
             getLogger().severe("Failed to initialize command executor, the plugin will not be enabled\n" +
@@ -99,11 +102,25 @@ public class WitchCraftPlugin extends JavaPlugin {
             annotationBasedCommandExecutor = null;
         }
         if (witchCraftContext != null) {
+            witchCraftContext.shutdown();
             witchCraftContext.clear();
             witchCraftContext = null;
         }
     }
 
+    /**
+     * Reload plugin configuration. Configuration values used by managed classes and commands are updated, and managed
+     * classes implementing {@link com.ivan1pl.witchcraft.context.config.ConfigurationListener} are notified about the
+     * change. Override to add additional behaviour (remember to invoke the method from the superclass if you do).
+     */
+    @Override
+    public void reloadConfig() {
+        super.reloadConfig();
+        if (witchCraftContext != null) {
+            witchCraftContext.reloadConfiguration();
+        }
+    }
+
     /**
      * Get dependency injection context.
      * @return dependency injection context